@@ -0,0 +1,48 @@
+package wss.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Takes the usual JMH command line
+ * (benchmark regex, -f, -wi, -i, -p name=value, ...) and always adds the GC
+ * profiler, so every result comes with its allocation rate (gc.alloc.rate.norm
+ * is bytes allocated per operation).
+ *
+ * Usage: java -jar benchmarks/target/benchmarks.jar [JMH options] [benchmark regex]
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException {
+        CommandLineOptions cli;
+        try {
+            cli = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("[BenchmarkMain] Error: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        // listings and help need no profiler, let JMH handle them
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams() || cli.shouldListProfilers()
+                || cli.shouldListResultFormats()) {
+            try {
+                org.openjdk.jmh.Main.main(args);
+            } catch (Exception e) {
+                throw new RunnerException(e);
+            }
+            return;
+        }
+
+        Options options = new OptionsBuilder()
+            .parent(cli)
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,103 @@
+package wss.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import wss.brain.Brain;
+import wss.game.DifficultySettings;
+import wss.map.GameMap;
+import wss.player.MoveDirection;
+import wss.player.Player;
+import wss.trader.Trader;
+import wss.trader.TraderKind;
+import wss.vision.Vision;
+
+/**
+ * Brain decisions: makeMove() for players spread over a fixed map, and
+ * initiateTrade() against each kind of trader.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BrainBenchmark {
+
+    private static final int PLAYERS = 64;
+    /** Same number of trades as a trader placed by GameMap */
+    private static final int TRADES_PER_TRADER = 3;
+    private static final TraderKind[] TRADER_KINDS = TraderKind.values();
+    private static final DifficultySettings DIFFICULTY = DifficultySettings.MEDIUM;
+
+    @Param({"Greedy", "Social", "Survival"})
+    public String brain;
+
+    private GameMap map;
+    private Player[] players;
+    private Brain[] brains;
+    private int next;
+
+    private Supplier<Brain> brainFactory;
+    private Supplier<Vision> traderVision;
+    private SplittableRandom traderRandom;
+    private int nextKind;
+
+    @Setup
+    public void setup() {
+        Fixtures.quietLog();
+        map = new GameMap(256, 128, DIFFICULTY, Fixtures.SEED);
+        brainFactory = Fixtures.brain(brain);
+
+        // Player has no getter for its brain, so keep each one as it is handed out
+        List<Brain> created = new ArrayList<>(PLAYERS);
+        players = Fixtures.spreadPlayers(map, Fixtures.vision("Extended"), () -> {
+            Brain b = brainFactory.get();
+            created.add(b);
+            return b;
+        }, PLAYERS);
+        brains = created.toArray(new Brain[0]);
+
+        traderVision = Fixtures.vision("Cautious");
+        traderRandom = new SplittableRandom(Fixtures.SEED);
+    }
+
+    @Benchmark
+    public MoveDirection makeMove() {
+        int i = next;
+        next = (next + 1) % PLAYERS;
+        return brains[i].makeMove(map, players[i]);
+    }
+
+    /**
+     * A trade changes both sides, so every invocation trades between a fresh
+     * player and a fresh trader; their construction is part of the measurement.
+     */
+    @Benchmark
+    public Player initiateTrade() {
+        TraderKind kind = TRADER_KINDS[nextKind];
+        nextKind = (nextKind + 1) % TRADER_KINDS.length;
+        Trader trader = kind.create(TRADES_PER_TRADER, DIFFICULTY.getFoodTradeRange(),
+            DIFFICULTY.getWaterTradeRange(), DIFFICULTY.getGoldTradeRange(), traderRandom);
+
+        Brain b = brainFactory.get();
+        Player player = new Player("Trader", traderVision.get(), b, map, 50, 20, 20, 25);
+        b.initiateTrade(player, trader);
+        return player;
+    }
+}
@@ -0,0 +1,98 @@
+package wss.bench;
+
+import java.util.function.Supplier;
+
+import wss.brain.Brain;
+import wss.brain.GreedyBrain;
+import wss.brain.SocialBrain;
+import wss.brain.SurvivalBrain;
+import wss.game.DifficultySettings;
+import wss.map.GameMap;
+import wss.player.MoveDirection;
+import wss.player.Player;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+import wss.vision.CautiousVision;
+import wss.vision.ExtendedVision;
+import wss.vision.GreedyVision;
+import wss.vision.Vision;
+
+/**
+ * Shared setup for the benchmarks: fixed seeds, and players spread over a map
+ * so that a benchmark does not measure the same square over and over.
+ */
+final class Fixtures {
+
+    /** Seed of every map built for a benchmark */
+    static final long SEED = 0x5EEDL;
+
+    /** Strength and supplies of fixture players, enough to walk any benchmark map */
+    private static final int PLENTY = 1_000_000;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Silences the game log; narration would dominate every measurement.
+     */
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    static Supplier<Vision> vision(String name) {
+        return switch (name) {
+            case "Cautious" -> CautiousVision::new;
+            case "Greedy" -> GreedyVision::new;
+            case "Extended" -> ExtendedVision::new;
+            default -> throw new IllegalArgumentException("[Fixtures] Error: unknown vision " + name + ".");
+        };
+    }
+
+    static Supplier<Brain> brain(String name) {
+        return switch (name) {
+            case "Greedy" -> GreedyBrain::new;
+            case "Social" -> SocialBrain::new;
+            case "Survival" -> SurvivalBrain::new;
+            default -> throw new IllegalArgumentException("[Fixtures] Error: unknown brain " + name + ".");
+        };
+    }
+
+    /**
+     * Creates a player with more strength and supplies than any benchmark can use.
+     */
+    static Player player(String name, Vision vision, Brain brain, GameMap map) {
+        return new Player(name, vision, brain, map, PLENTY, PLENTY, PLENTY, PLENTY);
+    }
+
+    /**
+     * Creates players and walks them to positions spread over the map. Players
+     * start on the western edge and can only move, so each one walks a
+     * different distance east and a different distance north or south.
+     * Walking collects items, so the map should not be shared with other benchmarks.
+     *
+     * @param map The map to place the players on
+     * @param vision Vision of every player
+     * @param brain Brain of every player
+     * @param count Number of players
+     * @return the players
+     */
+    static Player[] spreadPlayers(GameMap map, Supplier<Vision> vision, Supplier<Brain> brain, int count) {
+        Player[] players = new Player[count];
+        int width = map.getWidth();
+        int height = map.getHeight();
+        for (int i = 0; i < count; i++) {
+            Player player = player("P" + i, vision.get(), brain.get(), map);
+            int east = 1 + (int) ((long) i * (width - 2) / count);
+            int north = (i * 7) % (height / 2);
+            for (int step = 0; step < east; step++) {
+                player.move(MoveDirection.EAST);
+            }
+            MoveDirection vertical = (i & 1) == 0 ? MoveDirection.NORTH : MoveDirection.SOUTH;
+            for (int step = 0; step < north; step++) {
+                player.move(vertical);
+            }
+            players[i] = player;
+        }
+        return players;
+    }
+}
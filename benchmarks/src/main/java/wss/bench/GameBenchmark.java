@@ -0,0 +1,76 @@
+package wss.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import wss.brain.GreedyBrain;
+import wss.brain.SocialBrain;
+import wss.brain.SurvivalBrain;
+import wss.game.DifficultySettings;
+import wss.game.Game;
+import wss.game.SimulationConfig;
+import wss.vision.CautiousVision;
+import wss.vision.ExtendedVision;
+import wss.vision.GreedyVision;
+
+/**
+ * Whole games, map construction included, with the three players of
+ * BatchMain. Seeds cycle through a fixed sequence, so every run of the
+ * benchmark plays the same games.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    /** Number of different seeds played in turn */
+    private static final int SEEDS = 16;
+
+    /** Map size as WIDTHxHEIGHT */
+    @Param({"30x15", "200x100"})
+    public String size;
+
+    @Param({"EASY", "HARD"})
+    public DifficultySettings difficulty;
+
+    private SimulationConfig[] configs;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Fixtures.quietLog();
+        String[] parts = size.split("x");
+        int width = Integer.parseInt(parts[0]);
+        int height = Integer.parseInt(parts[1]);
+        configs = new SimulationConfig[SEEDS];
+        for (int i = 0; i < SEEDS; i++) {
+            configs[i] = new SimulationConfig(width, height, difficulty)
+                .setSeed(Fixtures.SEED + i)
+                .addPlayer("Greedy", GreedyBrain::new, GreedyVision::new)
+                .addPlayer("Social", SocialBrain::new, CautiousVision::new)
+                .addPlayer("Survivor", SurvivalBrain::new, ExtendedVision::new);
+        }
+    }
+
+    @Benchmark
+    public Game run() {
+        Game game = new Game(configs[next]);
+        next = (next + 1) % SEEDS;
+        game.run();
+        return game;
+    }
+}
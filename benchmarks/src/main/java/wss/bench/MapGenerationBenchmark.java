@@ -0,0 +1,67 @@
+package wss.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import wss.game.DifficultySettings;
+import wss.map.CompactGameMap;
+import wss.map.GameMap;
+import wss.map.TerrainMode;
+
+/**
+ * Construction of a whole map, for every size, difficulty, storage backend
+ * and terrain mode. The seed is fixed, so every invocation builds the same map.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapGenerationBenchmark {
+
+    /** Map size as WIDTHxHEIGHT */
+    @Param({"64x32", "512x256"})
+    public String size;
+
+    @Param({"EASY", "MEDIUM", "HARD"})
+    public DifficultySettings difficulty;
+
+    /** GameMap keeps a MapSquare per cell, CompactGameMap keeps packed planes */
+    @Param({"GameMap", "CompactGameMap"})
+    public String backend;
+
+    @Param({"RANDOM", "NOISE"})
+    public TerrainMode terrainMode;
+
+    private int width;
+    private int height;
+    private boolean compact;
+
+    @Setup
+    public void setup() {
+        Fixtures.quietLog();
+        String[] parts = size.split("x");
+        width = Integer.parseInt(parts[0]);
+        height = Integer.parseInt(parts[1]);
+        compact = backend.equals("CompactGameMap");
+    }
+
+    @Benchmark
+    public GameMap generate() {
+        return compact
+            ? new CompactGameMap(width, height, difficulty, Fixtures.SEED, terrainMode)
+            : new GameMap(width, height, difficulty, Fixtures.SEED, terrainMode);
+    }
+}
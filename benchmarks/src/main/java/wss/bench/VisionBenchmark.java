@@ -0,0 +1,83 @@
+package wss.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import wss.game.DifficultySettings;
+import wss.map.GameMap;
+import wss.map.MapSquare;
+import wss.player.Player;
+import wss.vision.Vision;
+
+/**
+ * Vision scans from players spread over a fixed map. Each invocation moves on
+ * to the next player, so the scans see different surroundings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VisionBenchmark {
+
+    private static final int PLAYERS = 64;
+
+    @Param({"Cautious", "Greedy", "Extended"})
+    public String vision;
+
+    private GameMap map;
+    private Player[] players;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Fixtures.quietLog();
+        map = new GameMap(256, 128, DifficultySettings.MEDIUM, Fixtures.SEED);
+        players = Fixtures.spreadPlayers(map, Fixtures.vision(vision), Fixtures.brain("Greedy"), PLAYERS);
+    }
+
+    private Player nextPlayer() {
+        Player player = players[next];
+        next = (next + 1) % PLAYERS;
+        return player;
+    }
+
+    @Benchmark
+    public List<MapSquare> visibleSquares() {
+        Player player = nextPlayer();
+        return player.getVision().getVisibleSquares(map, player);
+    }
+
+    /**
+     * One scan followed by the three closest-resource queries, the way a brain uses them.
+     */
+    @Benchmark
+    public void closestResources(Blackhole bh) {
+        Player player = nextPlayer();
+        Vision v = player.getVision();
+        bh.consume(v.getVisibleSquares(map, player));
+        bh.consume(v.closestFood());
+        bh.consume(v.closestWater());
+        bh.consume(v.closestGold());
+    }
+
+    @Benchmark
+    public Object scan() {
+        Player player = nextPlayer();
+        return player.getVision().scan(map, player);
+    }
+}
@@ -5,6 +5,8 @@ package wss.brain;
 import wss.map.*;
 import wss.player.*;
 import wss.trader.Trader;
+import wss.util.Log;
+import wss.util.Pathfinder;
 
 /**
  * Abstract Brain class defines the decision-making behavior for a player.
@@ -12,6 +14,12 @@ import wss.trader.Trader;
  */
 public abstract class Brain {
 
+    /** Whether fallbackDirection() follows a planned route instead of heading straight east */
+    private boolean routePlanning;
+
+    /** Plans routes on maps too large for an EastCostField, created on first use */
+    private Pathfinder pathfinder;
+
     /**
      * Determines the next move direction based on the current map and player status.
      *
@@ -40,9 +48,26 @@ public abstract class Brain {
         }
     }
 
+    /**
+     * Turns route planning on or off for fallbackDirection(). It is off by
+     * default, so brains head straight east when nothing else is in sight.
+     *
+     * @param routePlanning true to follow the cheapest route to the eastern edge instead
+     */
+    public void setRoutePlanning(boolean routePlanning) {
+        this.routePlanning = routePlanning;
+    }
+
+    public boolean isRoutePlanning() {
+        return routePlanning;
+    }
+
     /**
      * Shared fallback logic when no preferred move (like food, trader, etc.) is found.
-     * Attempts EAST first, then any legal adjacent square. Always returns a direction.
+     * Tries EAST, then any legal adjacent square. With route planning on, it
+     * first follows the cheapest route towards the eastern edge, as given by
+     * the map's EastCostField, or by a windowed Pathfinder search on maps too
+     * large for one. Always returns a direction.
      *
      * @param map    The game map
      * @param player The player making the move
@@ -50,29 +75,60 @@ public abstract class Brain {
      * @return A MoveDirection that is passable, never STAY
      */
     protected MoveDirection fallbackDirection(GameMap map, Player player, String tag) {
-        // Step 1: Try moving EAST
+        // Step 1: Follow the cheapest route towards the eastern edge (only with route planning)
+        MoveDirection planned = routePlanning ? plannedDirection(map, player) : MoveDirection.STAY;
+        if (planned != MoveDirection.STAY) {
+            if (Log.isInfoEnabled()) {
+                Log.info("[" + tag + "] No preferred targets — following cheapest route, moving " + planned);
+            }
+            return planned;
+        }
+
+        // Step 2: Try moving EAST
         int eastX = player.getX() + MoveDirection.EAST.getXChange();
         int eastY = player.getY() + MoveDirection.EAST.getYChange();
         if (map.getSquare(eastX, eastY) != null && map.getSquare(eastX, eastY).isEnterable()) {
-            System.out.println("[" + tag + "] No preferred targets — moving EAST");
+            if (Log.isInfoEnabled()) {
+                Log.info("[" + tag + "] No preferred targets — moving EAST");
+            }
             return MoveDirection.EAST;
         }
 
-        // Step 2: Try any other valid direction
+        // Step 3: Try any other valid direction
         for (MoveDirection dir : MoveDirection.values()) {
             int tryX = player.getX() + dir.getXChange();
             int tryY = player.getY() + dir.getYChange();
             if (map.getSquare(tryX, tryY) != null && map.getSquare(tryX, tryY).isEnterable()) {
-                System.out.println("[" + tag + "] No EAST — moving " + dir);
+                if (Log.isInfoEnabled()) {
+                    Log.info("[" + tag + "] No EAST — moving " + dir);
+                }
                 return dir;
             }
         }
 
-        // Step 3: Emergency fallback to EAST even if blocked (will fail in Player.move())
-        System.out.println("[" + tag + "] Trapped — defaulting to EAST (even if blocked)");
+        // Step 4: Emergency fallback to EAST even if blocked (will fail in Player.move())
+        if (Log.isInfoEnabled()) {
+            Log.info("[" + tag + "] Trapped — defaulting to EAST (even if blocked)");
+        }
         return MoveDirection.EAST;
     }
 
+    /**
+     * Returns the first move of the cheapest route to the eastern edge.
+     *
+     * @return the move, or STAY if there is no route to follow
+     */
+    private MoveDirection plannedDirection(GameMap map, Player player) {
+        EastCostField field = map.getEastCostField();
+        if (field != null) {
+            return field.nextStep(CostDimension.TOTAL, player.getX(), player.getY());
+        }
+        if (pathfinder == null) {
+            pathfinder = new Pathfinder();
+        }
+        return pathfinder.nextStepEast(map, player.getX(), player.getY());
+    }
+
     public abstract void initiateTrade(Player player, Trader trader);
 
 }
@@ -4,6 +4,7 @@ import wss.map.*;
 import wss.player.*;
 import wss.trader.TradeOffer;
 import wss.trader.Trader;
+import wss.util.Log;
 import wss.util.Path;
 
 /**
@@ -23,14 +24,16 @@ public class GreedyBrain extends Brain {
      */
     @Override
     public MoveDirection makeMove(GameMap map, Player player) {
-        // Ask the player's vision object to return the closest gold-containing square.
-        // This method should return null if there's no visible gold.
-        Path goldPath = player.getVision().closestGold();
+        // Ask the player's vision object what it sees this turn.
+        // The gold path is null if there's no visible gold.
+        Path goldPath = player.getVision().scan(map, player).getGold();
 
         // If gold was found in visible range, compute the best direction to reach it
         if (goldPath != null) {
-            System.out.println("[GreedyBrain] Moving toward gold (Path Summary): " + goldPath.getSummary());
-            return goldPath.getDirections().get(0); // First step in path
+            if (Log.isInfoEnabled()) {
+                Log.info("[GreedyBrain] Moving toward gold (Path Summary): " + goldPath.getSummary());
+            }
+            return goldPath.getFirstDirection(); // First step in path
         }
         // Step 2: No gold found — use shared fallback logic
         return fallbackDirection(map, player, "GreedyBrain");
@@ -43,7 +46,7 @@ public class GreedyBrain extends Brain {
 
         // Step 2: If the trader has no more offers, exit early
         if (offer == null) {
-            System.out.println("[GreedyBrain] Trader has no offers left.");
+            Log.info("[GreedyBrain] Trader has no offers left.");
             return;
         }
 
@@ -64,7 +67,7 @@ public class GreedyBrain extends Brain {
         if (!inv.hasEnoughFood(offer.getFoodRequested()) ||
             !inv.hasEnoughWater(offer.getWaterRequested()) ||
             !inv.hasEnoughGold(offer.getGoldRequested())) {
-            System.out.println("[GreedyBrain] Rejecting trade. Not enough resources.");
+            Log.info("[GreedyBrain] Rejecting trade. Not enough resources.");
             return;
         }
 
@@ -94,7 +97,9 @@ public class GreedyBrain extends Brain {
         }
 
         if (acceptTrade) {
-            System.out.println("[GreedyBrain] Accepting trade. " + reason);
+            if (Log.isInfoEnabled()) {
+                Log.info("[GreedyBrain] Accepting trade. " + reason);
+            }
             // Execute the trade
             player.getInventory().spendFood(offer.getFoodRequested());
             player.getInventory().spendWater(offer.getWaterRequested());
@@ -104,7 +109,7 @@ public class GreedyBrain extends Brain {
             player.increaseWater(offer.getWaterOffered());
             player.increaseGold(offer.getGoldOffered());
         } else {
-            System.out.println("[GreedyBrain] Rejecting trade. Not profitable enough.");
+            Log.info("[GreedyBrain] Rejecting trade. Not profitable enough.");
         }
     }
 }
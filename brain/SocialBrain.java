@@ -1,6 +1,8 @@
 package wss.brain;
 
+import wss.util.Log;
 import wss.util.Path;
+import wss.vision.VisionScan;
 
 import wss.map.*;
 import wss.player.*;
@@ -18,37 +20,33 @@ public class SocialBrain extends Brain {
     public MoveDirection makeMove(GameMap map, Player player) {
         
       try {  
-        var visibleSquares = player.getVision().getVisibleSquares(map, player);
-        MapSquare closestTrader = null;
-        int minDistance = Integer.MAX_VALUE;
-
-        for (MapSquare square : visibleSquares) {
-            if (square != null && square.hasTrader()) {
-                int distance = calculateDistance(player, square);
-                if (distance < minDistance) {
-                    minDistance = distance;
-                    closestTrader = square;
-                }
+        VisionScan scan = player.getVision().scan(map, player);
+
+        Path traderPath = scan.getTrader();
+        if (traderPath != null && !traderPath.isEmpty()) {
+            if (Log.isInfoEnabled()) {
+                MapSquare trader = traderPath.getLastSquare();
+                Log.info("[SocialBrain] Moving toward trader at (" +
+                    trader.getX() + "," + trader.getY() + ")");
             }
-        }
-
-        if (closestTrader != null) {
-            System.out.println("[SocialBrain] Moving toward trader at (" +
-                closestTrader.getX() + "," + closestTrader.getY() + ")");
-            return directionTo(player, closestTrader);
+            return traderPath.getFirstDirection();
         }
 
         // === STEP 4: Use Path instead of MapSquare ===
-        Path foodPath = player.getVision().closestFood();
-        if (foodPath != null && !foodPath.getDirections().isEmpty()) {
-            System.out.println("[SocialBrain] No trader — moving toward food (Path Summary): " + foodPath.getSummary());
-            return foodPath.getDirections().get(0); // First step in path
+        Path foodPath = scan.getFood();
+        if (foodPath != null && !foodPath.isEmpty()) {
+            if (Log.isInfoEnabled()) {
+                Log.info("[SocialBrain] No trader — moving toward food (Path Summary): " + foodPath.getSummary());
+            }
+            return foodPath.getFirstDirection(); // First step in path
         }
 
-        Path waterPath = player.getVision().closestWater();
-        if (waterPath != null && !waterPath.getDirections().isEmpty()) {
-            System.out.println("[SocialBrain] No trader/food — moving toward water (Path Summary): " + waterPath.getSummary());
-            return waterPath.getDirections().get(0);
+        Path waterPath = scan.getWater();
+        if (waterPath != null && !waterPath.isEmpty()) {
+            if (Log.isInfoEnabled()) {
+                Log.info("[SocialBrain] No trader/food — moving toward water (Path Summary): " + waterPath.getSummary());
+            }
+            return waterPath.getFirstDirection();
         }
 
         return fallbackDirection(map, player, "SocialBrain");
@@ -58,14 +56,6 @@ public class SocialBrain extends Brain {
         }
     }
 
-    /**
-     * Calculates Manhattan distance between the player and a target square.
-     * This helps to determine the closest visible square.
-     */
-    private int calculateDistance(Player player, MapSquare square) {
-        return Math.abs(player.getX() - square.getX()) + Math.abs(player.getY() - square.getY());
-    }
-
     /**
      * Attempts to initiate a trade with the given trader.
      * The SocialBrain is not purely greedy — it is open to fair trades,
@@ -81,7 +71,7 @@ public class SocialBrain extends Brain {
 
         // Step 2: If the trader has no more offers, exit early
         if (offer == null) {
-            System.out.println("[SocialBrain] Trader has no offers left.");
+            Log.info("[SocialBrain] Trader has no offers left.");
             return;
         }
 
@@ -95,7 +85,9 @@ public class SocialBrain extends Brain {
         // Step 5: Evaluate if the offer is "socially acceptable"
         // Accept trade if gain is at least equal to cost, or up to 1.5x the cost
         if (gain >= cost && gain <= cost * 1.5) {
-            System.out.println("[SocialBrain] Accepting trade. Gain (" + gain + ") is fair or slightly better than cost (" + cost + ")");
+            if (Log.isInfoEnabled()) {
+                Log.info("[SocialBrain] Accepting trade. Gain (" + gain + ") is fair or slightly better than cost (" + cost + ")");
+            }
             // Spend the requested resources
             player.getInventory().spendFood(offer.getFoodRequested());
             player.getInventory().spendWater(offer.getWaterRequested());
@@ -106,7 +98,7 @@ public class SocialBrain extends Brain {
             player.increaseWater(offer.getWaterOffered());
             player.increaseGold(offer.getGoldOffered());
         } else {
-            System.out.println("[SocialBrain] Rejecting trade. Deal seems unfair.");
+            Log.info("[SocialBrain] Rejecting trade. Deal seems unfair.");
         }
     }
 }
@@ -1,6 +1,8 @@
 package wss.brain;
 
+import wss.util.Log;
 import wss.util.Path;
+import wss.vision.VisionScan;
 
 import wss.map.*;
 import wss.player.*;
@@ -18,18 +20,24 @@ public class SurvivalBrain extends Brain {
 
         @Override
         public MoveDirection makeMove(GameMap map, Player player) {
+            VisionScan scan = player.getVision().scan(map, player);
+
             // Step 1: Try to move toward nearest visible food
-            Path foodPath = player.getVision().closestFood();
+            Path foodPath = scan.getFood();
             if (foodPath != null) {
-                System.out.println("[SurvivalBrain] Moving toward food (Path Summary): " + foodPath.getSummary());
-                return foodPath.getDirections().get(0);
+                if (Log.isInfoEnabled()) {
+                    Log.info("[SurvivalBrain] Moving toward food (Path Summary): " + foodPath.getSummary());
+                }
+                return foodPath.getFirstDirection();
             }
     
             // Step 2: Try to move toward nearest visible water
-            Path waterPath = player.getVision().closestWater();
+            Path waterPath = scan.getWater();
             if (waterPath != null) {
-                System.out.println("[SurvivalBrain] Moving toward water (Path Summary): " + waterPath.getSummary());
-                return waterPath.getDirections().get(0);
+                if (Log.isInfoEnabled()) {
+                    Log.info("[SurvivalBrain] Moving toward water (Path Summary): " + waterPath.getSummary());
+                }
+                return waterPath.getFirstDirection();
             }
     
             return fallbackDirection(map, player, "SurvivalBrain");
@@ -51,7 +59,7 @@ public class SurvivalBrain extends Brain {
 
         // Step 2: If the trader has no more offers, exit early
         if (offer == null) {
-            System.out.println("[SurvivalBrain] Trader has no offers left.");
+            Log.info("[SurvivalBrain] Trader has no offers left.");
             return;
         }
 
@@ -82,7 +90,9 @@ public class SurvivalBrain extends Brain {
 
         // Step 8: Decide to trade only if gain is clearly worth it and cost is safe
         if (hasEnoughToTrade && !costTooHigh && gain > cost) {
-            System.out.println("[SurvivalBrain] Accepting cautious trade. Gain (" + gain + ") > cost (" + cost + ")");
+            if (Log.isInfoEnabled()) {
+                Log.info("[SurvivalBrain] Accepting cautious trade. Gain (" + gain + ") > cost (" + cost + ")");
+            }
             // Spend the requested resources
             inv.spendFood(offer.getFoodRequested());
             inv.spendWater(offer.getWaterRequested());
@@ -93,7 +103,7 @@ public class SurvivalBrain extends Brain {
             player.increaseWater(offer.getWaterOffered());
             player.increaseGold(offer.getGoldOffered());
         } else {
-            System.out.println("[SurvivalBrain] Rejecting trade. Too risky or not worth it.");
+            Log.info("[SurvivalBrain] Rejecting trade. Too risky or not worth it.");
         }
     }
 }
@@ -0,0 +1,77 @@
+package wss.brain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.game.DifficultySettings;
+import wss.map.CostDimension;
+import wss.map.GameMap;
+import wss.map.PagedGameMap;
+import wss.map.TerrainMode;
+import wss.player.MoveDirection;
+import wss.player.Player;
+import wss.trader.Trader;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+import wss.util.Pathfinder;
+import wss.vision.CautiousVision;
+
+/**
+ * fallbackDirection() heads east unless route planning is on, and then plans
+ * with the cost field or, on maps too large for one, with a Pathfinder.
+ */
+class FallbackDirectionTest {
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void withoutPlanningTheFallbackMovesEast() {
+        GameMap map = new GameMap(30, 9, DifficultySettings.HARD, 8L);
+        FallbackBrain brain = new FallbackBrain();
+        Player player = new Player("P", new CautiousVision(), brain, map, 50, 40, 40, 25);
+        assertEquals(MoveDirection.EAST, brain.makeMove(map, player));
+    }
+
+    @Test
+    void planningFollowsTheCostField() {
+        GameMap map = new GameMap(30, 9, DifficultySettings.HARD, 8L);
+        FallbackBrain brain = new FallbackBrain();
+        brain.setRoutePlanning(true);
+        Player player = new Player("P", new CautiousVision(), brain, map, 50, 40, 40, 25);
+        MoveDirection expected = map.getEastCostField().nextStep(CostDimension.TOTAL, player.getX(), player.getY());
+        assertEquals(expected, brain.makeMove(map, player));
+    }
+
+    @Test
+    void planningWithoutACostFieldUsesThePathfinder() {
+        PagedGameMap map = new PagedGameMap(1 << 17, 256, DifficultySettings.HARD, 8L, TerrainMode.RANDOM, 2);
+        assertNull(map.getEastCostField());
+        FallbackBrain brain = new FallbackBrain();
+        brain.setRoutePlanning(true);
+        Player player = new Player("P", new CautiousVision(), brain, map, 50, 40, 40, 25);
+
+        MoveDirection expected = new Pathfinder().nextStepEast(map, player.getX(), player.getY());
+        assertNotEquals(MoveDirection.STAY, expected);
+        assertEquals(expected, brain.makeMove(map, player));
+    }
+
+    /** A brain that never sees anything it wants, so it always falls back */
+    private static final class FallbackBrain extends Brain {
+        @Override
+        public MoveDirection makeMove(GameMap map, Player player) {
+            return fallbackDirection(map, player, "FallbackBrain");
+        }
+
+        @Override
+        public void initiateTrade(Player player, Trader trader) {
+            // never trades
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package wss.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.brain.GreedyBrain;
+import wss.brain.SurvivalBrain;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+import wss.vision.CautiousVision;
+import wss.vision.ExtendedVision;
+
+/**
+ * Games with a report sink stream their reports instead of keeping them.
+ */
+class ReportSinkTest {
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void gameWithoutSinkKeepsItsReports() {
+        Game game = new Game(config());
+        game.run();
+        assertEquals(2, game.getReports().size());
+    }
+
+    @Test
+    void gameWithSinkOnlyStreamsItsReports() {
+        List<String> streamed = new ArrayList<>();
+        Game game = new Game(config());
+        game.setReportSink((report, difficulty, seed) -> streamed.add(report.getPlayerName()));
+        game.run();
+        assertEquals(List.of("Greedy", "Survivor"), streamed);
+        assertTrue(game.getReports().isEmpty());
+    }
+
+    private static SimulationConfig config() {
+        return new SimulationConfig(60, 20, DifficultySettings.EASY)
+            .setSeed(3L)
+            .addPlayer("Greedy", GreedyBrain::new, CautiousVision::new)
+            .addPlayer("Survivor", SurvivalBrain::new, ExtendedVision::new);
+    }
+}
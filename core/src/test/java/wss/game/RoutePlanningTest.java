@@ -0,0 +1,90 @@
+package wss.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.brain.Brain;
+import wss.brain.GreedyBrain;
+import wss.brain.SocialBrain;
+import wss.brain.SurvivalBrain;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+import wss.vision.CautiousVision;
+import wss.vision.ExtendedVision;
+import wss.vision.GreedyVision;
+
+/**
+ * Route planning is opt-in, and a seed plays the same on every backend with and without it.
+ */
+class RoutePlanningTest {
+
+    private static final int GAMES = 10;
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void brainsDoNotPlanRoutesByDefault() {
+        Brain brain = new GreedyBrain();
+        assertFalse(brain.isRoutePlanning());
+        assertFalse(config(1L).isRoutePlanning());
+    }
+
+    @Test
+    void everyBackendPlaysTheSameWithoutPlanning() {
+        assertSameOnEveryBackend(false);
+    }
+
+    @Test
+    void everyBackendPlaysTheSameWithPlanning() {
+        assertSameOnEveryBackend(true);
+    }
+
+    @Test
+    void planningChangesTheGames() {
+        assertNotEquals(play(false, false, false), play(true, false, false));
+    }
+
+    private static void assertSameOnEveryBackend(boolean routePlanning) {
+        List<String> regular = play(routePlanning, false, false);
+        assertEquals(3 * GAMES, regular.size());
+        assertEquals(regular, play(routePlanning, true, false), "compact map");
+        assertEquals(regular, play(routePlanning, false, true), "paged map");
+    }
+
+    /** Plays GAMES seeds and describes every report */
+    private static List<String> play(boolean routePlanning, boolean compact, boolean paged) {
+        List<String> reports = new ArrayList<>();
+        for (long seed = 0; seed < GAMES; seed++) {
+            Game game = new Game(config(seed)
+                .setRoutePlanning(routePlanning)
+                .setCompactMap(compact)
+                .setPagedMap(paged));
+            game.run();
+            for (GameReport report : game.getReports()) {
+                reports.add(report.getPlayerName() + " turns=" + report.getTurnsTaken()
+                    + " goal=" + report.reachedGoal() + " strength=" + report.getFinalStrength()
+                    + " food=" + report.getFoodRemaining() + " water=" + report.getWaterRemaining()
+                    + " gold=" + report.getGoldCollected() + " traders=" + report.getTradersMet());
+            }
+        }
+        return reports;
+    }
+
+    private static SimulationConfig config(long seed) {
+        return new SimulationConfig(200, 25, DifficultySettings.MEDIUM)
+            .setSeed(seed)
+            .addPlayer("Greedy", GreedyBrain::new, GreedyVision::new)
+            .addPlayer("Social", SocialBrain::new, CautiousVision::new)
+            .addPlayer("Survivor", SurvivalBrain::new, ExtendedVision::new);
+    }
+}
@@ -0,0 +1,158 @@
+package wss.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.brain.Brain;
+import wss.brain.GreedyBrain;
+import wss.brain.SocialBrain;
+import wss.brain.SurvivalBrain;
+import wss.item.FoodBonus;
+import wss.map.GameMap;
+import wss.map.MapSquare;
+import wss.map.Resource;
+import wss.player.MoveDirection;
+import wss.player.Player;
+import wss.trader.Trader;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+import wss.vision.CautiousVision;
+import wss.vision.ExtendedVision;
+import wss.vision.GreedyVision;
+
+/**
+ * Simultaneous turns: parallel decisions give the same games as serial ones,
+ * and contested items go to the player applied first.
+ */
+class SimultaneousTurnsTest {
+
+    private static final long SEED = 42L;
+
+    /** Enough players for the parallel decide phase */
+    private static final int PLAYERS = 3 * SimultaneousTurns.PARALLEL_DECISION_THRESHOLD;
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void parallelDecisionsMatchSerialOnGameMap() {
+        assertSameGames(config -> config);
+    }
+
+    @Test
+    void parallelDecisionsMatchSerialOnCompactMap() {
+        assertSameGames(config -> config.setCompactMap(true));
+    }
+
+    @Test
+    void parallelDecisionsMatchSerialOnPagedMap() {
+        assertSameGames(config -> config.setPagedMap(true));
+    }
+
+    @Test
+    void firstAppliedPlayerGetsContestedFood() {
+        GameMap map = mapWithFoodEastOfStart();
+        Player first = eastbound("First", map);
+        Player second = eastbound("Second", map);
+        int targetY = map.getHeight() / 2;
+
+        new SimultaneousTurns(map, true).playRound(List.of(first, second), 0);
+
+        assertEquals(1, first.getX());
+        assertEquals(1, second.getX());
+        assertEquals(second.getInventory().getFood() + 10, first.getInventory().getFood());
+        assertFalse(map.getSquare(1, targetY).hasResource(Resource.FOOD));
+    }
+
+    @Test
+    void firstAppliedPlayerRotatesWithTheRound() {
+        GameMap map = mapWithFoodEastOfStart();
+        Player first = eastbound("First", map);
+        Player second = eastbound("Second", map);
+
+        new SimultaneousTurns(map, true).playRound(List.of(first, second), 1);
+
+        assertEquals(first.getInventory().getFood() + 10, second.getInventory().getFood());
+    }
+
+    private static void assertSameGames(UnaryOperator<SimulationConfig> backend) {
+        List<String> serial = play(backend.apply(config()).setParallelDecisions(false));
+        List<String> parallel = play(backend.apply(config()).setParallelDecisions(true));
+        assertEquals(PLAYERS, serial.size());
+        assertEquals(serial, parallel);
+    }
+
+    private static SimulationConfig config() {
+        SimulationConfig config = new SimulationConfig(150, 40, DifficultySettings.EASY)
+            .setSeed(SEED)
+            .setSimultaneousTurns(true);
+        for (int i = 0; i < PLAYERS; i += 3) {
+            config.addPlayer("Greedy" + i, GreedyBrain::new, GreedyVision::new)
+                .addPlayer("Social" + i, SocialBrain::new, CautiousVision::new)
+                .addPlayer("Survivor" + i, SurvivalBrain::new, ExtendedVision::new);
+        }
+        return config;
+    }
+
+    /** Plays a game and describes every report, in player order */
+    private static List<String> play(SimulationConfig config) {
+        Game game = new Game(config);
+        game.run();
+        List<String> reports = new ArrayList<>();
+        for (GameReport report : game.getReports()) {
+            reports.add(report.getPlayerName() + " turns=" + report.getTurnsTaken()
+                + " goal=" + report.reachedGoal() + " strength=" + report.getFinalStrength()
+                + " food=" + report.getFoodRemaining() + " water=" + report.getWaterRemaining()
+                + " gold=" + report.getGoldCollected() + " traders=" + report.getTradersMet()
+                + " terrain=" + report.getTerrainsPassed());
+        }
+        return reports;
+    }
+
+    /**
+     * Returns a map where the square east of the start holds one food bonus and
+     * nothing else, and can be entered.
+     */
+    private static GameMap mapWithFoodEastOfStart() {
+        for (long seed = SEED; ; seed++) {
+            GameMap map = new GameMap(20, 9, DifficultySettings.EASY, seed);
+            MapSquare target = map.getSquare(1, map.getHeight() / 2);
+            if (!target.isEnterable()) continue;
+            target.clearItems();
+            if (target.hasTrader()) {
+                target.removeTrader();
+            }
+            target.addItem(new FoodBonus());
+            return map;
+        }
+    }
+
+    /** A player who always moves east and has room for more food */
+    private static Player eastbound(String name, GameMap map) {
+        Player player = new Player(name, new CautiousVision(), new EastBrain(), map, 50, 40, 40, 25);
+        assertTrue(player.getInventory().spendFood(20));
+        return player;
+    }
+
+    private static final class EastBrain extends Brain {
+        @Override
+        public MoveDirection makeMove(GameMap map, Player player) {
+            return MoveDirection.EAST;
+        }
+
+        @Override
+        public void initiateTrade(Player player, Trader trader) {
+            // never trades
+        }
+    }
+}
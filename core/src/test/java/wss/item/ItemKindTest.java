@@ -0,0 +1,67 @@
+package wss.item;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.map.MapSquare;
+import wss.map.Resource;
+import wss.map.Terrain;
+import wss.map.TerrainType;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+
+/**
+ * ItemKind masks and the item-kind bitmask each MapSquare keeps in sync.
+ */
+class ItemKindTest {
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void kindsMatchTheirItemsAndNames() {
+        assertSame(ItemKind.FOOD, new FoodBonus().getKind());
+        assertSame(ItemKind.WATER, new WaterBonus().getKind());
+        assertSame(ItemKind.GOLD, new GoldBonus().getKind());
+        for (ItemKind kind : ItemKind.values()) {
+            assertEquals(1 << kind.ordinal(), kind.mask());
+            assertSame(kind, ItemKind.fromOrdinal(kind.ordinal()));
+            assertSame(kind, ItemKind.fromItemName(kind.getItemName()));
+        }
+        assertNull(ItemKind.fromItemName("Silver Bonus"));
+    }
+
+    @Test
+    void squareBitmaskFollowsItsItems() {
+        MapSquare square = new MapSquare(Terrain.of(TerrainType.PLAINS), 0, 0);
+        assertEquals(0, square.getItemKinds());
+
+        Item firstFood = new FoodBonus();
+        square.addItem(firstFood);
+        square.addItem(new FoodBonus());
+        square.addItem(new GoldBonus());
+        assertEquals(ItemKind.FOOD.mask() | ItemKind.GOLD.mask(), square.getItemKinds());
+        assertTrue(square.hasItemKind(ItemKind.FOOD));
+        assertTrue(square.hasItemOfType("Gold Bonus"));
+        assertFalse(square.hasResource(Resource.WATER));
+        assertFalse(square.hasItemOfType("Silver Bonus"));
+
+        square.removeItem(firstFood);
+        assertTrue(square.hasItemKind(ItemKind.FOOD), "another food bonus is still there");
+        square.removeItem(square.getItems().get(0));
+        assertFalse(square.hasItemKind(ItemKind.FOOD));
+        assertEquals(ItemKind.GOLD.mask(), square.getItemKinds());
+
+        square.clearItems();
+        assertEquals(0, square.getItemKinds());
+        assertFalse(square.hasResource(Resource.GOLD));
+    }
+}
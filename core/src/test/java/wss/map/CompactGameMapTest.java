@@ -0,0 +1,81 @@
+package wss.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.game.DifficultySettings;
+import wss.trader.TraderKind;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+
+/**
+ * CompactGameMap builds the same squares as GameMap from the same seed, and
+ * keeps changed squares when it drops a tile.
+ */
+class CompactGameMapTest {
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void matchesGameMapForTheSameSeed() {
+        for (TerrainMode mode : TerrainMode.values()) {
+            for (DifficultySettings difficulty : DifficultySettings.values()) {
+                GameMap regular = new GameMap(130, 17, difficulty, 21L, mode);
+                CompactGameMap compact = new CompactGameMap(130, 17, difficulty, 21L, mode);
+                for (int x = 0; x < regular.getWidth(); x++) {
+                    for (int y = 0; y < regular.getHeight(); y++) {
+                        MapSquare want = regular.getSquare(x, y);
+                        MapSquare got = compact.getSquare(x, y);
+                        String at = mode + " " + difficulty + " at (" + x + "," + y + ")";
+                        assertEquals(want.getTerrain().getTerrainType(), compact.getTerrainType(x, y), at);
+                        assertEquals(want.getTerrain().getTerrainType(), got.getTerrain().getTerrainType(), at);
+                        assertEquals(want.getItemKinds(), got.getItemKinds(), at);
+                        assertEquals(want.hasTrader() ? TraderKind.of(want.getTrader()) : null,
+                            got.hasTrader() ? TraderKind.of(got.getTrader()) : null, at);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void squaresAreCreatedOnceAndOnlyWhenAskedFor() {
+        CompactGameMap map = new CompactGameMap(200, 30, DifficultySettings.EASY, 5L);
+        assertEquals(0, map.getMaterializedCount());
+        MapSquare square = map.getSquare(70, 12);
+        assertSame(square, map.getSquare(70, 12));
+        assertEquals(1, map.getMaterializedCount());
+        assertNull(map.getSquare(200, 0));
+        assertNull(map.getSquare(0, -1));
+    }
+
+    @Test
+    void droppedTilesKeepOnlyChangedSquares() {
+        int tile = GameMap.CHUNK_COLUMNS;
+        CompactGameMap map = new CompactGameMap(4 * tile, 10, DifficultySettings.EASY, 5L);
+        MapSquare changed = null;
+        for (int x = 0; x < tile; x++) {
+            for (int y = 0; y < map.getHeight(); y++) {
+                MapSquare square = map.getSquare(x, y);
+                if (changed == null && square.hasItems()) {
+                    changed = square;
+                }
+            }
+        }
+        changed.clearItems();
+        assertEquals(tile * map.getHeight(), map.getMaterializedCount());
+
+        map.releaseBefore(3 * tile);
+        assertEquals(1, map.getMaterializedCount());
+        assertSame(changed, map.getSquare(changed.getX(), changed.getY()));
+        assertFalse(changed.hasItems());
+    }
+}
@@ -0,0 +1,142 @@
+package wss.map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.game.DifficultySettings;
+import wss.player.MoveDirection;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+
+/**
+ * EastCostField against a brute-force search, and the same field on every backend.
+ */
+class EastCostFieldTest {
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void costsMatchBruteForceOnSmallMaps() {
+        for (long seed = 1; seed <= 6; seed++) {
+            GameMap map = new GameMap(13 + (int) seed, 2 + (int) seed, DifficultySettings.HARD, seed);
+            EastCostField field = map.getEastCostField();
+            for (CostDimension dimension : CostDimension.values()) {
+                int[] expected = bruteForce(map, dimension);
+                for (int x = 0; x < map.getWidth(); x++) {
+                    for (int y = 0; y < map.getHeight(); y++) {
+                        assertEquals(expected[x * map.getHeight() + y], field.getCostToGoal(dimension, x, y),
+                            dimension + " at (" + x + "," + y + ") seed " + seed);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void nextStepStaysOnACheapestRoute() {
+        GameMap map = new GameMap(40, 12, DifficultySettings.MEDIUM, 11L, TerrainMode.NOISE);
+        EastCostField field = map.getEastCostField();
+        for (CostDimension dimension : CostDimension.values()) {
+            for (int startY = 0; startY < map.getHeight(); startY++) {
+                int x = 0;
+                int y = startY;
+                int steps = 0;
+                while (x < map.getWidth() - 1) {
+                    MoveDirection step = field.nextStep(dimension, x, y);
+                    assertNotEquals(MoveDirection.STAY, step);
+                    int nx = x + step.getXChange();
+                    int ny = y + step.getYChange();
+                    assertEquals(field.getCostToGoal(dimension, x, y),
+                        dimension.cost(map.getTerrainType(nx, ny)) + field.getCostToGoal(dimension, nx, ny));
+                    x = nx;
+                    y = ny;
+                    assertTrue(++steps <= map.getWidth() * map.getHeight(), "route loops");
+                }
+                assertEquals(MoveDirection.STAY, field.nextStep(dimension, x, y));
+            }
+        }
+    }
+
+    @Test
+    void everyBackendHasTheSameField() {
+        for (TerrainMode mode : TerrainMode.values()) {
+            GameMap regular = new GameMap(150, 20, DifficultySettings.EASY, 3L, mode);
+            GameMap compact = new CompactGameMap(150, 20, DifficultySettings.EASY, 3L, mode);
+            PagedGameMap paged = new PagedGameMap(150, 20, DifficultySettings.EASY, 3L, mode, 1);
+            for (CostDimension dimension : CostDimension.values()) {
+                int[] expected = costs(regular, dimension);
+                assertArrayEquals(expected, costs(compact, dimension), "compact " + mode + " " + dimension);
+                assertArrayEquals(expected, costs(paged, dimension), "paged " + mode + " " + dimension);
+            }
+            assertEquals(0, paged.getLoadedTileCount(), "field loaded paged tiles");
+        }
+    }
+
+    @Test
+    void availabilityOnlyDependsOnTheCellCount() {
+        int height = 16;
+        int widest = (int) (EastCostField.MAX_CELLS / height);
+        assertNotNull(new PagedGameMap(widest, height, DifficultySettings.EASY, 1L, TerrainMode.RANDOM, 1)
+            .getEastCostField());
+        assertNull(new PagedGameMap(widest + 1, height, DifficultySettings.EASY, 1L, TerrainMode.RANDOM, 1)
+            .getEastCostField());
+    }
+
+    private static int[] costs(GameMap map, CostDimension dimension) {
+        EastCostField field = map.getEastCostField();
+        int[] costs = new int[map.getWidth() * map.getHeight()];
+        for (int x = 0; x < map.getWidth(); x++) {
+            for (int y = 0; y < map.getHeight(); y++) {
+                costs[x * map.getHeight() + y] = field.getCostToGoal(dimension, x, y);
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Relaxes every move until nothing changes (Bellman-Ford), with the whole
+     * eastern column as the goal.
+     */
+    private static int[] bruteForce(GameMap map, CostDimension dimension) {
+        int width = map.getWidth();
+        int height = map.getHeight();
+        int[] costs = new int[width * height];
+        Arrays.fill(costs, EastCostField.UNREACHABLE);
+        for (int y = 0; y < height; y++) {
+            costs[(width - 1) * height + y] = 0;
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    for (MoveDirection step : MoveDirection.values()) {
+                        int nx = x + step.getXChange();
+                        int ny = y + step.getYChange();
+                        if (step == MoveDirection.STAY || nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+                        int remaining = costs[nx * height + ny];
+                        if (remaining == EastCostField.UNREACHABLE) continue;
+                        int cost = dimension.cost(map.getTerrainType(nx, ny)) + remaining;
+                        if (cost < costs[x * height + y]) {
+                            costs[x * height + y] = cost;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        }
+        return costs;
+    }
+}
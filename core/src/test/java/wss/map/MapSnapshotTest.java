@@ -0,0 +1,212 @@
+package wss.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.function.LongFunction;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import wss.game.DifficultySettings;
+import wss.item.FoodBonus;
+import wss.item.GoldBonus;
+import wss.trader.Range;
+import wss.trader.RegularTrader;
+import wss.trader.TraderKind;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+
+/**
+ * Round trips through MapSnapshot on every backend, also after a game changed
+ * the map, and loads of damaged files.
+ */
+class MapSnapshotTest {
+
+    private static final long SEED = 7L;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void gameMapRoundTrip() throws IOException {
+        GameMap map = new GameMap(150, 40, DifficultySettings.HARD, SEED);
+        Path file = dir.resolve("game.wssm");
+        MapSnapshot.save(map, file);
+        assertSameSquares(map, MapSnapshot.load(file));
+    }
+
+    @Test
+    void compactGameMapRoundTrip() throws IOException {
+        CompactGameMap map = new CompactGameMap(150, 40, DifficultySettings.EASY, SEED);
+        Path file = dir.resolve("compact.wssm");
+        MapSnapshot.save(map, file);
+        CompactGameMap loaded = MapSnapshot.load(file);
+        assertEquals(map.getTraderCount(), loaded.getTraderCount());
+        assertSameSquares(map, loaded);
+    }
+
+    @Test
+    void everyBackendSavesTheMapAsItIsNow() throws IOException {
+        Path regular = saveChanged(seed -> new GameMap(150, 40, DifficultySettings.EASY, seed), "regular.wssm");
+        Path compact = saveChanged(seed -> new CompactGameMap(150, 40, DifficultySettings.EASY, seed), "compact.wssm");
+        Path paged = saveChanged(seed -> new PagedGameMap(150, 40, DifficultySettings.EASY, seed,
+            TerrainMode.RANDOM, PagedGameMap.DEFAULT_MAX_TILES), "paged.wssm");
+        assertEquals(-1L, Files.mismatch(regular, compact), "compact file differs");
+        assertEquals(-1L, Files.mismatch(regular, paged), "paged file differs");
+    }
+
+    @Test
+    void rejectsUnknownTerrain() throws IOException {
+        Path file = saveWithTraders(dir.resolve("terrain.wssm"));
+        ByteBuffer terrain = ByteBuffer.allocate(1).put(0, (byte) TerrainType.values().length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(terrain, MapSnapshot.HEADER_BYTES + 1234);
+        }
+        assertThrows(IOException.class, () -> MapSnapshot.load(file));
+    }
+
+    @Test
+    void rejectsBitsPastTheLastCell() throws IOException {
+        Path file = saveWithTraders(dir.resolve("padding.wssm"));
+        MapSnapshot header = MapSnapshot.readHeader(file);
+        int cells = header.getWidth() * header.getHeight();
+        assertTrue(cells % 64 != 0, "test map needs a partly used last word");
+        long lastGoldWord = traderCellsOffset(header) - Long.BYTES;
+        ByteBuffer word = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, 1L << 63);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(word, lastGoldWord);
+        }
+        assertThrows(IOException.class, () -> MapSnapshot.load(file));
+    }
+
+    @Test
+    void rejectsTraderCellsOutOfOrder() throws IOException {
+        Path file = saveWithTraders(dir.resolve("order.wssm"));
+        MapSnapshot header = MapSnapshot.readHeader(file);
+        long cells = traderCellsOffset(header);
+        int first = readInt(file, cells);
+        writeInt(file, cells + Integer.BYTES, first);
+        assertThrows(IOException.class, () -> MapSnapshot.load(file));
+    }
+
+    @Test
+    void rejectsTraderCellPastTheMap() throws IOException {
+        Path file = saveWithTraders(dir.resolve("range.wssm"));
+        MapSnapshot header = MapSnapshot.readHeader(file);
+        long last = traderCellsOffset(header) + (long) (header.getTraderCount() - 1) * Integer.BYTES;
+        writeInt(file, last, header.getWidth() * header.getHeight());
+        assertThrows(IOException.class, () -> MapSnapshot.load(file));
+    }
+
+    @Test
+    void rejectsUnknownTraderKind() throws IOException {
+        Path file = saveWithTraders(dir.resolve("kind.wssm"));
+        MapSnapshot header = MapSnapshot.readHeader(file);
+        long kinds = traderCellsOffset(header) + align((long) header.getTraderCount() * Integer.BYTES);
+        ByteBuffer kind = ByteBuffer.allocate(1).put(0, (byte) TraderKind.count());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(kind, kinds);
+        }
+        assertThrows(IOException.class, () -> MapSnapshot.load(file));
+    }
+
+    private static void assertSameSquares(GameMap expected, GameMap actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertEquals(expected.getSeed(), actual.getSeed());
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                MapSquare want = expected.getSquare(x, y);
+                MapSquare got = actual.getSquare(x, y);
+                String at = " at (" + x + "," + y + ")";
+                assertEquals(want.getTerrain().getTerrainType(), got.getTerrain().getTerrainType(), "terrain" + at);
+                assertEquals(want.getItemKinds(), got.getItemKinds(), "items" + at);
+                assertEquals(want.hasTrader() ? TraderKind.of(want.getTrader()) : null,
+                    got.hasTrader() ? TraderKind.of(got.getTrader()) : null, "trader" + at);
+            }
+        }
+    }
+
+    /**
+     * Makes the same changes a game would (collects bonuses, drops new ones,
+     * trades with, removes and adds traders), saves the map, and checks that
+     * the loaded map matches it as it is now.
+     */
+    private Path saveChanged(LongFunction<GameMap> backend, String name) throws IOException {
+        GameMap map = backend.apply(SEED);
+        for (int x = 0; x < map.getWidth(); x += 3) {
+            for (int y = x % 5; y < map.getHeight(); y += 5) {
+                MapSquare square = map.getSquare(x, y);
+                switch ((x + y) % 4) {
+                    case 0 -> square.clearItems();
+                    case 1 -> square.addItem((x & 1) == 0 ? new FoodBonus() : new GoldBonus());
+                    case 2 -> {
+                        if (square.hasTrader()) {
+                            square.removeTrader();
+                        } else {
+                            Range range = new Range(1, 3);
+                            square.setTrader(new RegularTrader(3, range, range, range, new SplittableRandom(x)));
+                        }
+                    }
+                    default -> {
+                        if (square.hasTrader()) {
+                            square.getTrader().offerTrade();
+                        }
+                    }
+                }
+            }
+        }
+        Path file = dir.resolve(name);
+        MapSnapshot.save(map, file);
+        assertSameSquares(map, MapSnapshot.load(file));
+        return file;
+    }
+
+    /** Saves a map that is sure to hold at least two traders */
+    private Path saveWithTraders(Path file) throws IOException {
+        CompactGameMap map = new CompactGameMap(150, 40, DifficultySettings.EASY, SEED);
+        assertTrue(map.getTraderCount() >= 2, "test map needs two traders");
+        MapSnapshot.save(map, file);
+        return file;
+    }
+
+    private static long traderCellsOffset(MapSnapshot header) {
+        int cells = header.getWidth() * header.getHeight();
+        return MapSnapshot.HEADER_BYTES + align(cells) + 3 * CompactGameMap.bitplaneBytes(cells);
+    }
+
+    private static long align(long length) {
+        return (length + 7) & ~7L;
+    }
+
+    private static int readInt(Path file, long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.read(buffer, offset);
+        }
+        return buffer.getInt(0);
+    }
+
+    private static void writeInt(Path file, long offset, int value) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, value);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(buffer, offset);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package wss.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.item.FoodBonus;
+import wss.item.Item;
+import wss.item.WaterBonus;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+
+/**
+ * MapSquare only allocates an item list once something is put on it.
+ */
+class MapSquareTest {
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void emptySquaresShareTheEmptyList() {
+        MapSquare first = square(0, 0);
+        MapSquare second = square(1, 0);
+        assertSame(Collections.emptyList(), first.getItems());
+        assertSame(first.getItems(), second.getItems());
+        assertFalse(first.hasItems());
+    }
+
+    @Test
+    void firstItemAllocatesAReadOnlyList() {
+        MapSquare square = square(0, 0);
+        Item food = new FoodBonus();
+        square.addItem(food);
+        square.addItem(new WaterBonus());
+
+        List<Item> items = square.getItems();
+        assertEquals(2, items.size());
+        assertSame(food, items.get(0));
+        assertSame(items, square.getItems());
+        assertThrows(UnsupportedOperationException.class, () -> items.add(new FoodBonus()));
+    }
+
+    @Test
+    void clearingReleasesTheList() {
+        MapSquare square = square(0, 0);
+        square.addItem(new FoodBonus());
+        square.clearItems();
+        assertSame(Collections.emptyList(), square.getItems());
+        assertFalse(square.hasItems());
+
+        square.addItem(new WaterBonus());
+        assertEquals(1, square.getItems().size());
+        assertTrue(square.hasItems());
+    }
+
+    private static MapSquare square(int x, int y) {
+        return new MapSquare(Terrain.of(TerrainType.PLAINS), x, y);
+    }
+}
@@ -0,0 +1,117 @@
+package wss.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.game.DifficultySettings;
+import wss.item.GoldBonus;
+import wss.trader.Trader;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+
+/**
+ * Dropped tiles of a PagedGameMap come back with the changes made before
+ * they were dropped.
+ */
+class PagedGameMapTest {
+
+    private static final int TILE = GameMap.CHUNK_COLUMNS;
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void reloadedTileKeepsCollectedItemsAndUsedTraders() {
+        for (TerrainMode mode : TerrainMode.values()) {
+            PagedGameMap map = new PagedGameMap(6 * TILE, 12, DifficultySettings.MEDIUM, 9L, mode, 2);
+            PagedGameMap untouched = new PagedGameMap(6 * TILE, 12, DifficultySettings.MEDIUM, 9L, mode, 2);
+
+            MapSquare collected = firstSquare(map, Resource.FOOD);
+            collected.clearItems();
+            MapSquare dropped = firstSquare(map, Resource.GOLD);
+            dropped.addItem(new GoldBonus());
+            int droppedItems = dropped.getItems().size();
+            MapSquare removed = firstSquare(map, Resource.TRADER);
+            removed.removeTrader();
+            MapSquare used = firstSquare(map, Resource.TRADER);
+            Trader trader = used.getTrader();
+            assertNotNull(trader.offerTrade());
+
+            evictFirstTile(map);
+            assertEquals(distinct(collected, dropped, removed, used), map.getKeptSquareCount(), mode.name());
+
+            assertFalse(square(map, collected).hasResource(Resource.FOOD), mode.name());
+            assertEquals(droppedItems, square(map, dropped).getItems().size(), mode.name());
+            assertFalse(square(map, removed).hasTrader(), mode.name());
+            assertSame(trader, square(map, used).getTrader(), mode.name());
+            assertEquals(0, map.getKeptSquareCount(), mode.name());
+
+            for (int x = 0; x < TILE; x++) {
+                for (int y = 0; y < map.getHeight(); y++) {
+                    MapSquare square = map.getSquare(x, y);
+                    if (square == collected || square == dropped || square == removed || square == used) continue;
+                    MapSquare expected = untouched.getSquare(x, y);
+                    for (Resource resource : Resource.values()) {
+                        assertEquals(expected.hasResource(resource), square.hasResource(resource),
+                            mode + " " + resource + " at (" + x + "," + y + ")");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void unchangedTilesAreNotKept() {
+        PagedGameMap map = new PagedGameMap(6 * TILE, 12, DifficultySettings.MEDIUM, 9L, TerrainMode.RANDOM, 2);
+        map.getSquare(0, 0);
+        evictFirstTile(map);
+        assertEquals(0, map.getKeptSquareCount());
+    }
+
+    /** Moves the players far east and loads two other tiles, so tile 0 is dropped */
+    private static void evictFirstTile(PagedGameMap map) {
+        long generated = map.getGeneratedTileCount();
+        map.releaseBefore(4 * TILE);
+        map.getSquare(2 * TILE, 0);
+        map.getSquare(3 * TILE, 0);
+        assertEquals(2, map.getLoadedTileCount());
+        assertTrue(map.getGeneratedTileCount() >= generated + 2);
+    }
+
+    private static int distinct(MapSquare... squares) {
+        Set<MapSquare> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(Arrays.asList(squares));
+        return set.size();
+    }
+
+    /** Returns the square at the same place as another, loading its tile */
+    private static MapSquare square(PagedGameMap map, MapSquare square) {
+        return map.getSquare(square.getX(), square.getY());
+    }
+
+    /** Returns the first square of tile 0 holding a resource */
+    private static MapSquare firstSquare(PagedGameMap map, Resource resource) {
+        for (int x = 0; x < TILE; x++) {
+            for (int y = 0; y < map.getHeight(); y++) {
+                MapSquare square = map.getSquare(x, y);
+                if (square.hasResource(resource)) {
+                    return square;
+                }
+            }
+        }
+        throw new AssertionError("no " + resource + " in the first tile");
+    }
+}
@@ -0,0 +1,105 @@
+package wss.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.game.DifficultySettings;
+import wss.trader.TraderKind;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+
+/**
+ * Generating the chunks of a map in parallel gives the same map as
+ * generating them one after another.
+ */
+class ParallelGenerationTest {
+
+    /** Wide enough for many chunks, so parallel workers really interleave */
+    private static final int WIDTH = 20 * GameMap.CHUNK_COLUMNS + 7;
+    private static final int HEIGHT = 23;
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void gameMapIsTheSameInParallelAndSerial() {
+        for (TerrainMode mode : TerrainMode.values()) {
+            for (long seed = 1; seed <= 3; seed++) {
+                assertSameSquares(new SerialGameMap(seed, mode), new ParallelGameMap(seed, mode),
+                    mode + " seed " + seed);
+            }
+        }
+    }
+
+    @Test
+    void compactMapIsTheSameInParallelAndSerial() {
+        for (TerrainMode mode : TerrainMode.values()) {
+            for (long seed = 1; seed <= 3; seed++) {
+                assertSameSquares(new SerialCompactGameMap(seed, mode), new ParallelCompactGameMap(seed, mode),
+                    mode + " seed " + seed);
+            }
+        }
+    }
+
+    private static void assertSameSquares(GameMap expected, GameMap actual, String where) {
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                MapSquare want = expected.getSquare(x, y);
+                MapSquare got = actual.getSquare(x, y);
+                String at = where + " at (" + x + "," + y + ")";
+                assertEquals(want.getTerrain().getTerrainType(), got.getTerrain().getTerrainType(), at);
+                assertEquals(want.getItemKinds(), got.getItemKinds(), at);
+                assertEquals(want.hasTrader() ? TraderKind.of(want.getTrader()) : null,
+                    got.hasTrader() ? TraderKind.of(got.getTrader()) : null, at);
+            }
+        }
+    }
+
+    private static final class SerialGameMap extends GameMap {
+        SerialGameMap(long seed, TerrainMode mode) {
+            super(WIDTH, HEIGHT, DifficultySettings.MEDIUM, seed, mode);
+        }
+
+        @Override
+        protected boolean generateInParallel() {
+            return false;
+        }
+    }
+
+    private static final class ParallelGameMap extends GameMap {
+        ParallelGameMap(long seed, TerrainMode mode) {
+            super(WIDTH, HEIGHT, DifficultySettings.MEDIUM, seed, mode);
+        }
+
+        @Override
+        protected boolean generateInParallel() {
+            return true;
+        }
+    }
+
+    private static final class SerialCompactGameMap extends CompactGameMap {
+        SerialCompactGameMap(long seed, TerrainMode mode) {
+            super(WIDTH, HEIGHT, DifficultySettings.MEDIUM, seed, mode);
+        }
+
+        @Override
+        protected boolean generateInParallel() {
+            return false;
+        }
+    }
+
+    private static final class ParallelCompactGameMap extends CompactGameMap {
+        ParallelCompactGameMap(long seed, TerrainMode mode) {
+            super(WIDTH, HEIGHT, DifficultySettings.MEDIUM, seed, mode);
+        }
+
+        @Override
+        protected boolean generateInParallel() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package wss.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.game.DifficultySettings;
+import wss.item.FoodBonus;
+import wss.item.GoldBonus;
+import wss.item.Item;
+import wss.item.WaterBonus;
+import wss.trader.Range;
+import wss.trader.RegularTrader;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+
+/**
+ * GameMap.findNearest() through the resource index against scanNearest(),
+ * on maps whose items were collected and whose traders moved.
+ */
+class ResourceIndexTest {
+
+    private static final int RADIUS = 9;
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void gameMapIndexMatchesScanAfterChanges() {
+        for (long seed = 1; seed <= 4; seed++) {
+            GameMap map = new GameMap(70, 25, DifficultySettings.MEDIUM, seed);
+            assertNotNull(map.getResourceIndex());
+            assertIndexMatchesScan(map, seed);
+        }
+    }
+
+    @Test
+    void compactMapIndexMatchesScanAfterChanges() {
+        for (long seed = 1; seed <= 4; seed++) {
+            GameMap map = new CompactGameMap(70, 25, DifficultySettings.MEDIUM, seed);
+            assertNotNull(map.getResourceIndex());
+            assertIndexMatchesScan(map, seed);
+        }
+    }
+
+    @Test
+    void minDistanceSkipsCloserMatches() {
+        GameMap map = new GameMap(30, 9, DifficultySettings.EASY, 2L);
+        for (int x = 0; x < map.getWidth(); x++) {
+            for (int y = 0; y < map.getHeight(); y++) {
+                map.getSquare(x, y).clearItems();
+            }
+        }
+        map.getSquare(10, 4).addItem(new FoodBonus());
+        map.getSquare(13, 4).addItem(new FoodBonus());
+
+        assertEquals(10, map.findNearest(Resource.FOOD, 10, 4, 0, RADIUS).getX());
+        assertEquals(13, map.findNearest(Resource.FOOD, 10, 4, 1, RADIUS).getX());
+        assertNull(map.findNearest(Resource.FOOD, 10, 4, 4, RADIUS));
+        assertNull(map.findNearest(Resource.FOOD, 10, 4, 1, 2));
+    }
+
+    /**
+     * Changes many squares the way a game does (collects items, drops new
+     * ones, moves traders), then compares both lookups from every square.
+     */
+    private static void assertIndexMatchesScan(GameMap map, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int change = 0; change < map.getWidth() * map.getHeight() / 4; change++) {
+            MapSquare square = map.getSquare(random.nextInt(map.getWidth()), random.nextInt(map.getHeight()));
+            switch (random.nextInt(6)) {
+                case 0 -> square.clearItems();
+                case 1 -> {
+                    if (square.hasItems()) {
+                        Item collected = square.getItems().get(0);
+                        square.removeItem(collected);
+                    }
+                }
+                case 2 -> square.addItem(random.nextBoolean() ? new FoodBonus() : new WaterBonus());
+                case 3 -> square.addItem(new GoldBonus());
+                case 4 -> {
+                    if (square.hasTrader()) {
+                        square.removeTrader();
+                    }
+                }
+                default -> {
+                    if (!square.hasTrader()) {
+                        Range range = new Range(1, 5);
+                        square.setTrader(new RegularTrader(3, range, range, range, random));
+                    }
+                }
+            }
+        }
+
+        for (int x = 0; x < map.getWidth(); x++) {
+            for (int y = 0; y < map.getHeight(); y++) {
+                for (Resource resource : Resource.values()) {
+                    for (int minDistance = 0; minDistance <= 2; minDistance++) {
+                        MapSquare expected = map.scanNearest(resource, x, y, minDistance, RADIUS);
+                        MapSquare actual = map.findNearest(resource, x, y, minDistance, RADIUS);
+                        String where = resource + " from (" + x + "," + y + ") min " + minDistance;
+                        if (expected == null) {
+                            assertNull(actual, where);
+                            continue;
+                        }
+                        assertNotNull(actual, where);
+                        assertTrue(actual.hasResource(resource), where);
+                        assertEquals(distance(expected, x, y), distance(actual, x, y), where);
+                        assertFalse(distance(actual, x, y) < minDistance, where);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int distance(MapSquare square, int x, int y) {
+        return Math.max(Math.abs(square.getX() - x), Math.abs(square.getY() - y));
+    }
+}
@@ -0,0 +1,97 @@
+package wss.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.game.DifficultySettings;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+
+/**
+ * TerrainSampler draws each terrain type as often as its weight says.
+ */
+class TerrainSamplerTest {
+
+    private static final int DRAWS = 400_000;
+
+    /** Allowed difference between observed and configured shares */
+    private static final double TOLERANCE = 0.005;
+
+    private static final TerrainType[] TYPES = TerrainType.values();
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void difficultySamplersHonourPlainsRatio() {
+        for (DifficultySettings difficulty : DifficultySettings.values()) {
+            double plains = difficulty.getPlainsRatio();
+            double other = (1.0 - plains) / (TYPES.length - 1);
+            double[] shares = shares(TerrainSampler.of(difficulty), difficulty.ordinal());
+            for (TerrainType type : TYPES) {
+                assertEquals(type == TerrainType.PLAINS ? plains : other, shares[type.ordinal()], TOLERANCE,
+                    difficulty + " " + type);
+            }
+        }
+    }
+
+    @Test
+    void customWeightsAreMatched() {
+        double[] weights = {1, 0, 3, 0, 4};
+        double[] shares = shares(new TerrainSampler(weights), 17L);
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(weights[i] / 8, shares[i], weights[i] == 0 ? 0 : TOLERANCE, TYPES[i].name());
+        }
+    }
+
+    @Test
+    void withoutDifficultyEveryTypeIsEquallyLikely() {
+        double[] shares = shares(TerrainSampler.of(null), 5L);
+        for (TerrainType type : TYPES) {
+            assertEquals(1.0 / TYPES.length, shares[type.ordinal()], TOLERANCE, type.name());
+        }
+    }
+
+    @Test
+    void generatedMapsFollowTheDifficulty() {
+        for (DifficultySettings difficulty : DifficultySettings.values()) {
+            GameMap map = new GameMap(500, 100, difficulty, 8L);
+            int plains = 0;
+            for (int x = 0; x < map.getWidth(); x++) {
+                for (int y = 0; y < map.getHeight(); y++) {
+                    if (map.getTerrainType(x, y) == TerrainType.PLAINS) {
+                        plains++;
+                    }
+                }
+            }
+            double share = (double) plains / (map.getWidth() * map.getHeight());
+            assertEquals(difficulty.getPlainsRatio(), share, 0.01, difficulty.name());
+        }
+    }
+
+    @Test
+    void rejectsBadWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new TerrainSampler(new double[] {1, 1}));
+        assertThrows(IllegalArgumentException.class, () -> new TerrainSampler(new double[] {1, -1, 1, 1, 1}));
+        assertThrows(IllegalArgumentException.class, () -> new TerrainSampler(new double[TYPES.length]));
+    }
+
+    private static double[] shares(TerrainSampler sampler, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] shares = new double[TYPES.length];
+        for (int i = 0; i < DRAWS; i++) {
+            shares[sampler.sample(random).ordinal()]++;
+        }
+        for (int i = 0; i < shares.length; i++) {
+            shares[i] /= DRAWS;
+        }
+        return shares;
+    }
+}
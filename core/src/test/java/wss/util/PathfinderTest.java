@@ -0,0 +1,159 @@
+package wss.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.game.DifficultySettings;
+import wss.map.GameMap;
+import wss.map.PagedGameMap;
+import wss.map.TerrainMode;
+import wss.map.TerrainType;
+import wss.player.MoveDirection;
+
+/**
+ * Pathfinder against a brute-force search, and its window on maps too large for one array.
+ */
+class PathfinderTest {
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void eastRoutesCostTheSameAsBruteForce() {
+        for (long seed = 1; seed <= 4; seed++) {
+            GameMap map = new GameMap(20 + (int) seed, 4 + (int) seed, DifficultySettings.HARD, seed);
+            int[][] weights = {{1, 1, 1}, {3, 1, 0}, {0, 0, 1}};
+            for (int[] w : weights) {
+                Pathfinder pathfinder = new Pathfinder().setWeights(w[0], w[1], w[2]).setMaxExpansions(1 << 20);
+                int[] expected = bruteForce(map, w, -1, -1);
+                for (int x = 0; x < map.getWidth(); x++) {
+                    for (int y = 0; y < map.getHeight(); y++) {
+                        Path path = pathfinder.findPathEast(map, x, y);
+                        assertNotNull(path);
+                        assertEquals(map.getWidth() - 1, x + sumX(path));
+                        assertEquals(expected[x * map.getHeight() + y], cost(path, w),
+                            "route from (" + x + "," + y + ") seed " + seed);
+                        assertEquals(path.getFirstDirection(), pathfinder.nextStepEast(map, x, y));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void routesToASquareCostTheSameAsBruteForce() {
+        GameMap map = new GameMap(18, 9, DifficultySettings.MEDIUM, 21L, TerrainMode.NOISE);
+        int[] w = {2, 1, 1};
+        Pathfinder pathfinder = new Pathfinder().setWeights(w[0], w[1], w[2]);
+        int[][] targets = {{0, 0}, {17, 8}, {9, 4}, {3, 7}};
+        for (int[] target : targets) {
+            int[] expected = bruteForce(map, w, target[0], target[1]);
+            for (int x = 0; x < map.getWidth(); x++) {
+                for (int y = 0; y < map.getHeight(); y++) {
+                    Path path = pathfinder.findPath(map, x, y, target[0], target[1]);
+                    assertEquals(target[0], x + sumX(path));
+                    assertEquals(expected[x * map.getHeight() + y], cost(path, w));
+                }
+            }
+        }
+    }
+
+    @Test
+    void searchesStayInsideTheWindowOnHugeMaps() {
+        // 2^33 cells: a buffer sized by the whole map would overflow
+        PagedGameMap map = new PagedGameMap(1 << 23, 1 << 10, DifficultySettings.EASY, 5L, TerrainMode.RANDOM, 2);
+        Pathfinder pathfinder = new Pathfinder().setWindowRadius(16).setMaxExpansions(1 << 16);
+
+        int y = map.getHeight() / 2;
+        assertTrue(pathfinder.nextStepEast(map, 1000, y).getXChange() >= 0);
+        assertEquals(0, map.getLoadedTileCount(), "planning loaded tiles");
+
+        Path path = pathfinder.findPathEast(map, 1000, y);
+        assertEquals(16, sumX(path));
+        assertTrue(path.length() <= 2 * 16 * 16 + 16);
+        assertNull(pathfinder.findPath(map, 1000, y, 1017, y));
+        assertNotNull(pathfinder.findPath(map, 1000, y, 1016, y - 16));
+    }
+
+    @Test
+    void runningOutOfBudgetIsReported() {
+        GameMap map = new GameMap(40, 10, DifficultySettings.EASY, 2L);
+        Pathfinder pathfinder = new Pathfinder().setMaxExpansions(3);
+        Path path = pathfinder.findPathEast(map, 0, 5);
+        assertTrue(pathfinder.wasLastTruncated());
+        assertEquals(3, pathfinder.getLastExpansions());
+        assertTrue(path.length() >= 1);
+    }
+
+    @Test
+    void rejectsBadSettings() {
+        Pathfinder pathfinder = new Pathfinder();
+        assertThrows(IllegalArgumentException.class, () -> pathfinder.setWindowRadius(0));
+        assertThrows(IllegalArgumentException.class, () -> pathfinder.setWindowRadius(1 << 20));
+        assertThrows(IllegalArgumentException.class, () -> pathfinder.setWeights(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> pathfinder.setMaxExpansions(0));
+    }
+
+    private static int sumX(Path path) {
+        int dx = 0;
+        for (int i = 0; i < path.length(); i++) {
+            dx += path.getDirection(i).getXChange();
+        }
+        return dx;
+    }
+
+    private static int cost(Path path, int[] w) {
+        return w[0] * path.getMovementCost() + w[1] * path.getFoodCost() + w[2] * path.getWaterCost();
+    }
+
+    private static int stepCost(TerrainType type, int[] w) {
+        return w[0] * type.getMovementCost() + w[1] * type.getFoodCost() + w[2] * type.getWaterCost();
+    }
+
+    /**
+     * Cheapest cost from every square to a target square, or to the eastern
+     * column when targetX is negative, by relaxing every move until nothing changes.
+     */
+    private static int[] bruteForce(GameMap map, int[] w, int targetX, int targetY) {
+        int width = map.getWidth();
+        int height = map.getHeight();
+        int[] costs = new int[width * height];
+        Arrays.fill(costs, Integer.MAX_VALUE);
+        if (targetX < 0) {
+            Arrays.fill(costs, (width - 1) * height, width * height, 0);
+        } else {
+            costs[targetX * height + targetY] = 0;
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    for (MoveDirection step : MoveDirection.values()) {
+                        int nx = x + step.getXChange();
+                        int ny = y + step.getYChange();
+                        if (step == MoveDirection.STAY || nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+                        int remaining = costs[nx * height + ny];
+                        if (remaining == Integer.MAX_VALUE) continue;
+                        int cost = stepCost(map.getTerrainType(nx, ny), w) + remaining;
+                        if (cost < costs[x * height + y]) {
+                            costs[x * height + y] = cost;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        }
+        return costs;
+    }
+}
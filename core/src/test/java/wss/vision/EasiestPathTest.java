@@ -0,0 +1,74 @@
+package wss.vision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.brain.GreedyBrain;
+import wss.game.DifficultySettings;
+import wss.map.GameMap;
+import wss.player.MoveDirection;
+import wss.player.Player;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+import wss.util.Path;
+
+/**
+ * easiestPath() on the edge rows of the map, where some neighbours are off the map.
+ */
+class EasiestPathTest {
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void greedyVisionOnASingleRowMapOnlyGoesEast() {
+        assertEasiestStep(new GreedyVision(), 1, MoveDirection.EAST);
+    }
+
+    @Test
+    void greedyVisionOnTheBottomRowSkipsSoutheast() {
+        GameMap map = new GameMap(20, 2, DifficultySettings.EASY, 5L);
+        GreedyVision vision = new GreedyVision();
+        Player player = new Player("Edge", vision, new GreedyBrain(), map, 50, 40, 40, 25);
+        assertEquals(1, player.getY());
+
+        vision.getVisibleSquares(map, player);
+        Path path = vision.easiestPath();
+        MoveDirection step = path.getFirstDirection();
+        assertTrue(step == MoveDirection.EAST || step == MoveDirection.NORTHEAST, "stepped " + step);
+    }
+
+    @Test
+    void cautiousVisionOnASingleRowMapGoesEast() {
+        assertEasiestStep(new CautiousVision(), 1, MoveDirection.EAST);
+    }
+
+    @Test
+    void extendedVisionOnASingleRowMapHasNoEasiestPath() {
+        GameMap map = new GameMap(20, 1, DifficultySettings.EASY, 5L);
+        ExtendedVision vision = new ExtendedVision();
+        Player player = new Player("Edge", vision, new GreedyBrain(), map, 50, 40, 40, 25);
+
+        vision.getVisibleSquares(map, player);
+        assertNull(vision.easiestPath());
+    }
+
+    @Test
+    void radiusVisionOnASingleRowMapGoesEast() {
+        assertEasiestStep(new RadiusVision(3, ShapeMask.SQUARE), 1, MoveDirection.EAST);
+    }
+
+    private static void assertEasiestStep(Vision vision, int height, MoveDirection expected) {
+        GameMap map = new GameMap(20, height, DifficultySettings.EASY, 5L);
+        Player player = new Player("Edge", vision, new GreedyBrain(), map, 50, 40, 40, 25);
+
+        vision.getVisibleSquares(map, player);
+        assertEquals(expected, vision.easiestPath().getFirstDirection());
+    }
+}
@@ -0,0 +1,145 @@
+package wss.vision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import wss.player.MoveDirection;
+
+/**
+ * The shared offset tables: the fixed visions see the same squares along the
+ * same routes as their hand-written versions did, and every shape table holds
+ * exactly its shape, ordered by king-move distance.
+ */
+class OffsetTableTest {
+
+    @Test
+    void greedyVisionSeesItsEightNeighbours() {
+        assertRoutes(new GreedyVision().getOffsetTable(),
+            route(0, -1, MoveDirection.NORTH),
+            route(1, -1, MoveDirection.NORTHEAST),
+            route(1, 0, MoveDirection.EAST),
+            route(1, 1, MoveDirection.SOUTHEAST),
+            route(0, 1, MoveDirection.SOUTH),
+            route(-1, 1, MoveDirection.SOUTHWEST),
+            route(-1, 0, MoveDirection.WEST),
+            route(-1, -1, MoveDirection.NORTHWEST));
+    }
+
+    @Test
+    void cautiousVisionSeesNorthEastAndSouth() {
+        assertRoutes(new CautiousVision().getOffsetTable(),
+            route(0, -1, MoveDirection.NORTH),
+            route(1, 0, MoveDirection.EAST),
+            route(0, 1, MoveDirection.SOUTH));
+    }
+
+    @Test
+    void extendedVisionSeesThreeColumnsEast() {
+        assertRoutes(new ExtendedVision().getOffsetTable(),
+            route(1, -1, MoveDirection.NORTHEAST),
+            route(1, 0, MoveDirection.EAST),
+            route(1, 1, MoveDirection.SOUTHEAST),
+            route(2, -1, MoveDirection.EAST, MoveDirection.NORTHEAST),
+            route(2, 0, MoveDirection.EAST, MoveDirection.EAST),
+            route(2, 1, MoveDirection.EAST, MoveDirection.SOUTHEAST),
+            route(3, 0, MoveDirection.EAST, MoveDirection.EAST, MoveDirection.EAST));
+    }
+
+    @Test
+    void extendedVisionRanksByKingMoveDistance() {
+        ExtendedVision vision = new ExtendedVision();
+        OffsetTable table = vision.getOffsetTable();
+        for (int i = 0; i < table.size(); i++) {
+            assertEquals(Math.max(Math.abs(table.getDx(i)), Math.abs(table.getDy(i))), vision.distanceRank(i));
+        }
+        // a square three steps east is farther than a diagonal neighbour
+        assertTrue(vision.distanceRank(6) > vision.distanceRank(0));
+    }
+
+    @Test
+    void shapeTablesHoldExactlyTheirShape() {
+        for (ShapeMask mask : ShapeMask.values()) {
+            for (int radius = 1; radius <= 6; radius++) {
+                OffsetTable table = OffsetTable.of(radius, mask);
+                assertSame(table, OffsetTable.of(radius, mask));
+                assertTrue(table.isDistanceOrdered());
+
+                Set<List<Integer>> expected = new HashSet<>();
+                for (int dx = -radius; dx <= radius; dx++) {
+                    for (int dy = -radius; dy <= radius; dy++) {
+                        if (mask.contains(dx, dy, radius)) {
+                            expected.add(List.of(dx, dy));
+                        }
+                    }
+                }
+                Set<List<Integer>> actual = new HashSet<>();
+                for (int i = 0; i < table.size(); i++) {
+                    assertTrue(actual.add(List.of(table.getDx(i), table.getDy(i))), "duplicate offset");
+                    assertEquals(table.getDistance(i), table.getRouteLength(i));
+                    if (i > 0) {
+                        assertTrue(table.getDistance(i - 1) <= table.getDistance(i), "not ordered by distance");
+                    }
+                    assertRouteEndsAtOffset(table, i);
+                }
+                assertEquals(expected, actual, mask + " r" + radius);
+                assertEquals(0, table.firstAtDistance(1));
+                assertEquals(table.size(), table.firstAtDistance(table.getReach() + 1));
+            }
+        }
+    }
+
+    /** Walks a route and checks it stays between the player and the target */
+    private static void assertRouteEndsAtOffset(OffsetTable table, int index) {
+        int dx = table.getDx(index);
+        int dy = table.getDy(index);
+        int x = 0;
+        int y = 0;
+        for (int step = 0; step < table.getRouteLength(index); step++) {
+            MoveDirection direction = table.getStep(index, step);
+            x += direction.getXChange();
+            y += direction.getYChange();
+            assertTrue(Math.min(0, dx) <= x && x <= Math.max(0, dx), "route leaves the box");
+            assertTrue(Math.min(0, dy) <= y && y <= Math.max(0, dy), "route leaves the box");
+        }
+        assertEquals(dx, x);
+        assertEquals(dy, y);
+    }
+
+    private static void assertRoutes(OffsetTable table, Route... routes) {
+        assertEquals(routes.length, table.size());
+        for (int i = 0; i < routes.length; i++) {
+            assertEquals(routes[i].dx, table.getDx(i), "dx of offset " + i);
+            assertEquals(routes[i].dy, table.getDy(i), "dy of offset " + i);
+            List<MoveDirection> steps = new ArrayList<>();
+            for (int step = 0; step < table.getRouteLength(i); step++) {
+                steps.add(table.getStep(i, step));
+            }
+            assertEquals(routes[i].steps, steps, "route to offset " + i);
+        }
+    }
+
+    private static Route route(int dx, int dy, MoveDirection... steps) {
+        return new Route(dx, dy, List.of(steps));
+    }
+
+    /** An offset and the moves that should lead to it */
+    private static final class Route {
+        final int dx;
+        final int dy;
+        final List<MoveDirection> steps;
+
+        Route(int dx, int dy, List<MoveDirection> steps) {
+            this.dx = dx;
+            this.dy = dy;
+            this.steps = steps;
+        }
+    }
+}
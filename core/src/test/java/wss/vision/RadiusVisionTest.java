@@ -0,0 +1,194 @@
+package wss.vision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import wss.brain.Brain;
+import wss.game.DifficultySettings;
+import wss.item.FoodBonus;
+import wss.item.GoldBonus;
+import wss.item.WaterBonus;
+import wss.map.CompactGameMap;
+import wss.map.GameMap;
+import wss.map.MapSquare;
+import wss.map.PagedGameMap;
+import wss.map.Resource;
+import wss.map.TerrainMode;
+import wss.player.MoveDirection;
+import wss.player.Player;
+import wss.trader.Range;
+import wss.trader.RegularTrader;
+import wss.trader.Trader;
+import wss.util.Log;
+import wss.util.NoOpLogSink;
+import wss.util.Path;
+
+/**
+ * RadiusVision picks its targets through GameMap.findNearest(); it must pick
+ * the same ones as a pass over every visible square, also after items were
+ * collected and traders moved.
+ */
+class RadiusVisionTest {
+
+    private static final MoveDirection[] DIRECTIONS = MoveDirection.values();
+
+    @BeforeAll
+    static void quietLog() {
+        Log.setSink(new NoOpLogSink());
+    }
+
+    @Test
+    void matchesFullScanOnGameMap() {
+        assertMatchesFullScan(seed -> new GameMap(90, 30, DifficultySettings.EASY, seed));
+    }
+
+    @Test
+    void matchesFullScanOnCompactMap() {
+        assertMatchesFullScan(seed -> new CompactGameMap(90, 30, DifficultySettings.EASY, seed));
+    }
+
+    @Test
+    void matchesFullScanOnPagedMap() {
+        assertMatchesFullScan(seed -> new PagedGameMap(90, 30, DifficultySettings.EASY, seed,
+            TerrainMode.RANDOM, PagedGameMap.DEFAULT_MAX_TILES));
+    }
+
+    @Test
+    void findsNothingOnAnEmptyMap() {
+        GameMap map = new GameMap(30, 9, DifficultySettings.EASY, 4L);
+        for (int x = 0; x < map.getWidth(); x++) {
+            for (int y = 0; y < map.getHeight(); y++) {
+                MapSquare square = map.getSquare(x, y);
+                square.clearItems();
+                if (square.hasTrader()) {
+                    square.removeTrader();
+                }
+            }
+        }
+        RadiusVision vision = new RadiusVision(6, ShapeMask.SQUARE);
+        Player player = new Player("Empty", vision, new IdleBrain(), map, 50, 40, 40, 25);
+
+        VisionScan scan = vision.scan(map, player);
+        for (Resource resource : Resource.values()) {
+            assertNull(scan.get(resource), resource.name());
+        }
+        assertNull(vision.closestFood());
+    }
+
+    /**
+     * Walks a player across each map, collecting what it steps on and
+     * changing squares around it, and compares both visions every turn.
+     */
+    private static void assertMatchesFullScan(Function<Long, GameMap> backend) {
+        for (long seed = 1; seed <= 3; seed++) {
+            for (ShapeMask mask : ShapeMask.values()) {
+                for (int radius : new int[] {1, 4, 7}) {
+                    GameMap map = backend.apply(seed);
+                    RadiusVision indexed = new RadiusVision(radius, mask);
+                    RadiusVision reference = new FullScanRadiusVision(radius, mask);
+                    Player player = new Player("Walker", indexed, new IdleBrain(), map, 1000, 40, 40, 25);
+                    SplittableRandom random = new SplittableRandom(seed * 31 + radius);
+                    String where = map.getClass().getSimpleName() + " " + mask + " r" + radius + " seed " + seed;
+
+                    for (int turn = 0; turn < 120; turn++) {
+                        changeSquaresAround(map, player, radius, random);
+                        assertSameScan(indexed.scan(map, player), reference.scan(map, player), where);
+                        reference.getVisibleSquares(map, player);
+                        indexed.getVisibleSquares(map, player);
+                        assertSamePath(reference.closestFood(), indexed.closestFood(), where + " food");
+                        assertSamePath(reference.closestWater(), indexed.closestWater(), where + " water");
+                        assertSamePath(reference.closestGold(), indexed.closestGold(), where + " gold");
+                        player.move(random.nextInt(4) == 0 ? DIRECTIONS[random.nextInt(DIRECTIONS.length)]
+                            : MoveDirection.EAST);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Clears, adds and moves a few items and traders within sight of the player */
+    private static void changeSquaresAround(GameMap map, Player player, int radius, SplittableRandom random) {
+        for (int change = 0; change < 3; change++) {
+            MapSquare square = map.getSquare(player.getX() + random.nextInt(-radius, radius + 1),
+                player.getY() + random.nextInt(-radius, radius + 1));
+            if (square == null) continue;
+            switch (random.nextInt(6)) {
+                case 0 -> square.clearItems();
+                case 1 -> square.addItem(new FoodBonus());
+                case 2 -> square.addItem(new WaterBonus());
+                case 3 -> square.addItem(new GoldBonus());
+                case 4 -> {
+                    if (square.hasTrader()) {
+                        square.removeTrader();
+                    }
+                }
+                default -> {
+                    if (!square.hasTrader()) {
+                        square.setTrader(trader(random));
+                    }
+                }
+            }
+        }
+    }
+
+    private static Trader trader(SplittableRandom random) {
+        Range range = new Range(1, 5);
+        return new RegularTrader(3, range, range, range, random);
+    }
+
+    private static void assertSameScan(VisionScan expected, VisionScan actual, String where) {
+        for (Resource resource : Resource.values()) {
+            assertSamePath(expected.get(resource), actual.get(resource), where + " " + resource);
+        }
+    }
+
+    private static void assertSamePath(Path expected, Path actual, String where) {
+        if (expected == null) {
+            assertNull(actual, where);
+            return;
+        }
+        assertEquals(expected.getDirections(), actual == null ? null : actual.getDirections(), where);
+        int last = expected.length() - 1;
+        assertEquals(expected.getX(last), actual.getX(last), where);
+        assertEquals(expected.getY(last), actual.getY(last), where);
+        assertEquals(expected.getMovementCost(), actual.getMovementCost(), where);
+    }
+
+    /** The selection every other table-backed vision uses: one pass over visibleSquares */
+    private static final class FullScanRadiusVision extends RadiusVision {
+        FullScanRadiusVision(int radius, ShapeMask mask) {
+            super(radius, mask);
+        }
+
+        @Override
+        protected void beginScan(GameMap map, Player player) {
+            getVisibleSquares(map, player);
+        }
+
+        @Override
+        protected void selectBest(int wanted) {
+            clearBest();
+            for (int i = 0; i < visibleSquares.size(); i++) {
+                consider(i, visibleSquares.get(i), wanted);
+            }
+        }
+    }
+
+    private static final class IdleBrain extends Brain {
+        @Override
+        public MoveDirection makeMove(GameMap map, Player player) {
+            return MoveDirection.STAY;
+        }
+
+        @Override
+        public void initiateTrade(Player player, Trader trader) {
+            // never trades
+        }
+    }
+}
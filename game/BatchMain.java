@@ -0,0 +1,81 @@
+package wss.game;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import wss.brain.GreedyBrain;
+import wss.brain.SocialBrain;
+import wss.brain.SurvivalBrain;
+import wss.map.TerrainMode;
+import wss.util.Log;
+import wss.util.Metrics;
+import wss.util.NoOpLogSink;
+import wss.vision.CautiousVision;
+import wss.vision.ExtendedVision;
+import wss.vision.GreedyVision;
+
+/**
+ * Non-interactive entry point that runs many games in one JVM,
+ * spread over a SimulationExecutor.
+ *
+ * Usage: java -cp . wss.game.BatchMain [games] [width] [height] [EASY|MEDIUM|HARD] [threads] [seed] [RANDOM|NOISE] [report.csv]
+ *
+ * With a seed, game i uses seed + i, so the whole batch can be replayed.
+ * RANDOM|NOISE picks the terrain mode of the maps (RANDOM by default).
+ * Reports are streamed into per-(brain, vision, difficulty) aggregates, and
+ * also written one row per player to report.csv if given, so memory does not
+ * grow with the number of games.
+ * Run with -Dwss.metrics=true to print per-phase turn timings and counters at the end.
+ */
+public class BatchMain {
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int height = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        DifficultySettings difficulty = args.length > 3 ? DifficultySettings.valueOf(args[3]) : DifficultySettings.MEDIUM;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        Long seed = args.length > 5 ? Long.valueOf(args[5]) : null;
+        TerrainMode terrainMode = args.length > 6 ? TerrainMode.valueOf(args[6]) : TerrainMode.RANDOM;
+        String csvFile = args.length > 7 ? args[7] : null;
+
+        Log.setSink(new NoOpLogSink()); // per-turn narration is far too slow for batches
+
+        SimulationConfig config = createConfig(width, height, difficulty, terrainMode);
+        ReportAggregator aggregator = new ReportAggregator();
+        long start = System.nanoTime();
+
+        try (SimulationExecutor executor = new SimulationExecutor(threads);
+             ReportSink sink = csvFile == null
+                 ? aggregator
+                 : ReportSink.of(aggregator, new CsvReportSink(Paths.get(csvFile)))) {
+            executor.runStreaming(games,
+                i -> seed == null ? config : createConfig(width, height, difficulty, terrainMode).setSeed(seed + i),
+                sink);
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("===== Batch Summary =====");
+        System.out.println("Games Run:       " + games);
+        System.out.println("Threads:         " + threads);
+        System.out.println("Seed:            " + (seed == null ? "random" : seed));
+        System.out.println("Terrain:         " + terrainMode);
+        System.out.println("Players:         " + aggregator.getPlayers());
+        System.out.println("Reached Goal:    " + aggregator.getWins());
+        System.out.println("Elapsed:         " + elapsedMs + " ms");
+        System.out.println("=========================");
+        aggregator.printSummary(System.out);
+        if (Metrics.ENABLED) {
+            System.out.println();
+            Metrics.dump(System.out);
+        }
+    }
+
+    private static SimulationConfig createConfig(int width, int height, DifficultySettings difficulty,
+                                                 TerrainMode terrainMode) {
+        return new SimulationConfig(width, height, difficulty)
+            .setTerrainMode(terrainMode)
+            .addPlayer("Greedy", GreedyBrain::new, GreedyVision::new)
+            .addPlayer("Social", SocialBrain::new, CautiousVision::new)
+            .addPlayer("Survivor", SurvivalBrain::new, ExtendedVision::new);
+    }
+}
@@ -0,0 +1,144 @@
+package wss.game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import wss.map.TerrainType;
+
+/**
+ * ReportSink that writes one CSV row per report.
+ *
+ * Rows are encoded into a reusable byte buffer and written to the file
+ * channel only when the buffer is full, so a sweep of millions of games
+ * does a few large writes instead of one per game. Columns are
+ * seed, difficulty, player, brain, vision, turns, reached_goal, food,
+ * water, gold, strength, traders_met and one strength_loss_* column per
+ * TerrainType.
+ */
+public class CsvReportSink implements ReportSink {
+
+    /** Size of the write buffer in bytes */
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private static final TerrainType[] TERRAIN_TYPES = TerrainType.values();
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final StringBuilder row;
+
+    /**
+     * Creates the file (replacing an existing one) and writes the header row.
+     *
+     * @param file File to write
+     * @throws IOException if the file cannot be created
+     */
+    public CsvReportSink(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        this.row = new StringBuilder(256);
+
+        row.append("seed,difficulty,player,brain,vision,turns,reached_goal,food,water,gold,strength,traders_met");
+        for (TerrainType type : TERRAIN_TYPES) {
+            row.append(",strength_loss_").append(type.name().toLowerCase());
+        }
+        row.append('\n');
+        writeRow();
+    }
+
+    @Override
+    public synchronized void accept(GameReport report, DifficultySettings difficulty, long seed) {
+        row.append(seed).append(',')
+           .append(difficulty).append(',');
+        appendText(report.getPlayerName());
+        row.append(',');
+        appendText(report.getBrainType());
+        row.append(',');
+        appendText(report.getVisionType());
+        row.append(',').append(report.getTurnsTaken())
+           .append(',').append(report.reachedGoal())
+           .append(',').append(report.getFoodRemaining())
+           .append(',').append(report.getWaterRemaining())
+           .append(',').append(report.getGoldCollected())
+           .append(',').append(report.getFinalStrength())
+           .append(',').append(report.getTradersMet());
+        for (TerrainType type : TERRAIN_TYPES) {
+            row.append(',').append(report.getStrengthLoss(type));
+        }
+        row.append('\n');
+        try {
+            writeRow();
+        } catch (IOException e) {
+            throw new UncheckedIOException("[CsvReportSink] Error: cannot write report.", e);
+        }
+    }
+
+    /**
+     * Appends a text field, quoting it if it contains a separator, quote or line break.
+     */
+    private void appendText(String text) {
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            row.append(text);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    /**
+     * Moves the pending row into the buffer, flushing the buffer first if it would not fit.
+     */
+    private void writeRow() throws IOException {
+        byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+        row.setLength(0);
+        if (bytes.length > buffer.remaining()) {
+            flushBuffer();
+        }
+        if (bytes.length > buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    /**
+     * Writes the remaining rows and closes the file.
+     *
+     * @throws IOException if the rows cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+}
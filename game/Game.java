@@ -1,12 +1,20 @@
 package wss.game;
 
+import wss.map.CompactGameMap;
 import wss.map.GameMap;
+import wss.map.MapSnapshot;
+import wss.map.PagedGameMap;
+import wss.map.TerrainMode;
 import wss.player.Player;
 import wss.vision.*;
 import wss.brain.*;
 
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Game class manages the overall flow of the Wilderness Survival System.
@@ -22,6 +30,9 @@ import java.util.*;
     private List<GameReport> reports;
     private DifficultySettings difficulty;
     private Scanner input;
+    private boolean interactive; // false for games built from a SimulationConfig
+    private ReportSink reportSink; // receives every report when the game ends (may be null)
+    private SimultaneousTurns simultaneousTurns; // plays the rounds when moves are decided first (null otherwise)
 
     /**
      * Constructor initializes player list and Scanner.
@@ -30,6 +41,54 @@ import java.util.*;
         players = new ArrayList<>();
         reports = new ArrayList<>();
         input = new Scanner(System.in);
+        interactive = true;
+    }
+
+    /**
+     * Creates a ready-to-run game from a config, without any console prompts.
+     * The map and all players are built here, so run() can be called right away.
+     *
+     * @param config Map size, difficulty and players for this game
+     */
+    public Game(SimulationConfig config) {
+        players = new ArrayList<>();
+        reports = new ArrayList<>();
+        interactive = false;
+
+        difficulty = config.getDifficulty();
+        long seed = config.hasSeed() ? config.getSeed() : ThreadLocalRandom.current().nextLong();
+        int width = config.getWidth();
+        int height = config.getHeight();
+        TerrainMode terrainMode = config.getTerrainMode();
+        if (config.getMapSnapshot() != null) {
+            gameMap = loadSnapshot(config.getMapSnapshot());
+        } else if (config.isPagedMap()) {
+            gameMap = new PagedGameMap(width, height, difficulty, seed, terrainMode, PagedGameMap.DEFAULT_MAX_TILES);
+        } else if (config.isCompactMap()) {
+            gameMap = new CompactGameMap(width, height, difficulty, seed, terrainMode);
+        } else {
+            gameMap = new GameMap(width, height, difficulty, seed, terrainMode);
+        }
+        if (config.isSimultaneousTurns()) {
+            simultaneousTurns = new SimultaneousTurns(gameMap, config.isParallelDecisions());
+        }
+
+        for (SimulationConfig.PlayerSetup setup : config.getPlayers()) {
+            Brain brain = setup.createBrain();
+            brain.setRoutePlanning(config.isRoutePlanning());
+            players.add(createPlayer(setup.getName(), brain, setup.createVision()));
+        }
+    }
+
+    /**
+     * Maps the snapshot file of a config.
+     */
+    private static GameMap loadSnapshot(Path file) {
+        try {
+            return MapSnapshot.load(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("[Game] Error: cannot load map snapshot " + file, e);
+        }
     }
 
     /**
@@ -126,22 +185,24 @@ import java.util.*;
 
             input.nextLine(); // consume newline
 
-
-            int[] res = difficulty.getInitialPlayerResources();
-            int strength = res[0];
-            int food = res[1];
-            int water = res[2];
-            int gold = 25; // default starting gold
-
-
-            Player player = new Player(name, vision, brain, gameMap, strength, food, water, gold);
-            players.add(player);
-
-
+            players.add(createPlayer(name, brain, vision));
         }
 
     }
 
+    /**
+     * Creates a player with the difficulty's starting resources.
+     */
+    private Player createPlayer(String name, Brain brain, Vision vision) {
+        int[] res = difficulty.getInitialPlayerResources();
+        int strength = res[0];
+        int food = res[1];
+        int water = res[2];
+        int gold = SimulationConfig.DEFAULT_STARTING_GOLD;
+
+        return new Player(name, vision, brain, gameMap, strength, food, water, gold);
+    }
+
     public void printMap() {
         gameMap.printMap(); // Delegates the task to the GameMap
     }
@@ -151,22 +212,52 @@ import java.util.*;
      * Main simulation loop.
      */
     public void run() {
-        System.out.println("\nStarting the simulation...");
-        printMap(); // Print initial map state
+        if (interactive) {
+            System.out.println("\nStarting the simulation...");
+            printMap(); // Print initial map state
+        }
 
         boolean gameRunning = true;
+        long round = 0;
         while (gameRunning) {
-            gameRunning = false;
+            gameRunning = simultaneousTurns != null ? simultaneousTurns.playRound(players, round) : playRound();
+            round++;
+            releaseBehindPlayers();
+        }
+
+        stopSimulation();
+    }
 
-            for (Player player : players) {
-                if (!player.hasFinished()) {
-                    player.takeTurn();
-                    gameRunning = true; // at least one player still active
-                }
+    /**
+     * Lets every active player take a complete turn, one after another.
+     *
+     * @return true if at least one player was still active
+     */
+    private boolean playRound() {
+        boolean anyActive = false;
+        for (Player player : players) {
+            if (!player.hasFinished()) {
+                player.takeTurn();
+                anyActive = true;
             }
         }
+        return anyActive;
+    }
 
-        stopSimulation();
+    /**
+     * Tells the map where the westernmost active player is, so paged maps
+     * can drop what everybody has left behind.
+     */
+    private void releaseBehindPlayers() {
+        int westernmost = Integer.MAX_VALUE;
+        for (Player player : players) {
+            if (!player.hasFinished()) {
+                westernmost = Math.min(westernmost, player.getX());
+            }
+        }
+        if (westernmost != Integer.MAX_VALUE) {
+            gameMap.releaseBefore(westernmost);
+        }
     }
 
     /**
@@ -198,14 +289,27 @@ import java.util.*;
 
     /**
      * Finalizes the game and prints all reports.
+     * Games built from a SimulationConfig only collect the reports, and do not
+     * even keep them when a report sink is set.
      */
     public void stopSimulation() {
-        System.out.println("\nSimulation complete!\n");
-    
+        boolean keepReports = interactive || reportSink == null;
         for (Player player : players) {
-            GameReport report = player.generateReport();  // player must implement this
+            GameReport report = player.generateReport();
+            if (keepReports) {
+                reports.add(report);
+            }
+            if (reportSink != null) {
+                reportSink.accept(report, difficulty, getSeed());
+            }
+        }
+        if (!interactive) {
+            return;
+        }
+
+        System.out.println("\nSimulation complete!\n");
+        for (GameReport report : reports) {
             report.printReport();
-            reports.add(report);
         }
     
         List<Player> winners = getWinners();
@@ -219,4 +323,37 @@ import java.util.*;
         }
     }
 
+    /**
+     * Streams the reports of this game to a sink as soon as the game ends.
+     *
+     * @param reportSink Sink for the reports, or null for none
+     */
+    public void setReportSink(ReportSink reportSink) {
+        this.reportSink = reportSink;
+    }
+
+    /**
+     * Returns the reports collected by stopSimulation().
+     *
+     * @return one report per player, empty until the game has finished
+     *         (and always empty for a non-interactive game with a report sink)
+     */
+    public List<GameReport> getReports() {
+        return reports;
+    }
+
+    public DifficultySettings getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Returns the seed the map and traders of this game were generated from.
+     * Passing it to SimulationConfig.setSeed() replays the game exactly.
+     *
+     * @return the seed of this game's map
+     */
+    public long getSeed() {
+        return gameMap.getSeed();
+    }
+
  }
\ No newline at end of file
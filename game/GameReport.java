@@ -1,13 +1,19 @@
 package wss.game;
 
 
+import java.util.ArrayList;
 import java.util.List;
 
-import java.util.Map;
+import wss.map.TerrainType;
+import wss.trader.TraderKind;
 
 /**
  * Represents a summary report of a player's gameplay session.
  * Tracks movement, resource usage, strategy, and trader encounters.
+ *
+ * Movement and trader data arrive as the player's primitive counters and
+ * terrain trace; the lists of names are only built when a getter or
+ * printReport() asks for them.
  */
 
  public class GameReport {
@@ -27,11 +33,15 @@ import java.util.Map;
 
     // === Trader Interactions ===
     private int tradersMet;
-    private List<String> traderTypesEncountered;
+    private int[] tradersByKind;    // traders met, by TraderKind ordinal
 
     // === Movement Tracking ===
-    private List<String> terrainsPassed;
-    private Map<String, Integer> terrainStrengthLoss;
+    private byte[] terrainTrace;    // TerrainType ordinal of every square entered
+    private int traceLength;        // used entries of terrainTrace
+    private int[] strengthLoss;     // strength lost, by TerrainType ordinal
+
+    private static final TerrainType[] TERRAIN_TYPES = TerrainType.values();
+    private static final TraderKind[] TRADER_KINDS = TraderKind.values();
 
     /**
      * Constructor for the complete GameReport.
@@ -45,16 +55,17 @@ import java.util.Map;
      * @param brainType               Name of brain strategy used
      * @param visionType              Vision type used
      * @param tradersMet              Number of traders met
-     * @param traderTypesEncountered  List of trader types encountered
-     * @param terrainsPassed          List of terrain types player moved through
-     * @param terrainStrengthLoss     Strength lost per terrain type
+     * @param tradersByKind           Traders met, indexed by TraderKind ordinal
+     * @param terrainTrace            TerrainType ordinal of every square entered, in order
+     * @param traceLength             Number of used entries in terrainTrace
+     * @param strengthLoss            Strength lost, indexed by TerrainType ordinal
      * @param finalStrength           Strength remaining at the end
      */
     public GameReport(String playerName, int turnsTaken, boolean reachedGoal,
                       int foodRemaining, int waterRemaining, int goldCollected,
                       String brainType, String visionType,
-                      int tradersMet, List<String> traderTypesEncountered,
-                      List<String> terrainsPassed, Map<String,Integer> strengthLossPerTerrain,
+                      int tradersMet, int[] tradersByKind,
+                      byte[] terrainTrace, int traceLength, int[] strengthLoss,
                       int finalStrength) {
 
         this.playerName = playerName;
@@ -66,12 +77,126 @@ import java.util.Map;
         this.brainType = brainType;
         this.visionType = visionType;
         this.tradersMet = tradersMet;
-        this.traderTypesEncountered = traderTypesEncountered;
-        this.terrainsPassed = terrainsPassed;
-        this.terrainStrengthLoss = strengthLossPerTerrain;
+        this.tradersByKind = tradersByKind;
+        this.terrainTrace = terrainTrace;
+        this.traceLength = traceLength;
+        this.strengthLoss = strengthLoss;
         this.finalStrength = finalStrength;
     }
 
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public int getTurnsTaken() {
+        return turnsTaken;
+    }
+
+    /**
+     * @return true if the player reached the eastern edge
+     */
+    public boolean reachedGoal() {
+        return reachedGoal;
+    }
+
+    public int getFoodRemaining() {
+        return foodRemaining;
+    }
+
+    public int getWaterRemaining() {
+        return waterRemaining;
+    }
+
+    public int getGoldCollected() {
+        return goldCollected;
+    }
+
+    public int getFinalStrength() {
+        return finalStrength;
+    }
+
+    public String getBrainType() {
+        return brainType;
+    }
+
+    public String getVisionType() {
+        return visionType;
+    }
+
+    public int getTradersMet() {
+        return tradersMet;
+    }
+
+    /**
+     * Returns how many traders of one kind the player met.
+     *
+     * @param kind Trader kind
+     * @return number of encounters with that kind
+     */
+    public int getTradersMet(TraderKind kind) {
+        return tradersByKind[kind.ordinal()];
+    }
+
+    /**
+     * Lists the trader types met, one entry per encounter, grouped by kind.
+     * Builds a new list on every call.
+     *
+     * @return trader class names, e.g. "GreedyTrader"
+     */
+    public List<String> getTraderTypesEncountered() {
+        List<String> types = new ArrayList<>(tradersMet);
+        for (TraderKind kind : TRADER_KINDS) {
+            for (int i = 0; i < tradersByKind[kind.ordinal()]; i++) {
+                types.add(kind.getTypeName());
+            }
+        }
+        return types;
+    }
+
+    /**
+     * @return number of squares the player entered
+     */
+    public int getStepCount() {
+        return traceLength;
+    }
+
+    /**
+     * Returns the terrain of one square the player entered.
+     *
+     * @param step Step index, from 0
+     * @return terrain type entered on that step
+     */
+    public TerrainType getTerrainAt(int step) {
+        if (step < 0 || step >= traceLength) {
+            throw new IndexOutOfBoundsException("[GameReport] Error: step " + step + " of " + traceLength);
+        }
+        return TERRAIN_TYPES[terrainTrace[step]];
+    }
+
+    /**
+     * Lists the terrains the player moved through, in order.
+     * Builds a new list on every call; prefer getStepCount() and getTerrainAt().
+     *
+     * @return terrain names, one per step
+     */
+    public List<String> getTerrainsPassed() {
+        List<String> names = new ArrayList<>(traceLength);
+        for (int i = 0; i < traceLength; i++) {
+            names.add(TERRAIN_TYPES[terrainTrace[i]].name());
+        }
+        return names;
+    }
+
+    /**
+     * Returns the strength the player lost while crossing one terrain type.
+     *
+     * @param type Terrain type
+     * @return strength lost on that terrain (0 if never entered)
+     */
+    public int getStrengthLoss(TerrainType type) {
+        return strengthLoss[type.ordinal()];
+    }
+
     /**
      * Prints a detailed summary of the game report.
      */
@@ -87,11 +212,13 @@ import java.util.Map;
         System.out.println("Gold Collected:  " + goldCollected);
         System.out.println("Final Strength:  " + finalStrength);
         System.out.println("Traders Met:     " + tradersMet);
-        System.out.println("Trader Types:    " + String.join(", ", traderTypesEncountered));
-        System.out.println("\nTerrains Passed: " + String.join(" → ", terrainsPassed));
+        System.out.println("Trader Types:    " + String.join(", ", getTraderTypesEncountered()));
+        System.out.println("\nTerrains Passed: " + String.join(" → ", getTerrainsPassed()));
         System.out.println("Strength Lost by Terrain:");
-        for (String terrain : terrainStrengthLoss.keySet()) {
-            System.out.printf("  %-10s: -%d strength\n", terrain, terrainStrengthLoss.get(terrain));
+        for (TerrainType terrain : TERRAIN_TYPES) {
+            if (strengthLoss[terrain.ordinal()] > 0) { // every terrain costs strength, so 0 means never entered
+                System.out.printf("  %-10s: -%d strength\n", terrain.name(), strengthLoss[terrain.ordinal()]);
+            }
         }
 
         System.out.println("========================\n");
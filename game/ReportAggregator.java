@@ -0,0 +1,251 @@
+package wss.game;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import wss.map.TerrainType;
+
+/**
+ * ReportSink that keeps running totals per (brain, vision, difficulty)
+ * instead of the reports themselves: number of players, wins, turns and
+ * strength lost on each TerrainType. Memory depends on the number of
+ * combinations, not on the number of games.
+ */
+public class ReportAggregator implements ReportSink {
+
+    private static final TerrainType[] TERRAIN_TYPES = TerrainType.values();
+
+    /** Running totals per combination */
+    private final Map<Key, Totals> totals = new ConcurrentHashMap<>();
+
+    @Override
+    public void accept(GameReport report, DifficultySettings difficulty, long seed) {
+        Key key = new Key(report.getBrainType(), report.getVisionType(), difficulty);
+        totals.computeIfAbsent(key, k -> new Totals()).add(report);
+    }
+
+    /**
+     * Returns the aggregates collected so far, sorted by brain, vision and difficulty.
+     *
+     * @return one summary per combination seen
+     */
+    public List<Summary> getSummaries() {
+        List<Summary> summaries = new ArrayList<>(totals.size());
+        for (Map.Entry<Key, Totals> entry : totals.entrySet()) {
+            summaries.add(entry.getValue().summarize(entry.getKey()));
+        }
+        summaries.sort(Comparator.comparing(Summary::getBrainType)
+            .thenComparing(Summary::getVisionType)
+            .thenComparing(Summary::getDifficulty));
+        return summaries;
+    }
+
+    /**
+     * Prints the aggregates as a table, one line per combination.
+     *
+     * @param out Stream to print to
+     */
+    public void printSummary(PrintStream out) {
+        out.printf("%-14s %-16s %-7s %8s %8s %9s", "Brain", "Vision", "Diff", "Players", "Win %", "Turns");
+        for (TerrainType type : TERRAIN_TYPES) {
+            out.printf(" %9s", type.name());
+        }
+        out.println();
+        for (Summary summary : getSummaries()) {
+            out.printf("%-14s %-16s %-7s %8d %8.1f %9.1f", summary.getBrainType(), summary.getVisionType(),
+                summary.getDifficulty(), summary.getPlayers(), 100 * summary.getWinRate(), summary.getMeanTurns());
+            for (TerrainType type : TERRAIN_TYPES) {
+                out.printf(" %9.1f", summary.getMeanStrengthLoss(type));
+            }
+            out.println();
+        }
+    }
+
+    /**
+     * Writes the aggregates as CSV, one row per combination.
+     *
+     * @param file File to write (replaced if it exists)
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCsv(Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file)) {
+            out.write("brain,vision,difficulty,players,wins,win_rate,mean_turns");
+            for (TerrainType type : TERRAIN_TYPES) {
+                out.write(",mean_strength_loss_" + type.name().toLowerCase());
+            }
+            out.write('\n');
+            for (Summary summary : getSummaries()) {
+                out.write(summary.getBrainType() + "," + summary.getVisionType() + "," + summary.getDifficulty()
+                    + "," + summary.getPlayers() + "," + summary.getWins()
+                    + "," + summary.getWinRate() + "," + summary.getMeanTurns());
+                for (TerrainType type : TERRAIN_TYPES) {
+                    out.write("," + summary.getMeanStrengthLoss(type));
+                }
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * @return number of reports received so far
+     */
+    public long getPlayers() {
+        long players = 0;
+        for (Totals t : totals.values()) {
+            players += t.getPlayers();
+        }
+        return players;
+    }
+
+    /**
+     * @return number of received reports whose player reached the goal
+     */
+    public long getWins() {
+        long wins = 0;
+        for (Totals t : totals.values()) {
+            wins += t.getWins();
+        }
+        return wins;
+    }
+
+    /**
+     * Grouping key of the aggregates.
+     */
+    private static final class Key {
+        private final String brainType;
+        private final String visionType;
+        private final DifficultySettings difficulty;
+
+        Key(String brainType, String visionType, DifficultySettings difficulty) {
+            this.brainType = brainType;
+            this.visionType = visionType;
+            this.difficulty = difficulty;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return brainType.equals(other.brainType) && visionType.equals(other.visionType)
+                && difficulty == other.difficulty;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(brainType, visionType, difficulty);
+        }
+    }
+
+    /**
+     * Running totals of one combination. Reports arrive from several games at
+     * once, so updates are synchronized per combination.
+     */
+    private static final class Totals {
+        private long players;
+        private long wins;
+        private long turns;
+        private final long[] strengthLoss = new long[TERRAIN_TYPES.length];
+
+        synchronized void add(GameReport report) {
+            players++;
+            if (report.reachedGoal()) {
+                wins++;
+            }
+            turns += report.getTurnsTaken();
+            for (TerrainType type : TERRAIN_TYPES) {
+                strengthLoss[type.ordinal()] += report.getStrengthLoss(type);
+            }
+        }
+
+        synchronized Summary summarize(Key key) {
+            return new Summary(key, players, wins, turns, strengthLoss.clone());
+        }
+
+        synchronized long getPlayers() {
+            return players;
+        }
+
+        synchronized long getWins() {
+            return wins;
+        }
+    }
+
+    /**
+     * Aggregates of one (brain, vision, difficulty) combination.
+     */
+    public static final class Summary {
+        private final String brainType;
+        private final String visionType;
+        private final DifficultySettings difficulty;
+        private final long players;
+        private final long wins;
+        private final long turns;
+        private final long[] strengthLoss;
+
+        private Summary(Key key, long players, long wins, long turns, long[] strengthLoss) {
+            this.brainType = key.brainType;
+            this.visionType = key.visionType;
+            this.difficulty = key.difficulty;
+            this.players = players;
+            this.wins = wins;
+            this.turns = turns;
+            this.strengthLoss = strengthLoss;
+        }
+
+        public String getBrainType() {
+            return brainType;
+        }
+
+        public String getVisionType() {
+            return visionType;
+        }
+
+        public DifficultySettings getDifficulty() {
+            return difficulty;
+        }
+
+        /**
+         * @return number of player reports in this combination
+         */
+        public long getPlayers() {
+            return players;
+        }
+
+        public long getWins() {
+            return wins;
+        }
+
+        /**
+         * @return share of players that reached the goal, from 0 to 1
+         */
+        public double getWinRate() {
+            return players == 0 ? 0 : (double) wins / players;
+        }
+
+        /**
+         * @return average number of turns a player took
+         */
+        public double getMeanTurns() {
+            return players == 0 ? 0 : (double) turns / players;
+        }
+
+        /**
+         * Returns the average strength a player lost on one terrain type.
+         *
+         * @param type Terrain type
+         * @return mean strength loss per player on that terrain
+         */
+        public double getMeanStrengthLoss(TerrainType type) {
+            return players == 0 ? 0 : (double) strengthLoss[type.ordinal()] / players;
+        }
+    }
+}
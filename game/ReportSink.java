@@ -0,0 +1,59 @@
+package wss.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination for the reports of finished games.
+ *
+ * A Game hands every player's report to its sink as soon as the game ends,
+ * so a sweep over many games never has to keep the reports around. One sink
+ * is usually shared by all games of a sweep, which run on several threads at
+ * once; implementations must therefore be thread-safe.
+ */
+public interface ReportSink extends Closeable {
+
+    /**
+     * Receives the report of one player of a finished game.
+     *
+     * @param report     The player's report
+     * @param difficulty Difficulty the game was played on
+     * @param seed       Seed of the game's map (see Game.getSeed())
+     */
+    void accept(GameReport report, DifficultySettings difficulty, long seed);
+
+    /**
+     * Flushes and releases whatever the sink writes to. Does nothing by default.
+     *
+     * @throws IOException if pending output cannot be written
+     */
+    @Override
+    default void close() throws IOException {
+        // nothing to release
+    }
+
+    /**
+     * Combines several sinks into one that passes every report to each of them, in order.
+     *
+     * @param sinks Sinks to feed
+     * @return a sink that fans out to all of them
+     */
+    static ReportSink of(ReportSink... sinks) {
+        ReportSink[] targets = sinks.clone();
+        return new ReportSink() {
+            @Override
+            public void accept(GameReport report, DifficultySettings difficulty, long seed) {
+                for (ReportSink sink : targets) {
+                    sink.accept(report, difficulty, seed);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                for (ReportSink sink : targets) {
+                    sink.close();
+                }
+            }
+        };
+    }
+}
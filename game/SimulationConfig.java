@@ -0,0 +1,288 @@
+package wss.game;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import wss.brain.Brain;
+import wss.map.MapSnapshot;
+import wss.map.TerrainMode;
+import wss.vision.Vision;
+
+/**
+ * Describes everything Game.setup() would normally ask for on the console:
+ * map size, difficulty and the players with their Brain and Vision.
+ *
+ * A config can be reused to start any number of games; every game gets a fresh
+ * map and fresh Brain/Vision instances created from the registered factories.
+ */
+public class SimulationConfig {
+
+    /** Starting gold handed to every player (same as the interactive setup) */
+    public static final int DEFAULT_STARTING_GOLD = 25;
+
+    private final int width;
+    private final int height;
+    private final DifficultySettings difficulty;
+    private final List<PlayerSetup> players;
+    private boolean compactMap;
+    private boolean pagedMap;
+    private Path mapSnapshot;
+    private TerrainMode terrainMode = TerrainMode.RANDOM;
+    private boolean simultaneousTurns;
+    private boolean parallelDecisions = true;
+    private boolean routePlanning;
+    private boolean seeded;
+    private long seed;
+
+    /**
+     * Creates a config with no players yet.
+     *
+     * @param width      Width of the map
+     * @param height     Height of the map
+     * @param difficulty Difficulty used for map generation and starting resources
+     * @throws IllegalArgumentException if the map size is not positive or difficulty is null
+     */
+    public SimulationConfig(int width, int height, DifficultySettings difficulty) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("[SimulationConfig] Error: map size must be positive.");
+        }
+        if (difficulty == null) {
+            throw new IllegalArgumentException("[SimulationConfig] Error: difficulty is required.");
+        }
+        this.width = width;
+        this.height = height;
+        this.difficulty = difficulty;
+        this.players = new ArrayList<>();
+    }
+
+    /**
+     * Creates a config whose games all play on the map stored in a snapshot file
+     * (see MapSnapshot). Size, difficulty, terrain mode and seed come from the file,
+     * and every game maps the file instead of generating a map.
+     *
+     * @param file Snapshot file written by MapSnapshot.save()
+     * @return a config with no players yet
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static SimulationConfig fromSnapshot(Path file) throws IOException {
+        MapSnapshot header = MapSnapshot.readHeader(file);
+        SimulationConfig config = new SimulationConfig(header.getWidth(), header.getHeight(), header.getDifficulty())
+            .setTerrainMode(header.getTerrainMode())
+            .setSeed(header.getSeed());
+        config.mapSnapshot = file;
+        return config;
+    }
+
+    /**
+     * Registers a player. The factories are called once per game so that
+     * stateful Vision objects are never shared between games.
+     *
+     * @param name   Player name
+     * @param brain  Factory for the player's Brain (e.g. GreedyBrain::new)
+     * @param vision Factory for the player's Vision (e.g. CautiousVision::new)
+     * @return this config, so calls can be chained
+     */
+    public SimulationConfig addPlayer(String name, Supplier<? extends Brain> brain, Supplier<? extends Vision> vision) {
+        players.add(new PlayerSetup(name, brain, vision));
+        return this;
+    }
+
+    /**
+     * Selects the CompactGameMap backend, which keeps very large maps small in
+     * memory by creating squares only when they are looked at.
+     *
+     * @param compactMap true to use CompactGameMap, false for the regular GameMap
+     * @return this config, so calls can be chained
+     */
+    public SimulationConfig setCompactMap(boolean compactMap) {
+        this.compactMap = compactMap;
+        if (compactMap) {
+            this.pagedMap = false;
+        }
+        return this;
+    }
+
+    /**
+     * Selects the PagedGameMap backend, which generates the map in tiles as the
+     * players reach them and drops tiles they have left behind. Memory then
+     * depends on the map height, not its width, so very wide maps become possible.
+     *
+     * @param pagedMap true to use PagedGameMap, false for the regular GameMap
+     * @return this config, so calls can be chained
+     */
+    public SimulationConfig setPagedMap(boolean pagedMap) {
+        this.pagedMap = pagedMap;
+        if (pagedMap) {
+            this.compactMap = false;
+        }
+        return this;
+    }
+
+    /**
+     * Chooses how the maps of this config lay out their terrain. NOISE gives
+     * connected mountain ranges, swamps and plains instead of independent squares.
+     *
+     * @param terrainMode Terrain mode for the maps (RANDOM by default)
+     * @return this config, so calls can be chained
+     * @throws IllegalArgumentException if terrainMode is null
+     */
+    public SimulationConfig setTerrainMode(TerrainMode terrainMode) {
+        if (terrainMode == null) {
+            throw new IllegalArgumentException("[SimulationConfig] Error: terrain mode is required.");
+        }
+        this.terrainMode = terrainMode;
+        return this;
+    }
+
+    /**
+     * Switches the games of this config to simultaneous turns. Every round,
+     * all players first decide their moves against the same map (in parallel
+     * when there are many players), and then the moves are applied one player
+     * at a time. When two players go for the same items or trader, the one
+     * applied first gets them; the order rotates every round.
+     * By default players take complete turns one after another.
+     *
+     * @param simultaneousTurns true for simultaneous turns
+     * @return this config, so calls can be chained
+     */
+    public SimulationConfig setSimultaneousTurns(boolean simultaneousTurns) {
+        this.simultaneousTurns = simultaneousTurns;
+        return this;
+    }
+
+    /**
+     * Chooses whether simultaneous turns with many players decide their moves
+     * in parallel (the default) or one after another. Both give the same games,
+     * since nothing changes the map while players decide; turning it off only
+     * helps to check that or to profile a single thread.
+     *
+     * @param parallelDecisions false to always decide on the game's own thread
+     * @return this config, so calls can be chained
+     */
+    public SimulationConfig setParallelDecisions(boolean parallelDecisions) {
+        this.parallelDecisions = parallelDecisions;
+        return this;
+    }
+
+    /**
+     * Lets the brains of this config plan routes: when nothing they look for
+     * is in sight, they follow the cheapest route to the eastern edge instead
+     * of heading straight east (see Brain.setRoutePlanning()). Off by default.
+     *
+     * @param routePlanning true to turn route planning on for every player
+     * @return this config, so calls can be chained
+     */
+    public SimulationConfig setRoutePlanning(boolean routePlanning) {
+        this.routePlanning = routePlanning;
+        return this;
+    }
+
+    /**
+     * Fixes the seed of every game started from this config. Map generation
+     * and traders draw from separate streams split off this seed, so a run can
+     * be reproduced exactly. Without a seed, every game picks a fresh one
+     * (see Game.getSeed()).
+     *
+     * @param seed Seed for the games of this config
+     * @return this config, so calls can be chained
+     */
+    public SimulationConfig setSeed(long seed) {
+        this.seed = seed;
+        this.seeded = true;
+        return this;
+    }
+
+    /**
+     * @return true if setSeed() was called
+     */
+    public boolean hasSeed() {
+        return seeded;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public TerrainMode getTerrainMode() {
+        return terrainMode;
+    }
+
+    public boolean isSimultaneousTurns() {
+        return simultaneousTurns;
+    }
+
+    public boolean isParallelDecisions() {
+        return parallelDecisions;
+    }
+
+    public boolean isRoutePlanning() {
+        return routePlanning;
+    }
+
+    public boolean isCompactMap() {
+        return compactMap;
+    }
+
+    public boolean isPagedMap() {
+        return pagedMap;
+    }
+
+    /**
+     * @return the snapshot file the games load their map from, or null to generate maps
+     */
+    public Path getMapSnapshot() {
+        return mapSnapshot;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public DifficultySettings getDifficulty() {
+        return difficulty;
+    }
+
+    public List<PlayerSetup> getPlayers() {
+        return players;
+    }
+
+    /**
+     * One player entry of a SimulationConfig.
+     */
+    public static class PlayerSetup {
+        private final String name;
+        private final Supplier<? extends Brain> brainFactory;
+        private final Supplier<? extends Vision> visionFactory;
+
+        PlayerSetup(String name, Supplier<? extends Brain> brainFactory, Supplier<? extends Vision> visionFactory) {
+            this.name = name;
+            this.brainFactory = brainFactory;
+            this.visionFactory = visionFactory;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return a new Brain instance for this player
+         */
+        public Brain createBrain() {
+            return brainFactory.get();
+        }
+
+        /**
+         * @return a new Vision instance for this player
+         */
+        public Vision createVision() {
+            return visionFactory.get();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package wss.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+/**
+ * Runs independent games in parallel on a fork-join pool.
+ *
+ * Every game owns its own map, players and Random, so games never share
+ * mutable state and can be spread over all available cores.
+ * Logging goes to the JVM-wide sink in wss.util.Log; install a NoOpLogSink
+ * before running large batches.
+ */
+public class SimulationExecutor implements AutoCloseable {
+
+    /** Games queued per worker by runStreaming() */
+    private static final int QUEUED_GAMES_PER_THREAD = 4;
+
+    /** Pool the games run on */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an executor with one worker per available processor.
+     */
+    public SimulationExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an executor with a fixed number of workers.
+     *
+     * @param threads Number of games that may run at the same time
+     * @throws IllegalArgumentException if threads is less than 1
+     */
+    public SimulationExecutor(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("[SimulationExecutor] Error: need at least one thread.");
+        }
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Runs one game per config and waits for all of them to finish.
+     *
+     * @param configs Configs to run; the same config may appear more than once
+     * @return the reports of each game, in the same order as the configs
+     */
+    public List<List<GameReport>> runAll(List<SimulationConfig> configs) {
+        List<Callable<List<GameReport>>> tasks = new ArrayList<>(configs.size());
+        for (SimulationConfig config : configs) {
+            tasks.add(() -> {
+                Game game = new Game(config);
+                game.run();
+                return game.getReports();
+            });
+        }
+
+        List<List<GameReport>> results = new ArrayList<>(configs.size());
+        try {
+            for (Future<List<GameReport>> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("[SimulationExecutor] Interrupted while waiting for games.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("[SimulationExecutor] A game failed.", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Runs a number of games and streams their reports to a sink instead of
+     * collecting them. Configs are created as workers free up, and only a few
+     * games per worker are queued at any time, so memory stays flat however
+     * many games the sweep contains.
+     *
+     * @param games   Number of games to run
+     * @param configs Returns the config of game i (called in order, on the calling thread)
+     * @param sink    Receives the reports of every finished game; must be thread-safe
+     * @throws IllegalStateException if a game fails (no new games are started after that)
+     */
+    public void runStreaming(int games, IntFunction<SimulationConfig> configs, ReportSink sink) {
+        int slots = pool.getParallelism() * QUEUED_GAMES_PER_THREAD;
+        Semaphore free = new Semaphore(slots);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        try {
+            for (int i = 0; i < games && failure.get() == null; i++) {
+                free.acquire();
+                SimulationConfig config = configs.apply(i);
+                pool.execute(() -> {
+                    try {
+                        Game game = new Game(config);
+                        game.setReportSink(sink);
+                        game.run();
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        free.release();
+                    }
+                });
+            }
+            free.acquire(slots); // wait for the last games
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("[SimulationExecutor] Interrupted while waiting for games.", e);
+        }
+
+        if (failure.get() != null) {
+            throw new IllegalStateException("[SimulationExecutor] A game failed.", failure.get());
+        }
+    }
+
+    /**
+     * Stops the worker threads. Games that are already running are allowed to finish.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
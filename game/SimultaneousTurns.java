@@ -0,0 +1,100 @@
+package wss.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import wss.map.GameMap;
+import wss.player.Player;
+
+/**
+ * Plays the rounds of a game with simultaneous turns (see
+ * SimulationConfig.setSimultaneousTurns()).
+ *
+ * A round has two phases. In the decide phase every active player chooses a
+ * move against the same map, which nobody changes meanwhile; with enough
+ * players the decisions run in parallel. Before that, the map is asked to pin
+ * the squares around every player, so the parallel reads take no lock. In the
+ * apply phase the moves are made one at a time, starting with a player that
+ * rotates every round. Whoever is applied first collects the items of a
+ * square or trades first, so the outcome never depends on thread timing.
+ */
+class SimultaneousTurns {
+
+    /** Rounds with at least this many active players decide in parallel */
+    static final int PARALLEL_DECISION_THRESHOLD = 64;
+
+    private final GameMap map;
+    private final boolean parallelDecisions;
+
+    /** Players of the current round, in game order */
+    private final List<Player> activePlayers = new ArrayList<>();
+
+    /** Positions of the active players, handed to GameMap.pinAround() */
+    private int[] xs = new int[0];
+    private int[] ys = new int[0];
+
+    /**
+     * @param map The map all players move on
+     * @param parallelDecisions false to decide one player after another even in large rounds
+     */
+    SimultaneousTurns(GameMap map, boolean parallelDecisions) {
+        this.map = map;
+        this.parallelDecisions = parallelDecisions;
+    }
+
+    /**
+     * Plays one round for every player that has not finished.
+     *
+     * @param players All players of the game, in game order
+     * @param round Number of the round, counting from 0
+     * @return true if at least one player was still active
+     */
+    boolean playRound(List<Player> players, long round) {
+        activePlayers.clear();
+        for (Player player : players) {
+            if (!player.hasFinished()) {
+                activePlayers.add(player);
+            }
+        }
+        int count = activePlayers.size();
+        if (count == 0) {
+            return false;
+        }
+
+        // Nothing changes the map until every player has decided
+        if (parallelDecisions && count >= PARALLEL_DECISION_THRESHOLD) {
+            pinSquaresAroundPlayers();
+            activePlayers.parallelStream().forEach(Player::decideMove);
+        } else {
+            for (Player player : activePlayers) {
+                player.decideMove();
+            }
+        }
+
+        int first = (int) (round % count);
+        for (int i = 0; i < count; i++) {
+            activePlayers.get((first + i) % count).applyMove();
+        }
+        return true;
+    }
+
+    /**
+     * Pins everything the players can look at this round, so their parallel
+     * decisions read the map without locks.
+     */
+    private void pinSquaresAroundPlayers() {
+        int count = activePlayers.size();
+        if (xs.length < count) {
+            xs = new int[count];
+            ys = new int[count];
+        }
+        int reach = 1;
+        for (int i = 0; i < count; i++) {
+            Player player = activePlayers.get(i);
+            xs[i] = player.getX();
+            ys[i] = player.getY();
+            reach = Math.max(reach, player.getVision().getReach());
+        }
+        map.pinAround(xs, ys, count, reach);
+    }
+}
@@ -1,6 +1,7 @@
 package wss.item;
 
 import wss.player.Player;
+import wss.util.Log;
 
 /**
  * Represents a Food Bonus item that increases the player's food level when collected.
@@ -17,7 +18,7 @@ public class FoodBonus extends Item {
      * By default, food bonuses are not repeating (can be configured if needed).
      */
     public FoodBonus() {
-        super("Food Bonus", false); // Name and repeating set here
+        super(ItemKind.FOOD, false); // Kind (which sets the name) and repeating set here
         this.amount = 10; // Default food gain amount (can adjust if needed)
     }
 
@@ -28,7 +29,7 @@ public class FoodBonus extends Item {
      * @param repeating Whether this bonus can be collected multiple times
      */
     public FoodBonus(int amount, boolean repeating) {
-        super("Food Bonus", repeating);
+        super(ItemKind.FOOD, repeating);
         this.amount = amount;
     }
 
@@ -40,7 +41,9 @@ public class FoodBonus extends Item {
      */
     @Override
     public void applyTo(Player player) {
-        System.out.println("[FoodBonus] Applying food bonus of " + amount + " to player " + player.getName());
+        if (Log.isDebugEnabled()) {
+            Log.debug("[FoodBonus] Applying food bonus of " + amount + " to player " + player.getName());
+        }
         player.increaseFood(amount); // Player will have a method like increaseFood(int)
     }
 
@@ -1,6 +1,7 @@
 package wss.item;
 
 import wss.player.Player;
+import wss.util.Log;
 
 /**
  * Represents a Gold Bonus item that increases the player's gold when collected.
@@ -16,7 +17,7 @@ public class GoldBonus extends Item {
      * By default, gold bonuses are not repeating (can be configured if needed).
      */
     public GoldBonus() {
-        super("Gold Bonus", false); // Name and repeating set here
+        super(ItemKind.GOLD, false); // Kind (which sets the name) and repeating set here
         this.amount = 5; // Default gold gain amount
     }
 
@@ -27,7 +28,7 @@ public class GoldBonus extends Item {
      * @param repeating Whether this bonus can be collected multiple times
      */
     public GoldBonus(int amount, boolean repeating) {
-        super("Gold Bonus", repeating);
+        super(ItemKind.GOLD, repeating);
         this.amount = amount;
     }
 
@@ -39,7 +40,9 @@ public class GoldBonus extends Item {
      */
     @Override
     public void applyTo(Player player) {
-        System.out.println("[GoldBonus] Applying gold bonus of " + amount + " to player " + player.getName());
+        if (Log.isDebugEnabled()) {
+            Log.debug("[GoldBonus] Applying gold bonus of " + amount + " to player " + player.getName());
+        }
         player.increaseGold(amount); // WPlayer will have a method like increaseGold(int)
     }
 
@@ -16,14 +16,19 @@ public abstract class Item {
     /** Whether the item is repeating */
     protected boolean repeating;
 
+    /** Kind of the item, used for fast lookups on map squares */
+    protected final ItemKind kind;
+
     /**
-     * Constructs an item with a specified name and repeatability.
+     * Constructs an item of a given kind and repeatability.
+     * The item is named after its kind (e.g. "Food Bonus").
      * 
-     * @param name The name of the item
+     * @param kind The kind of the item
      * @param repeating True if the item can be collected multiple times, false if one-time only
      */
-    public Item(String name, boolean repeating) {
-        this.name = name;
+    public Item(ItemKind kind, boolean repeating) {
+        this.name = kind.getItemName();
+        this.kind = kind;
         this.repeating = repeating;
     }
 
@@ -45,6 +50,14 @@ public abstract class Item {
         return name;
     }
 
+    /**
+     * Returns the kind of the item.
+     * @return Item kind
+     */
+    public ItemKind getKind() {
+        return kind;
+    }
+
     /**
      * Checks if the item is repeating.
      * @return True if repeating, false otherwise
@@ -0,0 +1,62 @@
+package wss.item;
+
+/**
+ * The kinds of bonus items that can lie on a map square.
+ * Each kind owns one bit, so a square can record which kinds it holds in a
+ * small bitmask and answer "is there food here?" with a single bit test.
+ */
+public enum ItemKind {
+
+    FOOD("Food Bonus"),
+    WATER("Water Bonus"),
+    GOLD("Gold Bonus");
+
+    /** Cached copy of values(), which clones on every call */
+    private static final ItemKind[] VALUES = values();
+
+    /** Display name shared by every item of this kind */
+    private final String itemName;
+
+    ItemKind(String itemName) {
+        this.itemName = itemName;
+    }
+
+    /**
+     * @return the display name of items of this kind (e.g. "Food Bonus")
+     */
+    public String getItemName() {
+        return itemName;
+    }
+
+    /**
+     * @return the bit that represents this kind in a bitmask
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Returns the kind with the given ordinal.
+     *
+     * @param ordinal Value previously obtained from ordinal()
+     * @return the matching ItemKind
+     */
+    public static ItemKind fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Looks up the kind whose items carry the given name.
+     *
+     * @param itemName Item name such as "Gold Bonus"
+     * @return the matching kind, or null if no kind uses that name
+     */
+    public static ItemKind fromItemName(String itemName) {
+        for (ItemKind kind : VALUES) {
+            if (kind.itemName.equals(itemName)) {
+                return kind;
+            }
+        }
+        return null;
+    }
+}
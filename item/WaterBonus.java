@@ -1,6 +1,7 @@
 package wss.item;
 
 import wss.player.Player;
+import wss.util.Log;
 
 /**
  * Represents a Water Bonus item that increases the player's water level when collected.
@@ -16,7 +17,7 @@ public class WaterBonus extends Item {
      * By default, water bonuses are not repeating (can be configured if needed).
      */
     public WaterBonus() {
-        super("Water Bonus", false); // Name and repeating set here
+        super(ItemKind.WATER, false); // Kind (which sets the name) and repeating set here
         this.amount = 10; // Default water gain amount
     }
 
@@ -27,7 +28,7 @@ public class WaterBonus extends Item {
      * @param repeating Whether this bonus can be collected multiple times
      */
     public WaterBonus(int amount, boolean repeating) {
-        super("Water Bonus", repeating);
+        super(ItemKind.WATER, repeating);
         this.amount = amount;
     }
 
@@ -39,7 +40,9 @@ public class WaterBonus extends Item {
      */
     @Override
     public void applyTo(Player player) {
-        System.out.println("[WaterBonus] Applying water bonus of " + amount + " to player " + player.getName());
+        if (Log.isDebugEnabled()) {
+            Log.debug("[WaterBonus] Applying water bonus of " + amount + " to player " + player.getName());
+        }
         player.increaseWater(amount); // Player will have a method like increaseWater(int)
     }
 
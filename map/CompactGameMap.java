@@ -0,0 +1,574 @@
+package wss.map;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+import wss.game.DifficultySettings;
+import wss.item.FoodBonus;
+import wss.item.GoldBonus;
+import wss.item.WaterBonus;
+import wss.trader.TraderKind;
+import wss.util.Log;
+
+/**
+ * GameMap backend for very large maps.
+ *
+ * Instead of one MapSquare per cell, the map is stored column by column in a few
+ * flat buffers, indexed by cell = x * height + y:
+ * - terrain: one byte per cell holding the TerrainType ordinal
+ * - food / water / gold: bitplanes with one bit per cell marking a bonus
+ *   (little-endian longs, bit cell % 64 of long cell / 64)
+ * - traders: a sorted table of cell indices with the TraderKind of each
+ *
+ * The buffers are either filled by generation or mapped straight from a
+ * MapSnapshot file, in which case the operating system pages them in as
+ * the game touches them.
+ *
+ * A MapSquare (with its items and trader) is only created the first time
+ * getSquare() asks for it. From then on that square is the source of truth,
+ * so collected items and used-up traders stay the way the players left them.
+ * Created squares live in tiles of CHUNK_COLUMNS columns, one slot per cell,
+ * so a lookup is two array reads and never boxes the cell index. Once every
+ * player has left a tile behind (see releaseBefore()), the tile is dropped;
+ * only the squares that no longer match the planes (items collected, trader
+ * gone or traded with) are kept and put back if the tile is ever needed
+ * again. Memory therefore depends on the tiles around the players and the
+ * changes they made, not on how many squares were looked at.
+ *
+ * The resource index is built the first time it is asked for.
+ */
+public class CompactGameMap extends GameMap {
+
+    /** Cached copy of TerrainType.values() */
+    private static final TerrainType[] TERRAIN_TYPES = TerrainType.values();
+
+    /** TerrainType ordinal of every cell */
+    private final ByteBuffer terrain;
+
+    /** Cells that start with a food bonus */
+    private final ByteBuffer food;
+
+    /** Cells that start with a water bonus */
+    private final ByteBuffer water;
+
+    /** Cells that start with a gold bonus */
+    private final ByteBuffer gold;
+
+    /** Cells that start with a trader, in ascending order (little-endian ints) */
+    private ByteBuffer traderCells;
+
+    /** TraderKind ordinal for each entry of traderCells */
+    private ByteBuffer traderKinds;
+
+    /** Number of entries in traderCells / traderKinds */
+    private int traderCount;
+
+    /** Created squares per tile of CHUNK_COLUMNS columns, slot (x - first column) * height + y; null until touched */
+    private final AtomicReferenceArray<AtomicReferenceArray<MapSquare>> tiles;
+
+    /** Changed squares of dropped tiles, by tile number (guarded by tileLock) */
+    private final Map<Integer, MapSquare[]> keptSquares = new HashMap<>();
+
+    /** No tile with a smaller number is loaded (guarded by tileLock) */
+    private int lowestLoadedTile;
+
+    /** Guards loading and dropping tiles */
+    private final Object tileLock = new Object();
+
+    /** Guards creating the resource index and attaching squares to it; taken before tileLock */
+    private final Object indexLock = new Object();
+
+    /**
+     * Constructs a compact map with the given dimensions and difficulty, from a fresh random seed.
+     * @param width Width of the map
+     * @param height Height of the map
+     * @param difficultySetting Difficulty setting for terrain and item generation
+     * @throws IllegalArgumentException if the map has more than Integer.MAX_VALUE cells
+     */
+    public CompactGameMap(int width, int height, DifficultySettings difficultySetting) {
+        this(width, height, difficultySetting, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructs a compact map from a seed. A GameMap built from the same seed,
+     * size and difficulty has exactly the same squares.
+     * @param width Width of the map
+     * @param height Height of the map
+     * @param difficultySetting Difficulty setting for terrain and item generation
+     * @param seed Seed for map generation and traders
+     * @throws IllegalArgumentException if the map has more than Integer.MAX_VALUE cells
+     */
+    public CompactGameMap(int width, int height, DifficultySettings difficultySetting, long seed) {
+        this(width, height, difficultySetting, seed, TerrainMode.RANDOM);
+    }
+
+    /**
+     * Constructs a compact map from a seed with the given terrain mode.
+     * @param width Width of the map
+     * @param height Height of the map
+     * @param difficultySetting Difficulty setting for terrain and item generation
+     * @param seed Seed for map generation and traders
+     * @param terrainMode RANDOM for independent squares, NOISE for clustered terrain
+     * @throws IllegalArgumentException if the map has more than Integer.MAX_VALUE cells
+     */
+    public CompactGameMap(int width, int height, DifficultySettings difficultySetting, long seed,
+                          TerrainMode terrainMode) {
+        super(width, height, difficultySetting, seed, terrainMode, false);
+        int cells = checkedCells(width, height);
+
+        byte[] terrainBytes = new byte[cells];
+        this.terrain = ByteBuffer.wrap(terrainBytes);
+        this.food = newBitplane(cells);
+        this.water = newBitplane(cells);
+        this.gold = newBitplane(cells);
+        this.tiles = new AtomicReferenceArray<>(chunkCount());
+
+        generateMap(terrainBytes);
+    }
+
+    /**
+     * Wraps planes that were already filled, e.g. mapped from a snapshot file.
+     * The buffers must use the layout described on this class.
+     */
+    CompactGameMap(int width, int height, DifficultySettings difficultySetting, long seed, TerrainMode terrainMode,
+                   ByteBuffer terrain, ByteBuffer food, ByteBuffer water, ByteBuffer gold,
+                   ByteBuffer traderCells, ByteBuffer traderKinds, int traderCount) {
+        super(width, height, difficultySetting, seed, terrainMode, false);
+        checkedCells(width, height);
+        this.terrain = terrain;
+        this.food = food.order(ByteOrder.LITTLE_ENDIAN);
+        this.water = water.order(ByteOrder.LITTLE_ENDIAN);
+        this.gold = gold.order(ByteOrder.LITTLE_ENDIAN);
+        this.traderCells = traderCells.order(ByteOrder.LITTLE_ENDIAN);
+        this.traderKinds = traderKinds;
+        this.traderCount = traderCount;
+        this.tiles = new AtomicReferenceArray<>(chunkCount());
+    }
+
+    private static int checkedCells(int width, int height) {
+        long cells = (long) width * height;
+        if (cells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("[CompactGameMap] Error: map has too many cells.");
+        }
+        return (int) cells;
+    }
+
+    /**
+     * Returns the size in bytes of a bitplane for the given number of cells.
+     * @param cells Number of cells
+     * @return bytes in a bitplane, a multiple of 8
+     */
+    static long bitplaneBytes(int cells) {
+        return (((long) cells + 63) >>> 6) << 3;
+    }
+
+    private static ByteBuffer newBitplane(int cells) {
+        return ByteBuffer.allocate((int) bitplaneBytes(cells)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static boolean testBit(ByteBuffer plane, int cell) {
+        return (plane.getLong((cell >>> 6) << 3) & (1L << cell)) != 0;
+    }
+
+    private static void setBit(ByteBuffer plane, int cell) {
+        int offset = (cell >>> 6) << 3;
+        plane.putLong(offset, plane.getLong(offset) | (1L << cell));
+    }
+
+    /**
+     * Fills the compact planes from the same chunk streams as GameMap, so both
+     * backends build the same map from the same seed.
+     *
+     * Chunks write their terrain bytes and the item/trader flags of each cell
+     * in parallel. Bitplane words are shared by neighbouring cells and the trader
+     * table grows as it goes, so the flags are folded into them afterwards, in cell order.
+     */
+    private void generateMap(byte[] terrainBytes) {
+        if (Log.isInfoEnabled()) {
+            Log.info("[CompactGameMap] Starting map generation with difficulty: " + difficultySetting);
+        }
+
+        long chunkSeed = random.nextLong();
+        byte[] flags = new byte[terrainBytes.length];
+        IntStream chunks = IntStream.range(0, chunkCount());
+        if (generateInParallel()) {
+            chunks = chunks.parallel();
+        }
+        chunks.forEach(chunk -> generateChunk(chunk, chunkRandom(chunkSeed, chunk), terrainBytes, flags));
+
+        int[] cells = new int[16];
+        byte[] kinds = new byte[16];
+        int count = 0;
+        for (int cell = 0; cell < flags.length; cell++) {
+            int f = (flags[cell] & 0xFF) << 4; // back to the CELL_* layout
+            if (f == 0) continue;
+            if ((f & CELL_FOOD) != 0) setBit(food, cell);
+            if ((f & CELL_WATER) != 0) setBit(water, cell);
+            if ((f & CELL_GOLD) != 0) setBit(gold, cell);
+            if ((f & CELL_TRADER) != 0) {
+                // cells arrive in ascending order, so the table stays sorted for binary search
+                if (count == cells.length) {
+                    int newLength = cells.length + (cells.length >> 1);
+                    cells = Arrays.copyOf(cells, newLength);
+                    kinds = Arrays.copyOf(kinds, newLength);
+                }
+                cells[count] = cell;
+                kinds[count] = (byte) (f >>> CELL_TRADER_KIND_SHIFT);
+                count++;
+            }
+        }
+
+        traderCells = ByteBuffer.allocate(count * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        traderCells.asIntBuffer().put(cells, 0, count);
+        traderKinds = ByteBuffer.wrap(Arrays.copyOf(kinds, count));
+        traderCount = count;
+
+        Log.info("[CompactGameMap] Map generation complete.");
+    }
+
+    /**
+     * Fills terrain and flags for the columns of one chunk.
+     */
+    private void generateChunk(int chunk, RandomGenerator random, byte[] terrainBytes, byte[] flags) {
+        int endX = Math.min(width, (chunk + 1) * CHUNK_COLUMNS);
+        int cell = chunk * CHUNK_COLUMNS * height;
+        for (int x = chunk * CHUNK_COLUMNS; x < endX; x++) {
+            for (int y = 0; y < height; y++, cell++) {
+                int packed = generateCell(random, x, y);
+                terrainBytes[cell] = (byte) (packed & CELL_TERRAIN_MASK);
+                flags[cell] = (byte) (packed >>> 4); // flag bits and trader kind
+            }
+        }
+    }
+
+    /**
+     * Returns the resource index, building it from the compact planes on first use.
+     * Squares that were already handed out are indexed with their current contents.
+     * @return the index, or null if the map is too large for one
+     */
+    @Override
+    public ResourceIndex getResourceIndex() {
+        ResourceIndex built = resourceIndex;
+        if (built != null || !ResourceIndex.canIndex(width, height)) {
+            return built;
+        }
+        synchronized (indexLock) {
+            if (resourceIndex == null) {
+                ResourceIndex index = new ResourceIndex(width, height);
+                indexBits(index, food, Resource.FOOD);
+                indexBits(index, water, Resource.WATER);
+                indexBits(index, gold, Resource.GOLD);
+                for (int i = 0; i < traderCount; i++) {
+                    int cell = traderCell(i);
+                    index.add(Resource.TRADER, cell / height, cell % height);
+                }
+                for (MapSquare square : materializedSquares()) {
+                    for (Resource resource : Resource.values()) {
+                        index.remove(resource, square.getX(), square.getY());
+                    }
+                    square.attachIndex(index);
+                }
+                resourceIndex = index;
+            }
+            return resourceIndex;
+        }
+    }
+
+    private void indexBits(ResourceIndex index, ByteBuffer plane, Resource resource) {
+        int words = plane.capacity() >>> 3;
+        for (int word = 0; word < words; word++) {
+            long bits = plane.getLong(word << 3);
+            while (bits != 0) {
+                int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+                index.add(resource, cell / height, cell % height);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private int traderCell(int i) {
+        return traderCells.getInt(i << 2);
+    }
+
+    /**
+     * Finds a cell in the sorted trader table.
+     * @return its position in the table, or -1 if the cell has no trader
+     */
+    private int findTrader(int cell) {
+        int low = 0;
+        int high = traderCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midCell = traderCell(mid);
+            if (midCell < cell) {
+                low = mid + 1;
+            } else if (midCell > cell) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the MapSquare at a specific coordinate, creating it on first access.
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @return MapSquare at (x,y) or null if out of bounds
+     */
+    @Override
+    public MapSquare getSquare(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return null;
+        }
+        int tileNumber = x / CHUNK_COLUMNS;
+        AtomicReferenceArray<MapSquare> tile = tiles.get(tileNumber);
+        if (tile == null) {
+            tile = loadTile(tileNumber);
+        }
+        int slot = (x - tileNumber * CHUNK_COLUMNS) * height + y;
+        MapSquare square = tile.get(slot);
+        if (square == null) {
+            // two threads may build the same square; only the first one is kept
+            MapSquare created = createSquare(x * height + y, x, y);
+            square = tile.compareAndExchange(slot, null, created);
+            if (square == null) {
+                square = created;
+                // attached only once the square is in its tile, so an index built
+                // meanwhile either finds it there or is seen here
+                synchronized (indexLock) {
+                    if (resourceIndex != null) {
+                        square.attachIndex(resourceIndex);
+                    }
+                }
+            }
+        }
+        return square;
+    }
+
+    /**
+     * Returns a tile, creating it with the squares kept from an earlier drop.
+     */
+    private AtomicReferenceArray<MapSquare> loadTile(int tileNumber) {
+        synchronized (tileLock) {
+            AtomicReferenceArray<MapSquare> tile = tiles.get(tileNumber);
+            if (tile == null) {
+                int startX = tileNumber * CHUNK_COLUMNS;
+                tile = new AtomicReferenceArray<>(Math.min(CHUNK_COLUMNS, width - startX) * height);
+                MapSquare[] kept = keptSquares.remove(tileNumber);
+                if (kept != null) {
+                    for (MapSquare square : kept) {
+                        tile.set((square.getX() - startX) * height + square.getY(), square);
+                    }
+                }
+                tiles.set(tileNumber, tile);
+                lowestLoadedTile = Math.min(lowestLoadedTile, tileNumber);
+            }
+            return tile;
+        }
+    }
+
+    /**
+     * Drops every tile that lies completely west of column x, with one tile of
+     * slack for players that look back. Must not run while other threads read
+     * the map; Game calls it between rounds.
+     * @param x Smallest x-coordinate of any player still on the move
+     */
+    @Override
+    public void releaseBefore(int x) {
+        int retired = Math.max(0, x / CHUNK_COLUMNS - 1);
+        synchronized (tileLock) {
+            for (int tileNumber = lowestLoadedTile; tileNumber < retired; tileNumber++) {
+                dropTile(tileNumber);
+            }
+            lowestLoadedTile = Math.max(lowestLoadedTile, retired);
+        }
+    }
+
+    /**
+     * Creates every square around the positions up front. Reading a square
+     * that already exists only takes two array reads, so parallel readers
+     * then never build squares or touch the index lock.
+     * @param xs X-coordinates of the positions
+     * @param ys Y-coordinates of the positions
+     * @param count Number of positions to use from xs and ys
+     * @param radius Distance around each position, in king moves
+     */
+    @Override
+    public void pinAround(int[] xs, int[] ys, int count, int radius) {
+        for (int i = 0; i < count; i++) {
+            int fromX = Math.max(0, xs[i] - radius);
+            int toX = (int) Math.min(width - 1L, (long) xs[i] + radius);
+            int fromY = Math.max(0, ys[i] - radius);
+            int toY = (int) Math.min(height - 1L, (long) ys[i] + radius);
+            for (int x = fromX; x <= toX; x++) {
+                for (int y = fromY; y <= toY; y++) {
+                    getSquare(x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets the squares of a tile, keeping those that cannot be built again from the planes.
+     */
+    private void dropTile(int tileNumber) {
+        AtomicReferenceArray<MapSquare> tile = tiles.get(tileNumber);
+        if (tile == null) {
+            return;
+        }
+        tiles.set(tileNumber, null);
+        List<MapSquare> kept = new ArrayList<>();
+        for (int slot = 0; slot < tile.length(); slot++) {
+            MapSquare square = tile.get(slot);
+            if (square != null && !matchesPlanes(square)) {
+                kept.add(square);
+            }
+        }
+        if (!kept.isEmpty()) {
+            keptSquares.put(tileNumber, kept.toArray(new MapSquare[0]));
+        }
+    }
+
+    /**
+     * Whether createSquare() would build this square again as it is now.
+     * A trader only matches while it has not made an offer yet.
+     */
+    private boolean matchesPlanes(MapSquare square) {
+        int cell = square.getX() * height + square.getY();
+        boolean freshTrader = square.hasTrader() && square.getTrader().getTradesRemaining() == TRADES_PER_TRADER;
+        return (findTrader(cell) >= 0 ? freshTrader : !square.hasTrader())
+            && square.hasResource(Resource.FOOD) == testBit(food, cell)
+            && square.hasResource(Resource.WATER) == testBit(water, cell)
+            && square.hasResource(Resource.GOLD) == testBit(gold, cell);
+    }
+
+    /**
+     * Collects every square created so far that is still held, in loaded tiles or kept from dropped ones.
+     */
+    private List<MapSquare> materializedSquares() {
+        List<MapSquare> squares = new ArrayList<>();
+        synchronized (tileLock) {
+            for (int tileNumber = 0; tileNumber < tiles.length(); tileNumber++) {
+                AtomicReferenceArray<MapSquare> tile = tiles.get(tileNumber);
+                if (tile == null) continue;
+                for (int slot = 0; slot < tile.length(); slot++) {
+                    MapSquare square = tile.get(slot);
+                    if (square != null) {
+                        squares.add(square);
+                    }
+                }
+            }
+            for (MapSquare[] kept : keptSquares.values()) {
+                squares.addAll(Arrays.asList(kept));
+            }
+        }
+        return squares;
+    }
+
+    /**
+     * Collects the created squares that no longer match the planes, for
+     * MapSnapshot to save the map as it is now.
+     * @return the changed squares, in no particular order
+     */
+    List<MapSquare> changedSquares() {
+        List<MapSquare> changed = new ArrayList<>();
+        for (MapSquare square : materializedSquares()) {
+            if (!matchesPlanes(square)) {
+                changed.add(square);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Builds the MapSquare for a cell from the compact planes.
+     */
+    private MapSquare createSquare(int cell, int x, int y) {
+        MapSquare square = new MapSquare(Terrain.of(TERRAIN_TYPES[terrain.get(cell)]), x, y);
+        if (testBit(food, cell)) {
+            square.addItem(new FoodBonus());
+        }
+        if (testBit(water, cell)) {
+            square.addItem(new WaterBonus());
+        }
+        if (testBit(gold, cell)) {
+            square.addItem(new GoldBonus());
+        }
+        int traderIndex = findTrader(cell);
+        if (traderIndex >= 0) {
+            square.setTrader(createTrader(TraderKind.fromOrdinal(traderKinds.get(traderIndex))));
+        }
+        return square;
+    }
+
+    /**
+     * Reads the terrain type straight from the terrain plane.
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @return TerrainType at (x,y) or null if out of bounds
+     */
+    @Override
+    public TerrainType getTerrainType(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return null;
+        }
+        return TERRAIN_TYPES[terrain.get(x * height + y)];
+    }
+
+    /**
+     * Copies the terrain plane, which already holds one ordinal per cell.
+     * @param ordinals Array of at least width * height entries to fill
+     */
+    @Override
+    protected void copyTerrain(byte[] ordinals) {
+        terrain.get(0, ordinals, 0, width * height);
+    }
+
+    /**
+     * Returns how many created squares the map holds right now, counting the
+     * changed squares kept from dropped tiles. Walks every loaded tile.
+     * @return number of materialized squares
+     */
+    public int getMaterializedCount() {
+        return materializedSquares().size();
+    }
+
+    // === Raw planes, for MapSnapshot (read-only views positioned at 0) ===
+
+    ByteBuffer terrainPlane() {
+        return terrain.asReadOnlyBuffer().position(0);
+    }
+
+    ByteBuffer bitplane(Resource resource) {
+        ByteBuffer plane = switch (resource) {
+            case FOOD -> food;
+            case WATER -> water;
+            case GOLD -> gold;
+            case TRADER -> throw new IllegalArgumentException("[CompactGameMap] Error: traders have no bitplane.");
+        };
+        return plane.asReadOnlyBuffer().position(0);
+    }
+
+    ByteBuffer traderCellTable() {
+        return traderCells.asReadOnlyBuffer().position(0);
+    }
+
+    ByteBuffer traderKindTable() {
+        return traderKinds.asReadOnlyBuffer().position(0);
+    }
+
+    int getTraderCount() {
+        return traderCount;
+    }
+}
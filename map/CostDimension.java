@@ -0,0 +1,26 @@
+package wss.map;
+
+/**
+ * The kinds of cost a route across the map can be measured in.
+ * TOTAL adds movement, food and water together.
+ */
+public enum CostDimension {
+    MOVEMENT,
+    FOOD,
+    WATER,
+    TOTAL;
+
+    /**
+     * Returns the cost of entering a square of the given terrain.
+     * @param type Terrain being entered
+     * @return cost in this dimension (always at least 1)
+     */
+    public int cost(TerrainType type) {
+        return switch (this) {
+            case MOVEMENT -> type.getMovementCost();
+            case FOOD -> type.getFoodCost();
+            case WATER -> type.getWaterCost();
+            case TOTAL -> type.getMovementCost() + type.getFoodCost() + type.getWaterCost();
+        };
+    }
+}
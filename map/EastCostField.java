@@ -0,0 +1,210 @@
+package wss.map;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import wss.player.MoveDirection;
+import wss.util.Metrics;
+
+/**
+ * Cheapest cost from every square of a map to the eastern edge, which is the
+ * goal of every player.
+ *
+ * For each CostDimension the field is one int per cell (cell = x * height + y),
+ * filled by a single reverse Dijkstra that starts from the whole eastern column.
+ * After that, the best next step from any square is a look at its eight
+ * neighbours, so brains no longer have to search the map every turn.
+ *
+ * Terrain never changes during a game, so a field stays valid for the life of
+ * its map. Each dimension is computed the first time it is asked for; the
+ * computed arrays are then shared by all players and threads.
+ *
+ * Fields are limited to MAX_CELLS cells on every backend, so whether a map
+ * has one only depends on its size. Terrain is read in bulk through
+ * GameMap.copyTerrain(), which creates no squares and loads no tiles.
+ */
+public class EastCostField {
+
+    /** Cost stored for squares that cannot reach the edge */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * Largest map that gets a field, on any backend: 64 MB per computed
+     * dimension, which even a compact map of that size can afford.
+     */
+    public static final long MAX_CELLS = 1L << 24;
+
+    private static final Metrics.Timer COMPUTE_TIMER = Metrics.timer("eastfield.compute");
+    private static final Metrics.Timer NEXT_STEP_TIMER = Metrics.timer("eastfield.nextStep");
+
+    /** Neighbour order used by nextStep(); ties go to the earlier entry, so eastward moves win */
+    private static final MoveDirection[] STEPS = {
+        MoveDirection.EAST, MoveDirection.NORTHEAST, MoveDirection.SOUTHEAST,
+        MoveDirection.NORTH, MoveDirection.SOUTH,
+        MoveDirection.NORTHWEST, MoveDirection.SOUTHWEST, MoveDirection.WEST
+    };
+
+    private final GameMap map;
+    private final int width;
+    private final int height;
+
+    /** Cost-to-goal array per CostDimension, null until first use */
+    private final AtomicReferenceArray<int[]> fields;
+
+    /**
+     * Creates the field for a map. Nothing is computed until a dimension is first used.
+     * @param map The map to measure
+     * @throws IllegalArgumentException if the map has more than MAX_CELLS cells
+     */
+    public EastCostField(GameMap map) {
+        if ((long) map.getWidth() * map.getHeight() > MAX_CELLS) {
+            throw new IllegalArgumentException("[EastCostField] Error: map is too large for a cost field.");
+        }
+        this.map = map;
+        this.width = map.getWidth();
+        this.height = map.getHeight();
+        this.fields = new AtomicReferenceArray<>(CostDimension.values().length);
+    }
+
+    /**
+     * Returns the cheapest cost from (x,y) to the eastern edge, not counting the
+     * square the player already stands on.
+     *
+     * @param dimension Which cost to measure
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @return the cost, or UNREACHABLE if (x,y) is off the map
+     */
+    public int getCostToGoal(CostDimension dimension, int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return UNREACHABLE;
+        }
+        return field(dimension)[x * height + y];
+    }
+
+    /**
+     * Returns the first move of a cheapest route from (x,y) to the eastern edge.
+     *
+     * @param dimension Which cost to minimize
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @return the move, or STAY if (x,y) is on the edge or off the map
+     */
+    public MoveDirection nextStep(CostDimension dimension, int x, int y) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0L;
+        MoveDirection step = cheapestStep(dimension, x, y);
+        if (Metrics.ENABLED) {
+            NEXT_STEP_TIMER.stop(start);
+        }
+        return step;
+    }
+
+    private MoveDirection cheapestStep(CostDimension dimension, int x, int y) {
+        if (x < 0 || x >= width - 1 || y < 0 || y >= height) {
+            return MoveDirection.STAY;
+        }
+        int[] costs = field(dimension);
+        MoveDirection best = MoveDirection.STAY;
+        long bestCost = Long.MAX_VALUE;
+        for (MoveDirection step : STEPS) {
+            int nx = x + step.getXChange();
+            int ny = y + step.getYChange();
+            if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+            int remaining = costs[nx * height + ny];
+            if (remaining == UNREACHABLE) continue;
+            long cost = (long) dimension.cost(map.getTerrainType(nx, ny)) + remaining;
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = step;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the array for a dimension, computing it on first use.
+     */
+    private int[] field(CostDimension dimension) {
+        int[] costs = fields.get(dimension.ordinal());
+        if (costs == null) {
+            synchronized (this) {
+                costs = fields.get(dimension.ordinal());
+                if (costs == null) {
+                    long start = Metrics.ENABLED ? System.nanoTime() : 0L;
+                    costs = compute(dimension);
+                    if (Metrics.ENABLED) {
+                        COMPUTE_TIMER.stop(start);
+                    }
+                    fields.set(dimension.ordinal(), costs);
+                }
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Reverse Dijkstra from the eastern column. Step costs are small positive
+     * integers, so the queue is a ring of buckets indexed by cost (Dial's
+     * algorithm) instead of a heap.
+     */
+    private int[] compute(CostDimension dimension) {
+        int[] stepCost = new int[TerrainType.values().length];
+        int maxStep = 1;
+        for (TerrainType type : TerrainType.values()) {
+            stepCost[type.ordinal()] = dimension.cost(type);
+            maxStep = Math.max(maxStep, stepCost[type.ordinal()]);
+        }
+
+        byte[] terrain = new byte[width * height];
+        map.copyTerrain(terrain);
+        int[] costs = new int[width * height];
+        Arrays.fill(costs, UNREACHABLE);
+
+        int ringSize = maxStep + 1;
+        int[][] buckets = new int[ringSize][];
+        int[] sizes = new int[ringSize];
+        for (int b = 0; b < ringSize; b++) {
+            buckets[b] = new int[Math.max(16, height)];
+        }
+
+        int pending = 0;
+        int goalColumn = (width - 1) * height;
+        for (int y = 0; y < height; y++) {
+            costs[goalColumn + y] = 0;
+            buckets[0][sizes[0]++] = goalColumn + y;
+            pending++;
+        }
+
+        for (int distance = 0; pending > 0; distance++) {
+            int b = distance % ringSize;
+            while (sizes[b] > 0) {
+                int cell = buckets[b][--sizes[b]];
+                pending--;
+                if (costs[cell] != distance) {
+                    continue; // already reached more cheaply
+                }
+
+                int cx = cell / height;
+                int cy = cell % height;
+                // every neighbour pays the cost of entering this square
+                int reached = distance + stepCost[terrain[cell]];
+                int target = reached % ringSize;
+                for (MoveDirection step : STEPS) {
+                    int nx = cx + step.getXChange();
+                    int ny = cy + step.getYChange();
+                    if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+                    int next = nx * height + ny;
+                    if (reached < costs[next]) {
+                        costs[next] = reached;
+                        if (sizes[target] == buckets[target].length) {
+                            buckets[target] = Arrays.copyOf(buckets[target], sizes[target] * 2);
+                        }
+                        buckets[target][sizes[target]++] = next;
+                        pending++;
+                    }
+                }
+            }
+        }
+        return costs;
+    }
+}
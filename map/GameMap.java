@@ -6,96 +6,323 @@ package wss.map;
  */
 
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
 
 import wss.trader.Range;
 
 import wss.game.DifficultySettings;
 import wss.item.FoodBonus;
 import wss.item.GoldBonus;
-import wss.item.Item;
+import wss.item.ItemKind;
 import wss.item.WaterBonus;
-import wss.trader.GreedyTrader;
-import wss.trader.ImpatientTrader;
-import wss.trader.RegularTrader;
 import wss.trader.Trader;
+import wss.trader.TraderKind;
+import wss.util.Log;
 
 public class GameMap {
 
+    /** Number of trades every generated trader starts with */
+    protected static final int TRADES_PER_TRADER = 3;
+
+    /** Width of a generation chunk, in columns */
+    protected static final int CHUNK_COLUMNS = 64;
+
+    /** Maps with at least this many cells generate their chunks in parallel */
+    protected static final int PARALLEL_GENERATION_CELLS = 1 << 16;
+
+    // Layout of the packed cell returned by generateCell()
+    protected static final int CELL_TERRAIN_MASK = 0xF;
+    protected static final int CELL_FOOD = 1 << 4;
+    protected static final int CELL_WATER = 1 << 5;
+    protected static final int CELL_GOLD = 1 << 6;
+    protected static final int CELL_TRADER = 1 << 7;
+    protected static final int CELL_TRADER_KIND_SHIFT = 8;
+
+    // Channels of NoiseTerrainGenerator.roll() used for the contents of a square
+    private static final int FOOD_CHANNEL = 0;
+    private static final int WATER_CHANNEL = 1;
+    private static final int GOLD_CHANNEL = 2;
+    private static final int TRADER_CHANNEL = 3;
+    private static final int TRADER_KIND_CHANNEL = 4;
+
+    /** Cached copy of TerrainType.values() */
+    private static final TerrainType[] TERRAIN_TYPES = TerrainType.values();
+
     /** Width of the map (number of squares horizontally) */
-    private int width;
+    protected int width;
 
     /** Height of the map (number of squares vertically) */
-    private int height;
+    protected int height;
 
     /** 2D array of MapSquares forming the map grid */
     private MapSquare[][] grid;
 
     /** Difficulty setting that influences map generation */
-    private DifficultySettings difficultySetting;
+    protected DifficultySettings difficultySetting;
+
+    /** Seed the map and its traders were generated from */
+    protected long seed;
+
+    /** Random stream for terrain, item and trader placement */
+    protected RandomGenerator random;
+
+    /** Random stream handed to traders for their offers */
+    protected RandomGenerator traderRandom;
+
+    /** How terrain and square contents are chosen */
+    protected TerrainMode terrainMode;
 
-    /** Random generator for randomized placement */
-    private Random random;
+    /** Noise field of a NOISE map (null in RANDOM mode) */
+    protected NoiseTerrainGenerator noiseGenerator;
+
+    /** Spatial index of items and traders, built on first use (stays null for backends that do not keep one) */
+    protected volatile ResourceIndex resourceIndex;
+
+    /** Cost-to-goal field towards the eastern edge, created on first use */
+    private volatile EastCostField eastCostField;
 
     /**
-     * Constructs a GameMap with the given dimensions and difficulty.
+     * Constructs a GameMap with the given dimensions and difficulty, from a fresh random seed.
      * @param width Width of the map
      * @param height Height of the map
      * @param difficultySetting Difficulty setting for terrain and item generation
      */
     public GameMap(int width, int height, DifficultySettings difficultySetting) {
+        this(width, height, difficultySetting, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructs a GameMap from a seed. The same seed, size and difficulty always
+     * give the same map, and the same sequence of trader offers.
+     * @param width Width of the map
+     * @param height Height of the map
+     * @param difficultySetting Difficulty setting for terrain and item generation
+     * @param seed Seed for map generation and traders
+     */
+    public GameMap(int width, int height, DifficultySettings difficultySetting, long seed) {
+        this(width, height, difficultySetting, seed, TerrainMode.RANDOM);
+    }
+
+    /**
+     * Constructs a GameMap from a seed with the given terrain mode.
+     * @param width Width of the map
+     * @param height Height of the map
+     * @param difficultySetting Difficulty setting for terrain and item generation
+     * @param seed Seed for map generation and traders
+     * @param terrainMode RANDOM for independent squares, NOISE for clustered terrain
+     */
+    public GameMap(int width, int height, DifficultySettings difficultySetting, long seed, TerrainMode terrainMode) {
+        this(width, height, difficultySetting, seed, terrainMode, true);
+    }
+
+    /**
+     * Sets up the shared map properties and derives the random streams from the seed.
+     * Map generation and traders each get their own SplittableRandom stream, so
+     * trading during a game never shifts what the map looks like.
+     *
+     * @param width Width of the map
+     * @param height Height of the map
+     * @param difficultySetting Difficulty setting for terrain and item generation
+     * @param seed Seed for map generation and traders
+     * @param terrainMode RANDOM for independent squares, NOISE for clustered terrain
+     * @param allocateGrid true to build and generate the MapSquare grid; false for
+     *                     backends that store squares differently
+     * @throws IllegalArgumentException if terrainMode is null
+     */
+    protected GameMap(int width, int height, DifficultySettings difficultySetting, long seed,
+                      TerrainMode terrainMode, boolean allocateGrid) {
+        if (terrainMode == null) {
+            throw new IllegalArgumentException("[GameMap] Error: terrain mode is required.");
+        }
         this.width = width;
         this.height = height;
         this.difficultySetting = difficultySetting;
-        this.grid = new MapSquare[width][height];
-        this.random = new Random();
+        this.seed = seed;
+        this.terrainMode = terrainMode;
+
+        SplittableRandom root = new SplittableRandom(seed);
+        this.random = root.split();
+        this.traderRandom = root.split();
+        if (terrainMode == TerrainMode.NOISE) {
+            this.noiseGenerator = new NoiseTerrainGenerator(root.split().nextLong(), difficultySetting);
+        }
 
-        generateMap();
+        if (allocateGrid) {
+            this.grid = new MapSquare[width][height];
+            generateMap();
+        }
     }
 
     /**
      * Generates the map with terrain, bonuses, and traders based on difficulty.
+     *
+     * The map is cut into chunks of CHUNK_COLUMNS columns, and every chunk draws
+     * from its own random stream derived from the seed. Large maps generate their
+     * chunks in parallel; the result only depends on the seed, never on the
+     * number of threads.
      */
     private void generateMap() {
-        System.out.println("[GameMap] Starting map generation with difficulty: " + difficultySetting);
+        if (Log.isInfoEnabled()) {
+            Log.info("[GameMap] Starting map generation with difficulty: " + difficultySetting);
+        }
 
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                // Select terrain based on difficulty
-                Terrain terrain = new Terrain(TerrainType.chooseRandomTerrain(difficultySetting, random));
-                MapSquare square = new MapSquare(terrain, x, y);
-                // Randomly populate square with items and trader
-                if (random.nextDouble() < difficultySetting.getFoodBonusChance()) {
-                    square.addItem(new FoodBonus());
-                }
-                if (random.nextDouble() < difficultySetting.getWaterBonusChance()) {
-                    square.addItem(new WaterBonus());
-                }
-                if (random.nextDouble() < difficultySetting.getGoldBonusChance()) {
-                    square.addItem(new GoldBonus());
-                }
-                if (random.nextDouble() < difficultySetting.getTraderChance()) {
-                    int type = random.nextInt(3);
-                    Range food = difficultySetting.getFoodTradeRange();
-                    Range water = difficultySetting.getWaterTradeRange();
-                    Range gold = difficultySetting.getGoldTradeRange();
-                    int trades = 3;
-
-                    Trader trader = switch (type) {
-                        case 0 -> new RegularTrader(trades, food, water, gold);
-                        case 1 -> new ImpatientTrader(trades, food, water, gold);
-                        case 2 -> new GreedyTrader(trades, food, water, gold);
-                        default -> new RegularTrader(trades, food, water, gold);
-                    };
-
-                    square.setTrader(trader);
-                }
+        long chunkSeed = random.nextLong();
+        IntStream chunks = IntStream.range(0, chunkCount());
+        if (generateInParallel()) {
+            chunks = chunks.parallel();
+        }
+        chunks.forEach(chunk -> generateChunk(chunk, chunkRandom(chunkSeed, chunk)));
 
-                grid[x][y] = square;
+        Log.info("[GameMap] Map generation complete.");
+    }
+
+    /**
+     * Fills the columns of one chunk.
+     */
+    private void generateChunk(int chunk, RandomGenerator random) {
+        int endX = Math.min(width, (chunk + 1) * CHUNK_COLUMNS);
+        for (int x = chunk * CHUNK_COLUMNS; x < endX; x++) {
+            for (int y = 0; y < height; y++) {
+                grid[x][y] = squareFromCell(generateCell(random, x, y), x, y);
             }
         }
+    }
+
+    /**
+     * Builds the MapSquare described by a packed cell from generateCell().
+     * @param cell Packed cell
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @return a new square with its bonuses and trader
+     */
+    protected MapSquare squareFromCell(int cell, int x, int y) {
+        MapSquare square = new MapSquare(Terrain.of(TERRAIN_TYPES[cell & CELL_TERRAIN_MASK]), x, y);
+        if ((cell & CELL_FOOD) != 0) {
+            square.addItem(new FoodBonus());
+        }
+        if ((cell & CELL_WATER) != 0) {
+            square.addItem(new WaterBonus());
+        }
+        if ((cell & CELL_GOLD) != 0) {
+            square.addItem(new GoldBonus());
+        }
+        if ((cell & CELL_TRADER) != 0) {
+            square.setTrader(createTrader(TraderKind.fromOrdinal(cell >>> CELL_TRADER_KIND_SHIFT)));
+        }
+        return square;
+    }
+
+    /**
+     * Decides what one square starts with: its terrain, bonuses and trader.
+     *
+     * In RANDOM mode everything is drawn from the chunk's random stream, so
+     * squares must be generated in column order within a chunk. In NOISE mode
+     * the result only depends on the seed and (x,y), and random is not used,
+     * so any square can be generated on its own.
+     *
+     * @param random Random stream of the chunk holding the square
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @return the square packed as TerrainType ordinal | CELL_* flags | TraderKind ordinal << CELL_TRADER_KIND_SHIFT
+     */
+    protected int generateCell(RandomGenerator random, int x, int y) {
+        if (noiseGenerator != null) {
+            return generateNoiseCell(x, y);
+        }
+        int cell = TerrainType.chooseRandomTerrain(difficultySetting, random).ordinal();
+        if (random.nextDouble() < difficultySetting.getFoodBonusChance()) {
+            cell |= CELL_FOOD;
+        }
+        if (random.nextDouble() < difficultySetting.getWaterBonusChance()) {
+            cell |= CELL_WATER;
+        }
+        if (random.nextDouble() < difficultySetting.getGoldBonusChance()) {
+            cell |= CELL_GOLD;
+        }
+        if (random.nextDouble() < difficultySetting.getTraderChance()) {
+            cell |= CELL_TRADER | (random.nextInt(TraderKind.count()) << CELL_TRADER_KIND_SHIFT);
+        }
+        return cell;
+    }
+
+    /**
+     * NOISE version of generateCell(): terrain from the noise field, contents
+     * from independent per-square rolls with the same chances as RANDOM mode.
+     */
+    private int generateNoiseCell(int x, int y) {
+        NoiseTerrainGenerator noise = noiseGenerator;
+        int cell = noise.terrainAt(x, y).ordinal();
+        if (noise.roll(x, y, FOOD_CHANNEL) < difficultySetting.getFoodBonusChance()) {
+            cell |= CELL_FOOD;
+        }
+        if (noise.roll(x, y, WATER_CHANNEL) < difficultySetting.getWaterBonusChance()) {
+            cell |= CELL_WATER;
+        }
+        if (noise.roll(x, y, GOLD_CHANNEL) < difficultySetting.getGoldBonusChance()) {
+            cell |= CELL_GOLD;
+        }
+        if (noise.roll(x, y, TRADER_CHANNEL) < difficultySetting.getTraderChance()) {
+            int kind = (int) (noise.roll(x, y, TRADER_KIND_CHANNEL) * TraderKind.count());
+            cell |= CELL_TRADER | (kind << CELL_TRADER_KIND_SHIFT);
+        }
+        return cell;
+    }
 
-        System.out.println("[GameMap] Map generation complete.");
+    /**
+     * Returns the number of generation chunks of this map.
+     * @return number of CHUNK_COLUMNS-wide column chunks
+     */
+    protected int chunkCount() {
+        return (width + CHUNK_COLUMNS - 1) / CHUNK_COLUMNS;
+    }
+
+    /**
+     * Whether this map is big enough for parallel generation to pay off.
+     * Small maps stay on one thread, which also keeps their log output in order.
+     * @return true to generate the chunks in parallel
+     */
+    protected boolean generateInParallel() {
+        return (long) width * height >= PARALLEL_GENERATION_CELLS;
+    }
+
+    /**
+     * Returns the random stream of one generation chunk.
+     * Streams of different chunks are independent of each other and of the order they run in.
+     *
+     * @param chunkSeed Seed shared by all chunks of the map
+     * @param chunk Chunk number
+     * @return a new random stream for the chunk
+     */
+    protected static RandomGenerator chunkRandom(long chunkSeed, int chunk) {
+        return new SplittableRandom(mix(chunkSeed + chunk * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Scrambles a 64-bit value (the MurmurHash3 finalizer), so that nearby inputs
+     * give unrelated seeds.
+     *
+     * @param z Value to scramble
+     * @return scrambled value
+     */
+    protected static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Creates a trader of the given kind using this map's difficulty and trader stream.
+     * @param kind Kind of trader to create
+     * @return a new trader
+     */
+    protected Trader createTrader(TraderKind kind) {
+        Range food = difficultySetting.getFoodTradeRange();
+        Range water = difficultySetting.getWaterTradeRange();
+        Range gold = difficultySetting.getGoldTradeRange();
+        return kind.create(TRADES_PER_TRADER, food, water, gold, traderRandom);
     }
 
     public void printMap() {
@@ -105,7 +332,7 @@ public class GameMap {
         
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                MapSquare square = grid[x][y];
+                MapSquare square = getSquare(x, y);
 
                 // Terrain code (2-letter abbreviation)
                 String terrainCode = switch (square.getTerrain().getTerrainType()) {
@@ -118,11 +345,9 @@ public class GameMap {
 
                 // Bonus codes (max 1 shown)
                 String bonusCode = "-";
-                for (Item item : square.getItems()) {
-                    if (item.getName().contains("Food")) { bonusCode = "F"; break; }
-                    if (item.getName().contains("Water")) { bonusCode = "W"; break; }
-                    if (item.getName().contains("Gold")) { bonusCode = "G"; break; }
-                }
+                if (square.hasItemKind(ItemKind.FOOD)) bonusCode = "F";
+                else if (square.hasItemKind(ItemKind.WATER)) bonusCode = "W";
+                else if (square.hasItemKind(ItemKind.GOLD)) bonusCode = "G";
 
                 // Trader code (2-letter)
                 String traderCode = "--";
@@ -160,6 +385,174 @@ public class GameMap {
         return null;  // Silently return null for invalid coordinates
     }
 
+    /**
+     * Finds the closest square holding a resource, measured in king moves.
+     * Uses the resource index, so the cost does not grow with the radius squared.
+     *
+     * @param resource Resource to look for
+     * @param x X-coordinate of the start
+     * @param y Y-coordinate of the start
+     * @param radius Largest distance to consider
+     * @return the closest matching square, or null if none is within the radius
+     */
+    public MapSquare findNearest(Resource resource, int x, int y, int radius) {
+        return findNearest(resource, x, y, 0, radius);
+    }
+
+    /**
+     * Finds the closest square holding a resource at least minDistance king
+     * moves away, e.g. 1 to leave out the start itself. Visions use it to
+     * skip the rings of their view that hold nothing.
+     *
+     * @param resource Resource to look for
+     * @param x X-coordinate of the start
+     * @param y Y-coordinate of the start
+     * @param minDistance Smallest distance to consider
+     * @param radius Largest distance to consider
+     * @return the closest matching square, or null if none is within the range
+     */
+    public MapSquare findNearest(Resource resource, int x, int y, int minDistance, int radius) {
+        ResourceIndex index = getResourceIndex();
+        if (index == null) {
+            return scanNearest(resource, x, y, minDistance, radius);
+        }
+        int cell = index.findNearest(resource, x, y, minDistance, radius);
+        return cell < 0 ? null : getSquare(cell / height, cell % height);
+    }
+
+    /**
+     * Fallback for maps without an index: checks squares ring by ring.
+     * Package-private so tests can hold the index against it.
+     */
+    MapSquare scanNearest(Resource resource, int x, int y, int minDistance, int radius) {
+        for (int distance = minDistance; distance <= radius; distance++) {
+            for (int dy = -distance; dy <= distance; dy++) {
+                int step = (dy == -distance || dy == distance) ? 1 : 2 * distance;
+                for (int dx = -distance; dx <= distance; dx += step) {
+                    MapSquare square = getSquare(x + dx, y + dy);
+                    if (square != null && square.hasResource(resource)) {
+                        return square;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the spatial index of items and traders, building it on first use.
+     * Maps that never ask for it pay nothing for it.
+     * @return the index, or null if this map does not keep one or is too large for one
+     */
+    public ResourceIndex getResourceIndex() {
+        ResourceIndex index = resourceIndex;
+        if (index == null && grid != null && ResourceIndex.canIndex(width, height)) {
+            synchronized (this) {
+                index = resourceIndex;
+                if (index == null) {
+                    index = new ResourceIndex(width, height);
+                    for (int x = 0; x < width; x++) {
+                        for (int y = 0; y < height; y++) {
+                            grid[x][y].attachIndex(index);
+                        }
+                    }
+                    resourceIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the cheapest-cost field from every square to the eastern edge.
+     * The field is shared by all players on this map; each cost dimension is
+     * computed once, the first time it is used.
+     * @return the cost field for this map, or null if it has more than EastCostField.MAX_CELLS cells
+     */
+    public EastCostField getEastCostField() {
+        if ((long) width * height > EastCostField.MAX_CELLS) {
+            return null;
+        }
+        EastCostField field = eastCostField;
+        if (field == null) {
+            synchronized (this) {
+                field = eastCostField;
+                if (field == null) {
+                    field = new EastCostField(this);
+                    eastCostField = field;
+                }
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Copies the TerrainType ordinal of every square into an array, indexed by
+     * x * height + y. Terrain never changes after generation, so backends that
+     * create squares on demand override this to read it without doing so.
+     * @param ordinals Array of at least width * height entries to fill
+     */
+    protected void copyTerrain(byte[] ordinals) {
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                ordinals[x * height + y] = (byte) grid[x][y].getTerrain().getTerrainType().ordinal();
+            }
+        }
+    }
+
+    /**
+     * Tells the map that no active player stands west of column x any more.
+     * Maps that keep every square ignore this; paged maps may drop what lies behind.
+     * @param x Smallest x-coordinate of any player still on the move
+     */
+    public void releaseBefore(int x) {
+        // every square stays in memory
+    }
+
+    /**
+     * Prepares the squares around some positions so that several threads can
+     * read them at once without taking a lock, as players do while they decide
+     * their moves in parallel. Until the next call, getSquare() and
+     * getTerrainType() inside those areas take no lock; squares elsewhere can
+     * still be read, just not lock-free. Maps that keep every square have
+     * nothing to prepare.
+     * @param xs X-coordinates of the positions
+     * @param ys Y-coordinates of the positions
+     * @param count Number of positions to use from xs and ys
+     * @param radius Distance around each position, in king moves
+     */
+    public void pinAround(int[] xs, int[] ys, int count, int radius) {
+        // the grid is complete and never changes
+    }
+
+    /**
+     * Returns the terrain type at a coordinate without any other side effects.
+     * Backends that create squares on demand override this to skip that step.
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @return TerrainType at (x,y) or null if out of bounds
+     */
+    public TerrainType getTerrainType(int x, int y) {
+        MapSquare square = getSquare(x, y);
+        return square != null ? square.getTerrain().getTerrainType() : null;
+    }
+
+    /**
+     * Returns how this map chose its terrain.
+     * @return the terrain mode
+     */
+    public TerrainMode getTerrainMode() {
+        return terrainMode;
+    }
+
+    /**
+     * Returns the seed this map was generated from.
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
     /**
      * Returns the width of the map.
      * @return Width of the map
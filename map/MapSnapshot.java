@@ -0,0 +1,451 @@
+package wss.map;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+
+import wss.game.DifficultySettings;
+import wss.trader.TraderKind;
+import wss.util.Log;
+
+/**
+ * Binary file format for a generated map, so the same large map can be shared
+ * between runs without generating it again.
+ *
+ * Layout (little-endian, every section starts on an 8-byte boundary):
+ * - header, HEADER_BYTES long: magic, version, width, height, difficulty
+ *   ordinal, terrain mode ordinal, seed, trader count
+ * - terrain: one TerrainType ordinal byte per cell (cell = x * height + y)
+ * - food, water and gold bitplanes: one bit per cell, in 64-bit words
+ * - trader cells: one int per trader, in ascending cell order
+ * - trader kinds: one TraderKind ordinal byte per trader
+ *
+ * This is exactly the storage of CompactGameMap. load() maps every section
+ * with FileChannel.map; the operating system pages data in as the game reads
+ * it, and games that load the same file share those pages. load() reads the
+ * terrain once to check every byte, and checks the trader tables and the
+ * unused bits at the end of each bitplane, so a damaged file is rejected
+ * before the game reads past the map.
+ *
+ * A snapshot records the map as it is when save() runs, the same way on
+ * every backend: the terrain, which squares hold food, water and gold, and
+ * which hold a trader of which kind. Collected bonuses stay collected and
+ * removed traders stay gone. Bonus amounts and how many trades a trader has
+ * left are not stored, so every trader of a loaded map starts fresh. The
+ * seed is stored as well, so traders of a loaded map make the same offers
+ * as on a freshly generated map.
+ *
+ * An instance of this class holds the header of a snapshot file.
+ */
+public final class MapSnapshot {
+
+    /** "WSSM" */
+    public static final int MAGIC = 0x4D535357;
+
+    /** Format version written by save() */
+    public static final int VERSION = 1;
+
+    /** Size of the header in bytes */
+    public static final int HEADER_BYTES = 64;
+
+    private static final DifficultySettings[] DIFFICULTIES = DifficultySettings.values();
+    private static final TerrainMode[] TERRAIN_MODES = TerrainMode.values();
+    private static final TerrainType[] TERRAIN_TYPES = TerrainType.values();
+
+    /** Bytes written per call while copying a section */
+    private static final int COPY_CHUNK = 1 << 20;
+
+    private final int width;
+    private final int height;
+    private final DifficultySettings difficulty;
+    private final TerrainMode terrainMode;
+    private final long seed;
+    private final int traderCount;
+
+    private MapSnapshot(int width, int height, DifficultySettings difficulty, TerrainMode terrainMode,
+                        long seed, int traderCount) {
+        this.width = width;
+        this.height = height;
+        this.difficulty = difficulty;
+        this.terrainMode = terrainMode;
+        this.seed = seed;
+        this.traderCount = traderCount;
+    }
+
+    /**
+     * Writes a map as it is now to a snapshot file, replacing the file if it exists.
+     * A CompactGameMap writes its planes with the squares changed since
+     * generation applied; other maps are read square by square.
+     *
+     * @param map The map to save
+     * @param file Target file
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the map has more than Integer.MAX_VALUE cells
+     */
+    public static void save(GameMap map, Path file) throws IOException {
+        CompactGameMap compact = map instanceof CompactGameMap c ? withChanges(c) : toPlanes(map);
+        MapSnapshot header = new MapSnapshot(compact.getWidth(), compact.getHeight(), compact.difficultySetting,
+            compact.getTerrainMode(), compact.getSeed(), compact.getTraderCount());
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, header.toBytes());
+            writeSection(channel, compact.terrainPlane());
+            writeSection(channel, compact.bitplane(Resource.FOOD));
+            writeSection(channel, compact.bitplane(Resource.WATER));
+            writeSection(channel, compact.bitplane(Resource.GOLD));
+            writeSection(channel, compact.traderCellTable());
+            writeSection(channel, compact.traderKindTable());
+        }
+        if (Log.isInfoEnabled()) {
+            Log.info("[MapSnapshot] Saved " + header.width + "x" + header.height + " map to " + file);
+        }
+    }
+
+    /**
+     * Opens a snapshot file as a CompactGameMap whose planes are memory-mapped from the file.
+     *
+     * @param file Snapshot file
+     * @return the map
+     * @throws IOException if the file cannot be read, is not a valid snapshot,
+     *         holds an unknown terrain, sets bits past the last cell, or its
+     *         trader tables are out of order or name unknown kinds
+     */
+    public static CompactGameMap load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MapSnapshot header = readHeader(channel);
+            int cells = header.width * header.height;
+            long planeBytes = CompactGameMap.bitplaneBytes(cells);
+
+            long offset = HEADER_BYTES;
+            ByteBuffer terrain = map(channel, offset, cells);
+            offset += align(cells);
+            ByteBuffer food = map(channel, offset, planeBytes);
+            offset += planeBytes;
+            ByteBuffer water = map(channel, offset, planeBytes);
+            offset += planeBytes;
+            ByteBuffer gold = map(channel, offset, planeBytes);
+            offset += planeBytes;
+            ByteBuffer traderCells = map(channel, offset, (long) header.traderCount * Integer.BYTES);
+            offset += align((long) header.traderCount * Integer.BYTES);
+            ByteBuffer traderKinds = map(channel, offset, header.traderCount);
+            checkTerrain(terrain, cells);
+            checkPadding(food, Resource.FOOD, cells);
+            checkPadding(water, Resource.WATER, cells);
+            checkPadding(gold, Resource.GOLD, cells);
+            checkTraders(traderCells, traderKinds, header.traderCount, cells);
+
+            // mappings stay valid after the channel is closed
+            return new CompactGameMap(header.width, header.height, header.difficulty, header.seed,
+                header.terrainMode, terrain, food, water, gold, traderCells, traderKinds, header.traderCount);
+        }
+    }
+
+    /**
+     * Reads only the header of a snapshot file.
+     *
+     * @param file Snapshot file
+     * @return the header
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static MapSnapshot readHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readHeader(channel);
+        }
+    }
+
+    private static MapSnapshot readHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new IOException("[MapSnapshot] Error: file is too short for a header.");
+            }
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("[MapSnapshot] Error: not a map snapshot.");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("[MapSnapshot] Error: unsupported version " + version + ".");
+        }
+        int width = buffer.getInt(8);
+        int height = buffer.getInt(12);
+        int difficulty = buffer.getInt(16);
+        int terrainMode = buffer.getInt(20);
+        long seed = buffer.getLong(24);
+        int traderCount = buffer.getInt(32);
+
+        long cells = (long) width * height;
+        if (width <= 0 || height <= 0 || cells > Integer.MAX_VALUE
+                || difficulty < 0 || difficulty >= DIFFICULTIES.length
+                || terrainMode < 0 || terrainMode >= TERRAIN_MODES.length
+                || traderCount < 0 || traderCount > cells) {
+            throw new IOException("[MapSnapshot] Error: corrupt header.");
+        }
+        MapSnapshot header = new MapSnapshot(width, height, DIFFICULTIES[difficulty], TERRAIN_MODES[terrainMode],
+            seed, traderCount);
+        if (channel.size() < header.fileSize()) {
+            throw new IOException("[MapSnapshot] Error: file is truncated.");
+        }
+        return header;
+    }
+
+    /**
+     * Checks that every terrain byte names a TerrainType, reading the plane in chunks.
+     */
+    private static void checkTerrain(ByteBuffer terrain, int cells) throws IOException {
+        byte[] chunk = new byte[(int) Math.min(cells, COPY_CHUNK)];
+        for (int start = 0; start < cells; start += chunk.length) {
+            int length = Math.min(chunk.length, cells - start);
+            terrain.get(start, chunk, 0, length);
+            for (int i = 0; i < length; i++) {
+                if (chunk[i] < 0 || chunk[i] >= TERRAIN_TYPES.length) {
+                    throw new IOException("[MapSnapshot] Error: cell " + (start + i) + " has unknown terrain "
+                        + chunk[i] + ".");
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that a bitplane sets no bit past the last cell. Every other bit
+     * pattern is a valid plane.
+     */
+    private static void checkPadding(ByteBuffer plane, Resource resource, int cells) throws IOException {
+        int used = cells & 63;
+        if (used == 0) {
+            return;
+        }
+        long last = plane.getLong(plane.capacity() - Long.BYTES);
+        if ((last >>> used) != 0) {
+            throw new IOException("[MapSnapshot] Error: " + resource + " plane has bits past the last cell.");
+        }
+    }
+
+    /**
+     * Checks the trader tables, which CompactGameMap binary-searches and
+     * indexes by kind. The tables are small, so this reads them completely;
+     * the planes are left to be paged in as the game reads them.
+     */
+    private static void checkTraders(ByteBuffer traderCells, ByteBuffer traderKinds, int traderCount, int cells)
+            throws IOException {
+        int previous = -1;
+        for (int i = 0; i < traderCount; i++) {
+            int cell = traderCells.getInt(i << 2);
+            if (cell <= previous || cell >= cells) {
+                throw new IOException("[MapSnapshot] Error: trader " + i + " has cell " + cell
+                    + ", expected ascending cells below " + cells + ".");
+            }
+            previous = cell;
+            int kind = traderKinds.get(i);
+            if (kind < 0 || kind >= TraderKind.count()) {
+                throw new IOException("[MapSnapshot] Error: trader " + i + " has unknown kind " + kind + ".");
+            }
+        }
+    }
+
+    /**
+     * Returns the planes of a compact map with its changed squares applied,
+     * or the map itself if no square has changed since generation.
+     */
+    private static CompactGameMap withChanges(CompactGameMap map) {
+        List<MapSquare> changed = map.changedSquares();
+        if (changed.isEmpty()) {
+            return map;
+        }
+        int height = map.getHeight();
+        changed.sort(Comparator.comparingInt(square -> square.getX() * height + square.getY()));
+
+        ByteBuffer food = copyOf(map.bitplane(Resource.FOOD));
+        ByteBuffer water = copyOf(map.bitplane(Resource.WATER));
+        ByteBuffer gold = copyOf(map.bitplane(Resource.GOLD));
+        for (MapSquare square : changed) {
+            int cell = square.getX() * height + square.getY();
+            putBit(food, cell, square.hasResource(Resource.FOOD));
+            putBit(water, cell, square.hasResource(Resource.WATER));
+            putBit(gold, cell, square.hasResource(Resource.GOLD));
+        }
+
+        // merge the sorted trader table with the sorted changed squares
+        ByteBuffer oldCells = map.traderCellTable().order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer oldKinds = map.traderKindTable();
+        int oldCount = map.getTraderCount();
+        int capacity = oldCount + changed.size();
+        ByteBuffer traderCells = ByteBuffer.allocate(capacity << 2).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer traderKinds = ByteBuffer.allocate(capacity);
+        int traderCount = 0;
+        int i = 0;
+        int j = 0;
+        while (i < oldCount || j < changed.size()) {
+            long oldCell = i < oldCount ? oldCells.getInt(i << 2) : Long.MAX_VALUE;
+            MapSquare square = j < changed.size() ? changed.get(j) : null;
+            long changedCell = square != null ? (long) square.getX() * height + square.getY() : Long.MAX_VALUE;
+            if (oldCell < changedCell) {
+                traderCells.putInt(traderCount << 2, (int) oldCell);
+                traderKinds.put(traderCount++, oldKinds.get(i++));
+                continue;
+            }
+            if (square.hasTrader()) {
+                traderCells.putInt(traderCount << 2, (int) changedCell);
+                traderKinds.put(traderCount++, (byte) TraderKind.of(square.getTrader()).ordinal());
+            }
+            if (oldCell == changedCell) {
+                i++;
+            }
+            j++;
+        }
+
+        return new CompactGameMap(map.getWidth(), height, map.difficultySetting, map.getSeed(),
+            map.getTerrainMode(), map.terrainPlane(), food, water, gold,
+            traderCells.limit(traderCount << 2), traderKinds.limit(traderCount), traderCount);
+    }
+
+    /**
+     * Copies any map into compact planes, square by square.
+     */
+    private static CompactGameMap toPlanes(GameMap map) {
+        int width = map.getWidth();
+        int height = map.getHeight();
+        long cellCount = (long) width * height;
+        if (cellCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("[MapSnapshot] Error: map has too many cells.");
+        }
+        int cells = (int) cellCount;
+        ByteBuffer terrain = ByteBuffer.allocate(cells);
+        ByteBuffer food = ByteBuffer.allocate((int) CompactGameMap.bitplaneBytes(cells)).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer water = ByteBuffer.allocate(food.capacity()).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer gold = ByteBuffer.allocate(food.capacity()).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer traderCells = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer traderKinds = ByteBuffer.allocate(16);
+        int traderCount = 0;
+
+        int cell = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++, cell++) {
+                MapSquare square = map.getSquare(x, y);
+                terrain.put(cell, (byte) square.getTerrain().getTerrainType().ordinal());
+                if (square.hasResource(Resource.FOOD)) setBit(food, cell);
+                if (square.hasResource(Resource.WATER)) setBit(water, cell);
+                if (square.hasResource(Resource.GOLD)) setBit(gold, cell);
+                if (square.hasTrader()) {
+                    if (traderKinds.capacity() == traderCount) {
+                        traderCells = grow(traderCells, traderCells.capacity() * 2);
+                        traderKinds = grow(traderKinds, traderKinds.capacity() * 2);
+                    }
+                    traderCells.putInt(traderCount << 2, cell);
+                    traderKinds.put(traderCount, (byte) TraderKind.of(square.getTrader()).ordinal());
+                    traderCount++;
+                }
+            }
+        }
+
+        return new CompactGameMap(width, height, map.difficultySetting, map.getSeed(), map.getTerrainMode(),
+            terrain, food, water, gold,
+            traderCells.limit(traderCount << 2), traderKinds.limit(traderCount), traderCount);
+    }
+
+    private static void setBit(ByteBuffer plane, int cell) {
+        int offset = (cell >>> 6) << 3;
+        plane.putLong(offset, plane.getLong(offset) | (1L << cell));
+    }
+
+    private static void putBit(ByteBuffer plane, int cell, boolean value) {
+        int offset = (cell >>> 6) << 3;
+        long word = plane.getLong(offset);
+        plane.putLong(offset, value ? word | (1L << cell) : word & ~(1L << cell));
+    }
+
+    private static ByteBuffer copyOf(ByteBuffer plane) {
+        ByteBuffer copy = ByteBuffer.allocate(plane.remaining()).order(ByteOrder.LITTLE_ENDIAN);
+        copy.put(plane.duplicate());
+        return copy.clear();
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        ByteBuffer bigger = ByteBuffer.allocate(capacity).order(buffer.order());
+        bigger.put(buffer.duplicate().clear());
+        return bigger.clear();
+    }
+
+    private static ByteBuffer map(FileChannel channel, long offset, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Writes a section and pads it to the next 8-byte boundary */
+    private static void writeSection(FileChannel channel, ByteBuffer section) throws IOException {
+        long length = section.remaining();
+        while (section.hasRemaining()) {
+            int end = (int) Math.min(section.limit(), (long) section.position() + COPY_CHUNK);
+            writeFully(channel, section.duplicate().limit(end));
+            section.position(end);
+        }
+        int padding = (int) (align(length) - length);
+        if (padding > 0) {
+            writeFully(channel, ByteBuffer.allocate(padding));
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static long align(long length) {
+        return (length + 7) & ~7L;
+    }
+
+    private ByteBuffer toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, width);
+        buffer.putInt(12, height);
+        buffer.putInt(16, difficulty.ordinal());
+        buffer.putInt(20, terrainMode.ordinal());
+        buffer.putLong(24, seed);
+        buffer.putInt(32, traderCount);
+        return buffer;
+    }
+
+    /**
+     * @return total size in bytes of a snapshot with this header
+     */
+    public long fileSize() {
+        int cells = width * height;
+        long planeBytes = CompactGameMap.bitplaneBytes(cells);
+        return HEADER_BYTES + align(cells) + 3 * planeBytes
+            + align((long) traderCount * Integer.BYTES) + align(traderCount);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public DifficultySettings getDifficulty() {
+        return difficulty;
+    }
+
+    public TerrainMode getTerrainMode() {
+        return terrainMode;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTraderCount() {
+        return traderCount;
+    }
+}
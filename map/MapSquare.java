@@ -9,10 +9,13 @@ package wss.map;
  */
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import wss.item.Item;
+import wss.item.ItemKind;
 import wss.trader.Trader;
+import wss.util.Log;
 
 public class MapSquare {
     // === Attributes ===
@@ -22,12 +25,25 @@ public class MapSquare {
     /** The type of terrain in this square (e.g., Plains, Mountain, etc.) */
     private Terrain terrain;
 
-    /** The list of items present in this square (can be empty). */
+    /**
+     * The list of items present in this square (can be empty).
+     * Most squares never hold an item, so the list is only allocated by the
+     * first addItem(); until then it is the shared immutable empty list.
+     */
     private List<Item> items;
 
+    /** Read-only view of items handed out by getItems() */
+    private List<Item> itemsView;
+
+    /** Bitmask of the ItemKinds present in items (see ItemKind.mask()) */
+    private int itemKinds;
+
     /** A trader in this square (only one trader allowed at a time, can be null). */
     private Trader trader;
 
+    /** Index of the owning map, kept in sync on every change (null if not indexed). */
+    private ResourceIndex resourceIndex;
+
 
     // === Constructor ===
 
@@ -39,11 +55,14 @@ public class MapSquare {
      */
     public MapSquare(Terrain terrain, int x, int y) {
         this.terrain = terrain;
-        this.items = new ArrayList<>(); // We use an ArrayList to store items because it's fast and easy to manage.
+        this.items = Collections.emptyList(); // replaced by an ArrayList on the first addItem()
+        this.itemsView = items;
         this.trader = null; // No trader initially
         this.x = x;
         this.y = y;
-        System.out.println("[MapSquare] New square created at (" + x + "," + y + ") with terrain: " + terrain.getTerrainType());
+        if (Log.isDebugEnabled()) {
+            Log.debug("[MapSquare] New square created at (" + x + "," + y + ") with terrain: " + terrain.getTerrainType());
+        }
     }
 
 
@@ -64,24 +83,122 @@ public class MapSquare {
      * @param item The item to add
      */
     public void addItem(Item item) {
+        if (items.isEmpty()) {
+            items = new ArrayList<>(2); // a square holds at most a few bonuses
+            itemsView = Collections.unmodifiableList(items);
+        }
         items.add(item);
-        System.out.println("[MapSquare] Item added: " + item.getName());
+        itemKinds |= item.getKind().mask();
+        if (resourceIndex != null) {
+            resourceIndex.add(Resource.of(item.getKind()), x, y);
+        }
+        if (Log.isDebugEnabled()) {
+            Log.debug("[MapSquare] Item added: " + item.getName());
+        }
     }
 
 
     /**
     * Checks if this square contains an item with the given name.
+    * Prefer hasItemKind(), which is a single bit test.
     *
     * @param itemName The name of the item to look for (e.g., "Gold Bonus")
     * @return true if an item with that name exists in the square
     */
     public boolean hasItemOfType(String itemName) {
-        for (Item item : items) {
-            if (item.getName().equals(itemName)) {
-                return true;
-            }
+        ItemKind kind = ItemKind.fromItemName(itemName);
+        return kind != null && hasItemKind(kind);
+    }
+
+    /**
+     * Checks if this square contains an item of the given kind.
+     *
+     * @param kind The kind of item to look for
+     * @return true if at least one item of that kind is present
+     */
+    public boolean hasItemKind(ItemKind kind) {
+        return (itemKinds & kind.mask()) != 0;
+    }
+
+    /**
+     * Checks if this square holds a resource (an item kind or a trader).
+     *
+     * @param resource The resource to look for
+     * @return true if it is present
+     */
+    public boolean hasResource(Resource resource) {
+        return switch (resource) {
+            case FOOD -> hasItemKind(ItemKind.FOOD);
+            case WATER -> hasItemKind(ItemKind.WATER);
+            case GOLD -> hasItemKind(ItemKind.GOLD);
+            case TRADER -> hasTrader();
+        };
+    }
+
+    /**
+     * Returns the kinds of items present as a bitmask of ItemKind.mask() values.
+     * @return bitmask of present item kinds (0 when empty)
+     */
+    public int getItemKinds() {
+        return itemKinds;
+    }
+
+    /**
+     * Checks if this square holds any item at all.
+     * @return true if at least one item is present
+     */
+    public boolean hasItems() {
+        return itemKinds != 0;
+    }
+
+    /**
+     * Removes every item from this square and releases the item list.
+     */
+    public void clearItems() {
+        int removedKinds = itemKinds;
+        items = Collections.emptyList();
+        itemsView = items;
+        itemKinds = 0;
+        unindexItemKinds(removedKinds);
+    }
+
+    private void recomputeItemKinds() {
+        int previousKinds = itemKinds;
+        int kinds = 0;
+        for (int i = 0; i < items.size(); i++) {
+            kinds |= items.get(i).getKind().mask();
+        }
+        itemKinds = kinds;
+        unindexItemKinds(previousKinds & ~kinds);
+    }
+
+    /**
+     * Tells the resource index that the given item kinds are gone from this square.
+     */
+    private void unindexItemKinds(int removedKinds) {
+        if (resourceIndex == null || removedKinds == 0) {
+            return;
+        }
+        for (int bits = removedKinds; bits != 0; bits &= bits - 1) {
+            ItemKind kind = ItemKind.fromOrdinal(Integer.numberOfTrailingZeros(bits));
+            resourceIndex.remove(Resource.of(kind), x, y);
+        }
+    }
+
+    /**
+     * Registers this square with its map's resource index and records
+     * everything currently on it.
+     * @param index The index to keep up to date
+     */
+    void attachIndex(ResourceIndex index) {
+        this.resourceIndex = index;
+        for (int bits = itemKinds; bits != 0; bits &= bits - 1) {
+            ItemKind kind = ItemKind.fromOrdinal(Integer.numberOfTrailingZeros(bits));
+            index.add(Resource.of(kind), x, y);
+        }
+        if (trader != null) {
+            index.add(Resource.TRADER, x, y);
         }
-        return false;
     }
 
 
@@ -91,9 +208,12 @@ public class MapSquare {
      */
     public void removeItem(Item item) {
         if (items.remove(item)) {
-            System.out.println("[MapSquare] Item removed: " + item.getName());
-        } else {
-            System.out.println("[MapSquare] Tried to remove item not found: " + item.getName());
+            recomputeItemKinds(); // another item of the same kind may still be here
+            if (Log.isDebugEnabled()) {
+                Log.debug("[MapSquare] Item removed: " + item.getName());
+            }
+        } else if (Log.isDebugEnabled()) {
+            Log.debug("[MapSquare] Tried to remove item not found: " + item.getName());
         }
     }
 
@@ -111,7 +231,12 @@ public class MapSquare {
      */
     public void setTrader(Trader trader) {
         this.trader = trader;
-        System.out.println("[MapSquare] Trader set: " + trader.getName());
+        if (resourceIndex != null) {
+            resourceIndex.add(Resource.TRADER, x, y);
+        }
+        if (Log.isDebugEnabled()) {
+            Log.debug("[MapSquare] Trader set: " + trader.getName());
+        }
     }
 
     public int getX() {
@@ -134,10 +259,13 @@ public class MapSquare {
      * Removes the trader from this square.
      */
     public void removeTrader() {
-        if (trader != null) {
-            System.out.println("[MapSquare] Trader removed: " + trader.getName());
+        if (trader != null && Log.isDebugEnabled()) {
+            Log.debug("[MapSquare] Trader removed: " + trader.getName());
         }
         trader = null;
+        if (resourceIndex != null) {
+            resourceIndex.remove(Resource.TRADER, x, y);
+        }
     }
 
     // === Additional Getters ===
@@ -146,8 +274,14 @@ public class MapSquare {
         return terrain;
     }
 
+    /**
+     * Returns a read-only view of the items on this square.
+     * Use addItem(), removeItem() and clearItems() to change it, so the
+     * item-kind bitmask stays in sync.
+     * @return the items on this square
+     */
     public List<Item> getItems() {
-        return items;
+        return itemsView;
     }
 
 }
@@ -0,0 +1,193 @@
+package wss.map;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import wss.game.DifficultySettings;
+
+/**
+ * Coherent-noise terrain: neighbouring squares tend to share a terrain type,
+ * so the map forms mountain ranges, swamps and plains corridors instead of
+ * white noise.
+ *
+ * An elevation value is built from OCTAVES layers of value noise. Each layer
+ * has twice the frequency and half the weight of the one before. Lattice
+ * values come from hashing (seed, x, y), so any square can be sampled on its
+ * own in any order and nothing is stored. Elevation is mapped through a fixed
+ * equalization table to a near-uniform value. That value is then cut into
+ * bands, from low to high: SWAMP, PLAINS, FOREST, DESERT, MOUNTAIN. The
+ * band widths follow the same weights as TerrainSampler, so plainsRatio
+ * still holds.
+ *
+ * roll() gives independent hash-based chances per square for items and
+ * traders, again without state.
+ */
+public final class NoiseTerrainGenerator {
+
+    /** Number of noise layers */
+    private static final int OCTAVES = 4;
+
+    /** Size of the largest features, in squares */
+    private static final double FEATURE_SIZE = 24.0;
+
+    /** Terrain types from low to high elevation */
+    private static final TerrainType[] BANDS = {
+        TerrainType.SWAMP, TerrainType.PLAINS, TerrainType.FOREST, TerrainType.DESERT, TerrainType.MOUNTAIN
+    };
+
+    /** Number of steps in the equalization table */
+    private static final int QUANTILE_STEPS = 256;
+
+    /** Elevation at each quantile of a large fixed sample; maps raw elevation to about uniform */
+    private static final double[] QUANTILES = buildQuantiles();
+
+    private final long seed;
+
+    /** Upper end of each band in equalized elevation, in BANDS order */
+    private final double[] bandTop;
+
+    /**
+     * Creates a generator for one map.
+     *
+     * @param seed Seed of the noise field
+     * @param difficulty Difficulty whose plainsRatio sets the band widths (null for equal bands)
+     */
+    public NoiseTerrainGenerator(long seed, DifficultySettings difficulty) {
+        this.seed = seed;
+        this.bandTop = new double[BANDS.length];
+
+        double plains = difficulty != null ? difficulty.getPlainsRatio() : 1.0 / BANDS.length;
+        double other = (1.0 - plains) / (BANDS.length - 1);
+        double top = 0;
+        for (int i = 0; i < BANDS.length; i++) {
+            top += BANDS[i] == TerrainType.PLAINS ? plains : other;
+            bandTop[i] = top;
+        }
+        bandTop[BANDS.length - 1] = 1.0;
+    }
+
+    /**
+     * Returns the terrain at a square.
+     *
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @return terrain type of the square
+     */
+    public TerrainType terrainAt(int x, int y) {
+        double level = equalize(elevation(seed, x, y));
+        for (int i = 0; i < BANDS.length - 1; i++) {
+            if (level < bandTop[i]) {
+                return BANDS[i];
+            }
+        }
+        return BANDS[BANDS.length - 1];
+    }
+
+    /**
+     * Returns a uniform value in [0, 1) for a square. Different channels give
+     * independent values, so one channel can decide food, another water, and so on.
+     *
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @param channel Which independent value to return
+     * @return uniform value for this square and channel
+     */
+    public double roll(int x, int y, int channel) {
+        return unit(hash(seed, x, y, channel + OCTAVES));
+    }
+
+    /**
+     * Fractal value noise in about [0, 1): sum of octaves, normalized by their total weight.
+     */
+    private static double elevation(long seed, int x, int y) {
+        double sum = 0;
+        double weight = 1.0;
+        double totalWeight = 0;
+        double scale = FEATURE_SIZE;
+        for (int octave = 0; octave < OCTAVES; octave++) {
+            sum += weight * valueNoise(seed, x / scale, y / scale, octave);
+            totalWeight += weight;
+            weight *= 0.5;
+            scale *= 0.5;
+        }
+        return sum / totalWeight;
+    }
+
+    /**
+     * Smoothly interpolated lattice noise for one octave.
+     */
+    private static double valueNoise(long seed, double fx, double fy, int octave) {
+        int x0 = (int) Math.floor(fx);
+        int y0 = (int) Math.floor(fy);
+        double tx = smooth(fx - x0);
+        double ty = smooth(fy - y0);
+
+        double v00 = unit(hash(seed, x0, y0, octave));
+        double v10 = unit(hash(seed, x0 + 1, y0, octave));
+        double v01 = unit(hash(seed, x0, y0 + 1, octave));
+        double v11 = unit(hash(seed, x0 + 1, y0 + 1, octave));
+
+        double top = v00 + (v10 - v00) * tx;
+        double bottom = v01 + (v11 - v01) * tx;
+        return top + (bottom - top) * ty;
+    }
+
+    private static double smooth(double t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    private static long hash(long seed, int x, int y, int channel) {
+        return GameMap.mix(seed
+            ^ (x * 0x9E3779B97F4A7C15L)
+            ^ (y * 0xC2B2AE3D27D4EB4FL)
+            ^ (channel * 0x165667B19E3779F9L));
+    }
+
+    /** Top 53 bits of a hash as a double in [0, 1) */
+    private static double unit(long hash) {
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Maps raw elevation to its approximate rank among all elevations,
+     * by interpolating in the quantile table.
+     */
+    private static double equalize(double value) {
+        int index = Arrays.binarySearch(QUANTILES, value);
+        if (index < 0) {
+            index = -index - 2; // last quantile below value
+        }
+        if (index < 0) {
+            return 0;
+        }
+        if (index >= QUANTILE_STEPS) {
+            return Math.nextDown(1.0);
+        }
+        double low = QUANTILES[index];
+        double high = QUANTILES[index + 1];
+        double within = high > low ? (value - low) / (high - low) : 0;
+        return Math.min(Math.nextDown(1.0), (index + within) / QUANTILE_STEPS);
+    }
+
+    /**
+     * The shape of the elevation distribution does not depend on the seed, so it
+     * is measured once from a fixed sample of points.
+     */
+    private static double[] buildQuantiles() {
+        int samples = 1 << 16;
+        double[] values = new double[samples];
+        SplittableRandom random = new SplittableRandom(0x5EED);
+        for (int i = 0; i < samples; i++) {
+            values[i] = elevation(random.nextLong(), random.nextInt(1 << 20), random.nextInt(1 << 20));
+        }
+        Arrays.sort(values);
+
+        double[] quantiles = new double[QUANTILE_STEPS + 1];
+        for (int i = 0; i <= QUANTILE_STEPS; i++) {
+            quantiles[i] = values[Math.min(samples - 1, (int) ((long) i * samples / QUANTILE_STEPS))];
+        }
+        quantiles[0] = 0;
+        quantiles[QUANTILE_STEPS] = 1.0;
+        return quantiles;
+    }
+}
@@ -0,0 +1,454 @@
+package wss.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+import wss.game.DifficultySettings;
+import wss.trader.TraderKind;
+import wss.util.Log;
+
+/**
+ * GameMap backend for very wide (up to Integer.MAX_VALUE columns) maps.
+ *
+ * The map is split into tiles of CHUNK_COLUMNS full-height columns, which are
+ * exactly the generation chunks of GameMap. A tile is generated from the seed
+ * the first time getSquare() touches it, so in RANDOM mode a paged map has the
+ * same squares as a GameMap with the same seed. Terrain lookups never need
+ * the tile: NOISE maps compute terrain from the noise field, and RANDOM maps
+ * keep a terrain-only copy of recent tiles.
+ *
+ * Players only ever head east, so tiles fall behind them. The Game reports
+ * the westernmost active player through releaseBefore(), and once more than
+ * maxTiles tiles are loaded, the least recently used tiles that everybody has
+ * left behind are dropped. Memory is therefore bounded by the tiles around
+ * the players, not by the width of the map. A dropped tile that is visited
+ * again is generated afresh from the seed, and the squares that had changed
+ * since generation (collected items, used or moved traders) are put back
+ * over it, so only the changed squares of dropped tiles stay in memory.
+ *
+ * getSquare() takes a lock, except on the tiles pinned by pinAround(): those
+ * are published as an immutable set that parallel readers search without
+ * locking, and they are never dropped while pinned.
+ *
+ * The map keeps no resource index, since it would cover the whole width;
+ * findNearest() scans around the start instead. An EastCostField is built
+ * under the same size limit as on every other backend, from terrain that is
+ * generated again for the purpose instead of loading the tiles.
+ */
+public class PagedGameMap extends GameMap {
+
+    /** Cached copy of TerrainType.values() */
+    private static final TerrainType[] TERRAIN_TYPES = TerrainType.values();
+
+    /** Default number of tiles kept before retired tiles are dropped */
+    public static final int DEFAULT_MAX_TILES = 8;
+
+    /** Largest number of loaded tiles before retired ones are evicted */
+    private final int maxTiles;
+
+    /** Seed shared by the chunk streams, as in GameMap.generateMap() */
+    private final long chunkSeed;
+
+    /** Loaded tiles by tile number, least recently used first */
+    private final LinkedHashMap<Integer, MapSquare[]> tiles;
+
+    /** Changed squares of dropped tiles, by tile number */
+    private final Map<Integer, MapSquare[]> keptSquares = new HashMap<>();
+
+    /** Tiles with a smaller number than this lie behind every active player */
+    private int retiredTiles;
+
+    /** Terrain ordinals of recently used tiles, least recently used first; RANDOM maps only */
+    private final LinkedHashMap<Integer, byte[]> terrainTiles;
+
+    /** Tile number and squares of the last lookup, to skip the map for repeated hits */
+    private int lastTileNumber = -1;
+    private MapSquare[] lastTile;
+
+    /** Number of tiles generated so far, counting tiles generated again after eviction */
+    private long generatedTiles;
+
+    /** Tiles pinned by the last pinAround(), read without the lock */
+    private volatile PinnedTiles pinned = PinnedTiles.NONE;
+
+    /** True while pinAround() loads tiles, so none of them is evicted before it is pinned */
+    private boolean pinning;
+
+    /**
+     * Constructs a paged map with the given dimensions and difficulty, from a fresh random seed.
+     * @param width Width of the map
+     * @param height Height of the map
+     * @param difficultySetting Difficulty setting for terrain and item generation
+     */
+    public PagedGameMap(int width, int height, DifficultySettings difficultySetting) {
+        this(width, height, difficultySetting, ThreadLocalRandom.current().nextLong(),
+            TerrainMode.RANDOM, DEFAULT_MAX_TILES);
+    }
+
+    /**
+     * Constructs a paged map from a seed.
+     * @param width Width of the map
+     * @param height Height of the map
+     * @param difficultySetting Difficulty setting for terrain and item generation
+     * @param seed Seed for map generation and traders
+     * @param terrainMode RANDOM for independent squares, NOISE for clustered terrain
+     * @param maxTiles Number of tiles to keep before dropping tiles behind the players
+     * @throws IllegalArgumentException if maxTiles is less than 1 or a tile has more than Integer.MAX_VALUE cells
+     */
+    public PagedGameMap(int width, int height, DifficultySettings difficultySetting, long seed,
+                        TerrainMode terrainMode, int maxTiles) {
+        super(width, height, difficultySetting, seed, terrainMode, false);
+        if (maxTiles < 1) {
+            throw new IllegalArgumentException("[PagedGameMap] Error: tile budget must be positive.");
+        }
+        if ((long) CHUNK_COLUMNS * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("[PagedGameMap] Error: map is too high.");
+        }
+        this.maxTiles = maxTiles;
+        this.chunkSeed = random.nextLong();
+        this.tiles = new LinkedHashMap<>(16, 0.75f, true);
+        this.terrainTiles = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Retrieves the MapSquare at a specific coordinate, generating its tile on first access.
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @return MapSquare at (x,y) or null if out of bounds
+     */
+    @Override
+    public MapSquare getSquare(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return null;
+        }
+        int tileNumber = x / CHUNK_COLUMNS;
+        MapSquare[] tile = pinned.get(tileNumber);
+        if (tile == null) {
+            tile = lockedTile(tileNumber);
+        }
+        return tile[(x - tileNumber * CHUNK_COLUMNS) * height + y];
+    }
+
+    private synchronized MapSquare[] lockedTile(int tileNumber) {
+        return lastTileNumber == tileNumber ? lastTile : loadTile(tileNumber);
+    }
+
+    /**
+     * Reads terrain without loading a tile. NOISE maps compute it from the
+     * noise field; RANDOM maps read a pinned tile, or else a terrain-only copy
+     * of the tile, so looking far ahead never creates squares or traders.
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @return TerrainType at (x,y) or null if out of bounds
+     */
+    @Override
+    public TerrainType getTerrainType(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return null;
+        }
+        if (noiseGenerator != null) {
+            return noiseGenerator.terrainAt(x, y);
+        }
+        int tileNumber = x / CHUNK_COLUMNS;
+        int index = (x - tileNumber * CHUNK_COLUMNS) * height + y;
+        MapSquare[] tile = pinned.get(tileNumber);
+        if (tile != null) {
+            return tile[index].getTerrain().getTerrainType();
+        }
+        return TERRAIN_TYPES[lockedTerrain(tileNumber)[index]];
+    }
+
+    /**
+     * Returns the terrain ordinals of a tile, generating them if they are not cached.
+     */
+    private synchronized byte[] lockedTerrain(int tileNumber) {
+        byte[] terrain = terrainTiles.get(tileNumber);
+        if (terrain == null) {
+            terrain = generateTerrain(tileNumber);
+            cacheTerrain(tileNumber, terrain);
+        }
+        return terrain;
+    }
+
+    /**
+     * Keeps the terrain of a tile, dropping the least recently used terrain over maxTiles.
+     */
+    private void cacheTerrain(int tileNumber, byte[] terrain) {
+        terrainTiles.put(tileNumber, terrain);
+        Iterator<Integer> it = terrainTiles.keySet().iterator();
+        while (terrainTiles.size() > maxTiles) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Marks every tile that lies completely west of column x, with one tile of
+     * slack for players that look back, as safe to drop.
+     * @param x Smallest x-coordinate of any player still on the move
+     */
+    @Override
+    public synchronized void releaseBefore(int x) {
+        int retired = Math.max(0, x / CHUNK_COLUMNS - 1);
+        if (retired > retiredTiles) {
+            retiredTiles = retired;
+            evictRetiredTiles();
+        }
+    }
+
+    /**
+     * Generates the terrain of every tile again without creating its squares,
+     * so no tile is loaded or evicted. Terrain never changes after generation,
+     * so this matches the loaded tiles.
+     * @param ordinals Array of at least width * height entries to fill
+     */
+    @Override
+    protected void copyTerrain(byte[] ordinals) {
+        for (int tileNumber = 0; tileNumber < chunkCount(); tileNumber++) {
+            byte[] terrain = generateTerrain(tileNumber);
+            System.arraycopy(terrain, 0, ordinals, tileNumber * CHUNK_COLUMNS * height, terrain.length);
+        }
+    }
+
+    /**
+     * Generates the terrain ordinals of one tile without creating its squares.
+     */
+    private byte[] generateTerrain(int tileNumber) {
+        int startX = tileNumber * CHUNK_COLUMNS;
+        int endX = Math.min(width, startX + CHUNK_COLUMNS);
+        byte[] terrain = new byte[(endX - startX) * height];
+        RandomGenerator random = chunkRandom(chunkSeed, tileNumber);
+        int i = 0;
+        for (int x = startX; x < endX; x++) {
+            for (int y = 0; y < height; y++) {
+                int ordinal = noiseGenerator != null
+                    ? noiseGenerator.terrainAt(x, y).ordinal()
+                    : generateCell(random, x, y) & CELL_TERRAIN_MASK;
+                terrain[i++] = (byte) ordinal;
+            }
+        }
+        return terrain;
+    }
+
+    /**
+     * Loads every tile within radius columns of the positions and pins them,
+     * replacing the tiles pinned before.
+     * @param xs X-coordinates of the positions
+     * @param ys Y-coordinates of the positions (tiles span the full height)
+     * @param count Number of positions to use from xs and ys
+     * @param radius Distance around each position, in king moves
+     */
+    @Override
+    public synchronized void pinAround(int[] xs, int[] ys, int count, int radius) {
+        int[] numbers = new int[Math.max(1, 2 * count)];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int first = Math.max(0, xs[i] - radius) / CHUNK_COLUMNS;
+            int last = (int) (Math.min(width - 1L, (long) xs[i] + radius) / CHUNK_COLUMNS);
+            for (int tileNumber = first; tileNumber <= last; tileNumber++) {
+                if (size == numbers.length) {
+                    numbers = Arrays.copyOf(numbers, size * 2);
+                }
+                numbers[size++] = tileNumber;
+            }
+        }
+        Arrays.sort(numbers, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || numbers[distinct - 1] != numbers[i]) {
+                numbers[distinct++] = numbers[i];
+            }
+        }
+
+        numbers = Arrays.copyOf(numbers, distinct);
+        MapSquare[][] pinnedTiles = new MapSquare[distinct][];
+        pinning = true;
+        try {
+            for (int i = 0; i < distinct; i++) {
+                pinnedTiles[i] = loadTile(numbers[i]);
+            }
+        } finally {
+            pinning = false;
+        }
+        pinned = new PinnedTiles(numbers, pinnedTiles);
+        evictRetiredTiles();
+    }
+
+    /**
+     * Returns a tile from the cache, generating it if needed.
+     */
+    private MapSquare[] loadTile(int tileNumber) {
+        MapSquare[] tile = tiles.get(tileNumber);
+        if (tile == null) {
+            tile = generateTile(tileNumber);
+            tiles.put(tileNumber, tile);
+            evictRetiredTiles();
+        }
+        lastTileNumber = tileNumber;
+        lastTile = tile;
+        return tile;
+    }
+
+    /**
+     * Generates the squares of one tile from its chunk stream, and puts back
+     * the squares kept when it was dropped.
+     */
+    private MapSquare[] generateTile(int tileNumber) {
+        int startX = tileNumber * CHUNK_COLUMNS;
+        int[] cells = generateCells(tileNumber);
+        MapSquare[] tile = new MapSquare[cells.length];
+        byte[] terrain = new byte[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            terrain[i] = (byte) (cells[i] & CELL_TERRAIN_MASK);
+            tile[i] = squareFromCell(cells[i], startX + i / height, i % height);
+        }
+        MapSquare[] kept = keptSquares.remove(tileNumber);
+        if (kept != null) {
+            for (MapSquare square : kept) {
+                tile[(square.getX() - startX) * height + square.getY()] = square;
+            }
+        }
+        cacheTerrain(tileNumber, terrain);
+        generatedTiles++;
+        if (Log.isDebugEnabled()) {
+            Log.debug("[PagedGameMap] Generated tile " + tileNumber + " (columns " + startX + "-" + (startX + cells.length / height - 1) + ")");
+        }
+        return tile;
+    }
+
+    /**
+     * Generates the packed cells of one tile, in column order.
+     */
+    private int[] generateCells(int tileNumber) {
+        int startX = tileNumber * CHUNK_COLUMNS;
+        int endX = Math.min(width, startX + CHUNK_COLUMNS);
+        int[] cells = new int[(endX - startX) * height];
+        RandomGenerator random = chunkRandom(chunkSeed, tileNumber);
+        int i = 0;
+        for (int x = startX; x < endX; x++) {
+            for (int y = 0; y < height; y++) {
+                cells[i++] = generateCell(random, x, y);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Remembers the squares of a dropped tile that generating it again would not bring back.
+     */
+    private void keepChangedSquares(int tileNumber, MapSquare[] tile) {
+        int[] cells = generateCells(tileNumber);
+        List<MapSquare> kept = new ArrayList<>();
+        for (int i = 0; i < tile.length; i++) {
+            if (!matchesCell(tile[i], cells[i])) {
+                kept.add(tile[i]);
+            }
+        }
+        if (!kept.isEmpty()) {
+            keptSquares.put(tileNumber, kept.toArray(new MapSquare[0]));
+        }
+    }
+
+    /**
+     * Whether squareFromCell() would build this square again as it is now.
+     * A trader only matches while it is of the generated kind and has not
+     * made an offer yet.
+     */
+    private static boolean matchesCell(MapSquare square, int cell) {
+        boolean freshTrader = square.hasTrader()
+            && TraderKind.of(square.getTrader()).ordinal() == cell >>> CELL_TRADER_KIND_SHIFT
+            && square.getTrader().getTradesRemaining() == TRADES_PER_TRADER;
+        return ((cell & CELL_TRADER) != 0 ? freshTrader : !square.hasTrader())
+            && square.getItems().size() == Integer.bitCount(cell & (CELL_FOOD | CELL_WATER | CELL_GOLD))
+            && square.hasResource(Resource.FOOD) == ((cell & CELL_FOOD) != 0)
+            && square.hasResource(Resource.WATER) == ((cell & CELL_WATER) != 0)
+            && square.hasResource(Resource.GOLD) == ((cell & CELL_GOLD) != 0);
+    }
+
+    /**
+     * Drops least recently used retired tiles until the budget is met.
+     * Tiles near the players and pinned tiles are never dropped, even over budget.
+     */
+    private void evictRetiredTiles() {
+        if (pinning) {
+            return;
+        }
+        PinnedTiles pins = pinned;
+        Iterator<Map.Entry<Integer, MapSquare[]>> it = tiles.entrySet().iterator();
+        while (tiles.size() > maxTiles && it.hasNext()) {
+            Map.Entry<Integer, MapSquare[]> entry = it.next();
+            int tileNumber = entry.getKey();
+            if (tileNumber < retiredTiles && pins.get(tileNumber) == null) {
+                it.remove();
+                keepChangedSquares(tileNumber, entry.getValue());
+                if (tileNumber == lastTileNumber) {
+                    lastTileNumber = -1;
+                    lastTile = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns how many tiles are in memory right now.
+     * @return number of loaded tiles
+     */
+    public synchronized int getLoadedTileCount() {
+        return tiles.size();
+    }
+
+    /**
+     * Returns how many changed squares of dropped tiles are kept in memory.
+     * @return number of kept squares
+     */
+    public synchronized int getKeptSquareCount() {
+        int count = 0;
+        for (MapSquare[] kept : keptSquares.values()) {
+            count += kept.length;
+        }
+        return count;
+    }
+
+    /**
+     * Returns how many tiles have been generated, counting tiles generated again after being dropped.
+     * @return number of generated tiles
+     */
+    public synchronized long getGeneratedTileCount() {
+        return generatedTiles;
+    }
+
+    public int getMaxTiles() {
+        return maxTiles;
+    }
+
+    /**
+     * Immutable set of tiles handed to readers that take no lock.
+     */
+    private static final class PinnedTiles {
+        static final PinnedTiles NONE = new PinnedTiles(new int[0], new MapSquare[0][]);
+
+        /** Tile numbers, ascending */
+        private final int[] numbers;
+        private final MapSquare[][] tiles;
+
+        PinnedTiles(int[] numbers, MapSquare[][] tiles) {
+            this.numbers = numbers;
+            this.tiles = tiles;
+        }
+
+        /**
+         * @return the squares of a pinned tile, or null if it is not pinned
+         */
+        MapSquare[] get(int tileNumber) {
+            int i = Arrays.binarySearch(numbers, tileNumber);
+            return i >= 0 ? tiles[i] : null;
+        }
+    }
+}
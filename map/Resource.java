@@ -0,0 +1,38 @@
+package wss.map;
+
+import wss.item.ItemKind;
+
+/**
+ * Things a player can look for on the map: the three bonus kinds and traders.
+ */
+public enum Resource {
+
+    FOOD,
+    WATER,
+    GOLD,
+    TRADER;
+
+    /** Cached copy of values(), which clones on every call */
+    private static final Resource[] VALUES = values();
+
+    /**
+     * Returns the resource that matches an item kind.
+     *
+     * @param kind Item kind
+     * @return FOOD, WATER or GOLD
+     */
+    public static Resource of(ItemKind kind) {
+        return switch (kind) {
+            case FOOD -> FOOD;
+            case WATER -> WATER;
+            case GOLD -> GOLD;
+        };
+    }
+
+    /**
+     * @return number of resources
+     */
+    public static int count() {
+        return VALUES.length;
+    }
+}
@@ -0,0 +1,218 @@
+package wss.map;
+
+import java.util.BitSet;
+
+/**
+ * Spatial index that answers "nearest food/water/gold/trader within radius R
+ * of (x,y)" without scanning every square in range.
+ *
+ * The map is cut into square buckets of BUCKET_SIZE x BUCKET_SIZE cells.
+ * For every resource the index keeps one presence bit per cell, laid out
+ * bucket by bucket, plus the number of set bits in each bucket. A query walks
+ * the buckets in rings around the start, skips empty buckets, and stops as
+ * soon as no remaining ring can hold anything closer than the best hit.
+ *
+ * Distances are Chebyshev distances (king moves), since players can move
+ * diagonally at the same cost as straight.
+ *
+ * GameMap builds the index the first time it is asked for, and MapSquare
+ * keeps it up to date whenever items or traders are added or removed.
+ */
+public class ResourceIndex {
+
+    /** log2 of the bucket edge length */
+    private static final int BUCKET_SHIFT = 4;
+
+    /** Edge length of a bucket, in cells */
+    private static final int BUCKET_SIZE = 1 << BUCKET_SHIFT;
+
+    /** Cells per bucket */
+    private static final int BUCKET_CELLS = BUCKET_SIZE * BUCKET_SIZE;
+
+    private final int width;
+    private final int height;
+    private final int bucketsX;
+    private final int bucketsY;
+
+    /** Presence bits per resource, indexed by bitIndex() */
+    private final BitSet[] present;
+
+    /** Number of present cells per resource and bucket */
+    private final int[][] bucketCounts;
+
+    /**
+     * Creates an empty index for a map of the given size.
+     * @param width Width of the map
+     * @param height Height of the map
+     * @throws IllegalArgumentException if the map is too large to index
+     */
+    public ResourceIndex(int width, int height) {
+        if (!canIndex(width, height)) {
+            throw new IllegalArgumentException("[ResourceIndex] Error: map is too large to index.");
+        }
+        this.width = width;
+        this.height = height;
+        this.bucketsX = (width + BUCKET_SIZE - 1) >> BUCKET_SHIFT;
+        this.bucketsY = (height + BUCKET_SIZE - 1) >> BUCKET_SHIFT;
+
+        this.present = new BitSet[Resource.count()];
+        this.bucketCounts = new int[Resource.count()][];
+        for (int r = 0; r < present.length; r++) {
+            present[r] = new BitSet();
+            bucketCounts[r] = new int[bucketsX * bucketsY];
+        }
+    }
+
+    /**
+     * Checks whether a map of the given size fits in one index, whose bits are
+     * addressed by int.
+     * @param width Width of the map
+     * @param height Height of the map
+     * @return true if an index can be built
+     */
+    public static boolean canIndex(int width, int height) {
+        long bucketsX = ((long) width + BUCKET_SIZE - 1) >> BUCKET_SHIFT;
+        long bucketsY = ((long) height + BUCKET_SIZE - 1) >> BUCKET_SHIFT;
+        return bucketsX * bucketsY * BUCKET_CELLS <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Marks a resource as present at (x,y). Adding it twice has no effect.
+     * @param resource Resource to add
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     */
+    public void add(Resource resource, int x, int y) {
+        int bit = bitIndex(x, y);
+        BitSet bits = present[resource.ordinal()];
+        if (!bits.get(bit)) {
+            bits.set(bit);
+            bucketCounts[resource.ordinal()][bit >> (2 * BUCKET_SHIFT)]++;
+        }
+    }
+
+    /**
+     * Marks a resource as gone from (x,y). Removing a missing one has no effect.
+     * @param resource Resource to remove
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     */
+    public void remove(Resource resource, int x, int y) {
+        int bit = bitIndex(x, y);
+        BitSet bits = present[resource.ordinal()];
+        if (bits.get(bit)) {
+            bits.clear(bit);
+            bucketCounts[resource.ordinal()][bit >> (2 * BUCKET_SHIFT)]--;
+        }
+    }
+
+    /**
+     * Checks whether a resource is present at (x,y).
+     * @param resource Resource to check
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @return true if present
+     */
+    public boolean contains(Resource resource, int x, int y) {
+        return present[resource.ordinal()].get(bitIndex(x, y));
+    }
+
+    /**
+     * Finds the closest cell holding a resource.
+     * Ties are broken by bucket order, then by position inside the bucket.
+     *
+     * @param resource Resource to look for
+     * @param x X-coordinate of the start
+     * @param y Y-coordinate of the start
+     * @param radius Largest Chebyshev distance to consider
+     * @return the cell as x * height + y, or -1 if none lies within the radius
+     */
+    public int findNearest(Resource resource, int x, int y, int radius) {
+        return findNearest(resource, x, y, 0, radius);
+    }
+
+    /**
+     * Finds the closest cell holding a resource at least minDistance away,
+     * e.g. 1 to leave out the start itself.
+     * Ties are broken by bucket order, then by position inside the bucket.
+     *
+     * @param resource Resource to look for
+     * @param x X-coordinate of the start
+     * @param y Y-coordinate of the start
+     * @param minDistance Smallest Chebyshev distance to consider
+     * @param radius Largest Chebyshev distance to consider
+     * @return the cell as x * height + y, or -1 if none lies within the range
+     */
+    public int findNearest(Resource resource, int x, int y, int minDistance, int radius) {
+        BitSet bits = present[resource.ordinal()];
+        int[] counts = bucketCounts[resource.ordinal()];
+
+        int centerBx = x >> BUCKET_SHIFT;
+        int centerBy = y >> BUCKET_SHIFT;
+        int maxRing = (radius >> BUCKET_SHIFT) + 1;
+
+        int bestDistance = radius + 1;
+        int bestCell = -1;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // every cell in this ring is at least this far away
+            if (ring > 0 && (ring - 1) * BUCKET_SIZE + 1 >= bestDistance) {
+                break;
+            }
+            for (int by = centerBy - ring; by <= centerBy + ring; by++) {
+                if (by < 0 || by >= bucketsY) continue;
+                boolean edgeRow = by == centerBy - ring || by == centerBy + ring;
+                int step = edgeRow ? 1 : 2 * ring; // inner rows only have the two side buckets
+                for (int bx = centerBx - ring; bx <= centerBx + ring; bx += step) {
+                    if (bx < 0 || bx >= bucketsX) continue;
+                    int bucket = by * bucketsX + bx;
+                    if (counts[bucket] == 0) continue;
+                    if (distanceToBucket(x, y, bx, by) >= bestDistance) continue;
+
+                    int first = bucket * BUCKET_CELLS;
+                    int end = first + BUCKET_CELLS;
+                    for (int bit = bits.nextSetBit(first); bit >= 0 && bit < end; bit = bits.nextSetBit(bit + 1)) {
+                        int local = bit - first;
+                        int cx = (bx << BUCKET_SHIFT) + (local & (BUCKET_SIZE - 1));
+                        int cy = (by << BUCKET_SHIFT) + (local >> BUCKET_SHIFT);
+                        int distance = Math.max(Math.abs(cx - x), Math.abs(cy - y));
+                        if (distance < bestDistance && distance >= minDistance) {
+                            bestDistance = distance;
+                            bestCell = cx * height + cy;
+                        }
+                    }
+                }
+            }
+        }
+        return bestCell;
+    }
+
+    /**
+     * Smallest Chebyshev distance from (x,y) to any cell of a bucket.
+     */
+    private static int distanceToBucket(int x, int y, int bx, int by) {
+        int minX = bx << BUCKET_SHIFT;
+        int minY = by << BUCKET_SHIFT;
+        int dx = x < minX ? minX - x : Math.max(0, x - (minX + BUCKET_SIZE - 1));
+        int dy = y < minY ? minY - y : Math.max(0, y - (minY + BUCKET_SIZE - 1));
+        return Math.max(dx, dy);
+    }
+
+    /**
+     * Bit position of a cell: buckets are stored one after another, and the
+     * cells of a bucket row by row, so a bucket is one contiguous bit range.
+     */
+    private int bitIndex(int x, int y) {
+        int bucket = (y >> BUCKET_SHIFT) * bucketsX + (x >> BUCKET_SHIFT);
+        int local = ((y & (BUCKET_SIZE - 1)) << BUCKET_SHIFT) | (x & (BUCKET_SIZE - 1));
+        return bucket * BUCKET_CELLS + local;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
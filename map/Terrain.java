@@ -3,12 +3,18 @@ package wss.map;
 /**
  * Represents a type of terrain on the map.
  * Each terrain has a type (e.g., Plains, Forest, Mountain) and associated movement, water, and food costs.
+ *
+ * Terrain holds no per-square state, so there is exactly one shared instance
+ * per TerrainType. Use Terrain.of() to get it.
  */ 
 
 public class Terrain {
+
+    /** The shared instances, indexed by TerrainType.ordinal() */
+    private static final Terrain[] INSTANCES = createInstances();
     
     /** The type of this terrain, defining its general category */
-    private TerrainType terrainType;
+    private final TerrainType terrainType;
 
     /**
      * Constructs a Terrain with a given type.
@@ -16,9 +22,27 @@ public class Terrain {
      *
      * @param terrainType The specific type of terrain.
      */
-    public Terrain(TerrainType terrainType) {
+    private Terrain(TerrainType terrainType) {
         this.terrainType = terrainType;
-        System.out.println("[Terrain] Created terrain of type: " + terrainType);
+    }
+
+    private static Terrain[] createInstances() {
+        TerrainType[] types = TerrainType.values();
+        Terrain[] instances = new Terrain[types.length];
+        for (TerrainType type : types) {
+            instances[type.ordinal()] = new Terrain(type);
+        }
+        return instances;
+    }
+
+    /**
+     * Returns the shared Terrain for a terrain type.
+     *
+     * @param terrainType The specific type of terrain.
+     * @return the single Terrain instance for that type
+     */
+    public static Terrain of(TerrainType terrainType) {
+        return INSTANCES[terrainType.ordinal()];
     }
 
     /**
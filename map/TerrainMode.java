@@ -0,0 +1,16 @@
+package wss.map;
+
+/**
+ * How a map chooses the terrain and contents of its squares.
+ */
+public enum TerrainMode {
+
+    /** Every square is drawn independently from the map's random stream (white noise) */
+    RANDOM,
+
+    /**
+     * Terrain follows a coherent noise field, so mountains, swamps and plains form
+     * connected regions. Every square is a pure function of (seed, x, y).
+     */
+    NOISE
+}
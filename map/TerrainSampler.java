@@ -0,0 +1,139 @@
+package wss.map;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.random.RandomGenerator;
+
+import wss.game.DifficultySettings;
+
+/**
+ * Draws TerrainTypes with fixed weights in O(1), using Vose's alias method.
+ *
+ * The table splits the probability mass into one column per terrain type.
+ * Column i keeps type i with probability prob[i] and otherwise yields
+ * alias[i]. A draw picks a column and a threshold from a single
+ * nextDouble(), so it costs one random number and never allocates.
+ *
+ * One sampler per DifficultySettings is built when the class loads: PLAINS
+ * gets the difficulty's plainsRatio and the remaining terrain types share
+ * the rest equally.
+ */
+public final class TerrainSampler {
+
+    private static final TerrainType[] TYPES = TerrainType.values();
+
+    /** Sampler for each DifficultySettings, by ordinal */
+    private static final TerrainSampler[] BY_DIFFICULTY = new TerrainSampler[DifficultySettings.values().length];
+
+    /** Sampler giving every terrain type the same chance */
+    private static final TerrainSampler UNIFORM;
+
+    static {
+        for (DifficultySettings difficulty : DifficultySettings.values()) {
+            BY_DIFFICULTY[difficulty.ordinal()] = new TerrainSampler(plainsWeights(difficulty.getPlainsRatio()));
+        }
+        double[] equal = new double[TYPES.length];
+        Arrays.fill(equal, 1.0);
+        UNIFORM = new TerrainSampler(equal);
+    }
+
+    /** Chance of keeping the column's own type */
+    private final double[] prob;
+
+    /** Type ordinal used when the column's own type is not kept */
+    private final int[] alias;
+
+    /**
+     * Builds a sampler for the given weights, one per TerrainType ordinal.
+     * Weights do not need to add up to 1.
+     *
+     * @param weights Relative weight of each terrain type
+     * @throws IllegalArgumentException if the weights do not match the terrain types,
+     *                                  are negative, or are all zero
+     */
+    public TerrainSampler(double[] weights) {
+        int n = TYPES.length;
+        if (weights.length != n) {
+            throw new IllegalArgumentException("[TerrainSampler] Error: need one weight per terrain type.");
+        }
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("[TerrainSampler] Error: weights must not be negative.");
+            }
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("[TerrainSampler] Error: at least one weight must be positive.");
+        }
+
+        this.prob = new double[n];
+        this.alias = new int[n];
+
+        // Scale so the average column holds exactly 1, then pair light columns with heavy ones
+        double[] scaled = new double[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            (scaled[i] < 1.0 ? small : large).push(i);
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int light = small.pop();
+            int heavy = large.pop();
+            prob[light] = scaled[light];
+            alias[light] = heavy;
+            scaled[heavy] = scaled[heavy] + scaled[light] - 1.0;
+            (scaled[heavy] < 1.0 ? small : large).push(heavy);
+        }
+        // Whatever is left is 1 up to rounding
+        while (!large.isEmpty()) {
+            int i = large.pop();
+            prob[i] = 1.0;
+            alias[i] = i;
+        }
+        while (!small.isEmpty()) {
+            int i = small.pop();
+            prob[i] = 1.0;
+            alias[i] = i;
+        }
+    }
+
+    /**
+     * Returns the shared sampler for a difficulty.
+     *
+     * @param difficulty Difficulty whose plainsRatio to honour, or null for equal chances
+     * @return the sampler
+     */
+    public static TerrainSampler of(DifficultySettings difficulty) {
+        return difficulty == null ? UNIFORM : BY_DIFFICULTY[difficulty.ordinal()];
+    }
+
+    /**
+     * Draws one terrain type, using exactly one random number.
+     *
+     * @param random Random stream to draw from
+     * @return the chosen terrain type
+     */
+    public TerrainType sample(RandomGenerator random) {
+        double u = random.nextDouble() * prob.length;
+        int column = (int) u;
+        if (column == prob.length) {
+            column--; // guards against rounding at the top of the range
+        }
+        return TYPES[(u - column) < prob[column] ? column : alias[column]];
+    }
+
+    /**
+     * Weights for a map where PLAINS covers plainsRatio and the other types share the rest.
+     */
+    private static double[] plainsWeights(double plainsRatio) {
+        double[] weights = new double[TYPES.length];
+        double other = (1.0 - plainsRatio) / (TYPES.length - 1);
+        for (TerrainType type : TYPES) {
+            weights[type.ordinal()] = type == TerrainType.PLAINS ? plainsRatio : other;
+        }
+        return weights;
+    }
+}
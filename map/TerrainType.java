@@ -1,7 +1,7 @@
 package wss.map;
 
 import wss.game.DifficultySettings;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Enum representing the possible types of terrain and their associated movement, water, and food costs.
@@ -59,17 +59,17 @@ public enum TerrainType {
     }
 
     /**
-     * Randomly selects a TerrainType from the available types.
-     * Currently, all terrains have equal chance.
-     * Later, this method can be modified to adjust probabilities based on difficulty.
+     * Randomly selects a TerrainType for one square.
+     * PLAINS appears with the difficulty's plains ratio and the other terrain
+     * types share the rest equally. The draw uses a precomputed TerrainSampler,
+     * so it takes constant time and allocates nothing.
      *
-     * @param difficulty Difficulty setting (currently unused)
+     * @param difficulty Difficulty setting (null gives every terrain the same chance)
      * @param random Random object to control randomness
      * @return A randomly selected TerrainType
      */
-    public static TerrainType chooseRandomTerrain(DifficultySettings difficulty, Random random) {
-        TerrainType[] values = TerrainType.values();
-        return values[random.nextInt(values.length)];
+    public static TerrainType chooseRandomTerrain(DifficultySettings difficulty, RandomGenerator random) {
+        return TerrainSampler.of(difficulty).sample(random);
     }
 
 }
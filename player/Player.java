@@ -6,13 +6,15 @@ import wss.item.Item;
 import wss.map.GameMap;
 import wss.map.MapSquare;
 import wss.map.Terrain;
+import wss.map.TerrainType;
 import wss.trader.Trader;
+import wss.trader.TraderKind;
+import wss.util.Log;
+import wss.util.Metrics;
 import wss.vision.Vision;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 
 /**
@@ -22,6 +24,15 @@ import java.util.Map;
  */
 
 public class Player {
+    // === Turn instrumentation (see Metrics; brain.makeMove includes the vision scan) ===
+    private static final Metrics.Timer LEGAL_MOVE_TIMER = Metrics.timer("turn.hasAnyLegalMove");
+    private static final Metrics.Timer DECIDE_TIMER = Metrics.timer("turn.makeMove");
+    private static final Metrics.Timer MOVE_TIMER = Metrics.timer("turn.move");
+    private static final Metrics.Timer TERRAIN_COST_TIMER = Metrics.timer("move.applyTerrainCost");
+    private static final Metrics.Timer BONUS_TIMER = Metrics.timer("move.handleBonuses");
+    private static final Metrics.Timer TRADE_TIMER = Metrics.timer("move.handleTrade");
+    private static final Metrics.Counter TRADES_ATTEMPTED = Metrics.counter("trades.attempted");
+
     // === Basic Attributes ===
     private String name;    // Player name
     private int strength;   // Current strength (health)
@@ -39,12 +50,14 @@ public class Player {
 
     private boolean reachedGoal = false; // Flag to check if the player has reached the goal
     private boolean finished = false; // Flag to check if the player has finished the game
+    private MoveDirection pendingMove; // Chosen by decideMove(), made by applyMove()
 
     private int turnsTaken = 0;     // Total number of turns the player survived
     private int tradersMet = 0;     // Count of traders encountered
-    private List<String> traderTypesEncountered = new ArrayList<>(); // Types of traders met
-    private List<String> terrainsPassed = new ArrayList<>(); // Names of terrains crossed
-    private Map<String, Integer> terrainStrengthLoss = new HashMap<>(); // Track strength lost per terrain
+    private int[] tradersByKind = new int[TraderKind.count()]; // Traders met, by TraderKind ordinal
+    private byte[] terrainTrace = new byte[32]; // TerrainType ordinal of every square entered
+    private int traceLength = 0;    // Used entries of terrainTrace
+    private int[] terrainStrengthLoss = new int[TerrainType.values().length]; // Strength lost, by TerrainType ordinal
 
      /**
      * Constructs a player with given starting conditions.
@@ -75,36 +88,86 @@ public class Player {
      * Ends the game if strength is depleted or the player reaches the goal.
      */
     public void takeTurn() {
-        if (hasFinished()) return;  // Exit if game already over for player
+        if (decideMove()) {
+            applyMove();
+        }
+    }
 
-        System.out.println("\n=== " + name + "'s Turn ===");
-        System.out.println("Current Position: (" + x + "," + y + ")");
-        System.out.println("Current Resources: " + inventory.toString());
-        System.out.println("Current Strength: " + strength);
+    /**
+     * First half of a turn: checks that the player can still move and lets the
+     * brain choose a direction, without changing the map. Players of one game
+     * may decide at the same time, as long as no move is applied meanwhile.
+     *
+     * @return true if a move was chosen and applyMove() should follow
+     */
+    public boolean decideMove() {
+        pendingMove = null;
+        if (hasFinished()) return false;  // Exit if game already over for player
+
+        if (Log.isInfoEnabled()) {
+            Log.info("\n=== " + name + "'s Turn ===");
+            Log.info("Current Position: (" + x + "," + y + ")");
+            Log.info("Current Resources: " + inventory.toString());
+            Log.info("Current Strength: " + strength);
+        }
 
-        if (!hasAnyLegalMove()) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0L;
+        boolean canMove = hasAnyLegalMove();
+        if (Metrics.ENABLED) {
+            start = LEGAL_MOVE_TIMER.stop(start);
+        }
+        if (!canMove) {
             finished = true;
-            System.out.println("[Player] " + name + " has no legal moves left and perished!");
-            return;
+            if (Log.isInfoEnabled()) {
+                Log.info("[Player] " + name + " has no legal moves left and perished!");
+            }
+            return false;
         }
 
-        turnsTaken++;
-        
         // Let brain decide next move
-        MoveDirection direction = brain.makeMove(map, this);
-        System.out.println("Moving " + direction + "...");
+        pendingMove = brain.makeMove(map, this);
+        if (Metrics.ENABLED) {
+            DECIDE_TIMER.stop(start);
+        }
+        return true;
+    }
+
+    /**
+     * Second half of a turn: makes the move chosen by decideMove(), collecting
+     * items and trading on the way, and checks the game ending conditions.
+     * Does nothing if no move is pending.
+     */
+    public void applyMove() {
+        MoveDirection direction = pendingMove;
+        if (direction == null) return;
+        pendingMove = null;
+
+        turnsTaken++;
+        if (Log.isInfoEnabled()) {
+            Log.info("Moving " + direction + "...");
+        }
+        long start = Metrics.ENABLED ? System.nanoTime() : 0L;
         move(direction);
+        if (Metrics.ENABLED) {
+            MOVE_TIMER.stop(start);
+        }
 
         // Check game ending conditions
         if (strength <= 0) {
             finished = true;
-            System.out.println("[Player] " + name + " ran out of strength and collapsed!");
+            if (Log.isInfoEnabled()) {
+                Log.info("[Player] " + name + " ran out of strength and collapsed!");
+            }
         } else if (x == map.getWidth() - 1) {
             finished = true;
             reachedGoal = true;
-            System.out.println("[Player] " + name + " reached the eastern edge!");
+            if (Log.isInfoEnabled()) {
+                Log.info("[Player] " + name + " reached the eastern edge!");
+            }
+        }
+        if (Log.isInfoEnabled()) {
+            Log.info("=== End of " + name + "'s Turn ===\n");
         }
-        System.out.println("=== End of " + name + "'s Turn ===\n");
     }
 
     /**
@@ -118,17 +181,31 @@ public class Player {
 
         MapSquare targetSquare = map.getSquare(newX, newY);
         if (targetSquare == null || !targetSquare.isEnterable()) {
-            System.out.println("Cannot move to (" + newX + "," + newY + ") - square is not enterable");
+            if (Log.isInfoEnabled()) {
+                Log.info("Cannot move to (" + newX + "," + newY + ") - square is not enterable");
+            }
             return;
         }
 
         x = newX;
         y = newY;
 
-        System.out.println("Entered " + targetSquare.getTerrain().getTerrainType() + " at (" + x + "," + y + ")");
+        if (Log.isInfoEnabled()) {
+            Log.info("Entered " + targetSquare.getTerrain().getTerrainType() + " at (" + x + "," + y + ")");
+        }
+        long start = Metrics.ENABLED ? System.nanoTime() : 0L;
         applyTerrainCost(targetSquare); // Lose strength/food/water
+        if (Metrics.ENABLED) {
+            start = TERRAIN_COST_TIMER.stop(start);
+        }
         handleBonuses(targetSquare);    // Collect items
+        if (Metrics.ENABLED) {
+            start = BONUS_TIMER.stop(start);
+        }
         handleTrade(targetSquare);      // Trade if trader exists
+        if (Metrics.ENABLED) {
+            TRADE_TIMER.stop(start);
+        }
     }
 
     /**
@@ -163,11 +240,17 @@ public class Player {
     * @param square The current MapSquare the player is on
     */
     private void handleBonuses(MapSquare square) {
-        for (Item item : square.getItems()) {
-            System.out.println("Found " + item.getName() + "!");
+        if (!square.hasItems()) return; // most squares are empty
+
+        List<Item> items = square.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (Log.isInfoEnabled()) {
+                Log.info("Found " + item.getName() + "!");
+            }
             item.applyTo(this);
         }
-        square.getItems().clear();
+        square.clearItems();
     }
 
     /**
@@ -179,11 +262,15 @@ public class Player {
     private void handleTrade(MapSquare square) {
         if (square.hasTrader()) {
             Trader trader = square.getTrader();
-            String traderType = trader.getClass().getSimpleName();
-            System.out.println("\nFound " + traderType + " at (" + x + "," + y + ")");
+            if (Log.isInfoEnabled()) {
+                Log.info("\nFound " + trader.getClass().getSimpleName() + " at (" + x + "," + y + ")");
+            }
             
             tradersMet++;
-            traderTypesEncountered.add(traderType);
+            tradersByKind[TraderKind.of(trader).ordinal()]++;
+            if (Metrics.ENABLED) {
+                TRADES_ATTEMPTED.increment();
+            }
 
             brain.initiateTrade(this, trader);
         }
@@ -200,16 +287,18 @@ public class Player {
 
         Terrain terrain = square.getTerrain(); // Get the terrain type of the square
 
-        String terrainName = terrain.getTerrainType().name(); // Get the terrain name
+        int terrainOrdinal = terrain.getTerrainType().ordinal();
 
-        terrainsPassed.add(terrainName); // Keep record of movement path
+        if (traceLength == terrainTrace.length) {
+            terrainTrace = Arrays.copyOf(terrainTrace, traceLength * 2);
+        }
+        terrainTrace[traceLength++] = (byte) terrainOrdinal; // Keep record of movement path
 
 
         int movementCost = terrain.getMovementCost();
 
         strength -= movementCost;
-        terrainStrengthLoss.put(terrainName,
-        terrainStrengthLoss.getOrDefault(terrainName, 0) + movementCost);
+        terrainStrengthLoss[terrainOrdinal] += movementCost;
 
         inventory.spendWater(square.getTerrain().getWaterCost());
         inventory.spendFood(square.getTerrain().getFoodCost());
@@ -299,9 +388,10 @@ public class Player {
             brainType,
             visionType,
             tradersMet,
-            traderTypesEncountered,
-            terrainsPassed,
-            terrainStrengthLoss,
+            tradersByKind.clone(),
+            Arrays.copyOf(terrainTrace, traceLength),
+            traceLength,
+            terrainStrengthLoss.clone(),
             finalStrength
         );
     }
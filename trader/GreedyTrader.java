@@ -1,5 +1,7 @@
 package wss.trader;
 
+import java.util.random.RandomGenerator;
+
 /**
  * GreedyTrader focuses primarily on gold trades and is less aggressive with food and water.
  * They try to maximize their gold profit and are willing to wait for the best deal.
@@ -9,8 +11,8 @@ public class GreedyTrader extends Trader {
     private static final double COUNTER_OFFER_MARGIN = 2.0; // Required margin for counter offers
     private static final double GOLD_MARGIN = 2.5; // Higher margin for gold trades
 
-    public GreedyTrader(int tradesRemaining, Range foodRange, Range waterRange, Range goldRange) {
-        super(tradesRemaining, foodRange, waterRange, goldRange);
+    public GreedyTrader(int tradesRemaining, Range foodRange, Range waterRange, Range goldRange, RandomGenerator random) {
+        super(tradesRemaining, foodRange, waterRange, goldRange, random);
         // Greedy traders are less aggressive with food and water, but very aggressive with gold
         this.requestFoodRange = new Range(1, 2);  // Minimal food requests
         this.requestWaterRange = new Range(1, 2); // Minimal water requests
@@ -23,14 +25,14 @@ public class GreedyTrader extends Trader {
         tradesRemaining--;
 
         // Generate base values
-        int foodOffered = foodRange.getRandomValue();
-        int waterOffered = waterRange.getRandomValue();
-        int goldOffered = goldRange.getRandomValue();
+        int foodOffered = foodRange.getRandomValue(random);
+        int waterOffered = waterRange.getRandomValue(random);
+        int goldOffered = goldRange.getRandomValue(random);
 
         // Request minimal food/water but lots of gold
-        int foodRequested = requestFoodRange.getRandomValue();
-        int waterRequested = requestWaterRange.getRandomValue();
-        int goldRequested = requestGoldRange.getRandomValue();
+        int foodRequested = requestFoodRange.getRandomValue(random);
+        int waterRequested = requestWaterRange.getRandomValue(random);
+        int goldRequested = requestGoldRange.getRandomValue(random);
 
         this.currentOffer = new TradeOffer(
             foodOffered, waterOffered, goldOffered,
@@ -1,5 +1,9 @@
 package wss.trader;
 
+import java.util.random.RandomGenerator;
+
+import wss.util.Log;
+
 /**
  * ImpatientTrader makes normal offers but gets annoyed quickly.
  * They're more likely to accept slightly unfair deals when they're close to their limit.
@@ -15,8 +19,8 @@ public class ImpatientTrader extends Trader {
     private Range requestWaterRange;
     private Range requestGoldRange;
 
-    public ImpatientTrader(int tradesRemaining, Range foodRange, Range waterRange, Range goldRange) {
-        super(tradesRemaining, foodRange, waterRange, goldRange);
+    public ImpatientTrader(int tradesRemaining, Range foodRange, Range waterRange, Range goldRange, RandomGenerator random) {
+        super(tradesRemaining, foodRange, waterRange, goldRange, random);
         this.counterOffersSeen = 0;
         // Impatient traders use slightly better request ranges but are more flexible
         this.requestFoodRange = new Range(2, 5);
@@ -30,14 +34,14 @@ public class ImpatientTrader extends Trader {
         tradesRemaining--;
 
         // Generate base values
-        int foodOffered = foodRange.getRandomValue();
-        int waterOffered = waterRange.getRandomValue();
-        int goldOffered = goldRange.getRandomValue();
+        int foodOffered = foodRange.getRandomValue(random);
+        int waterOffered = waterRange.getRandomValue(random);
+        int goldOffered = goldRange.getRandomValue(random);
 
         // Request slightly more than offering but less than GreedyTrader
-        int foodRequested = requestFoodRange.getRandomValue();
-        int waterRequested = requestWaterRange.getRandomValue();
-        int goldRequested = requestGoldRange.getRandomValue();
+        int foodRequested = requestFoodRange.getRandomValue(random);
+        int waterRequested = requestWaterRange.getRandomValue(random);
+        int goldRequested = requestGoldRange.getRandomValue(random);
 
         this.currentOffer = new TradeOffer(
             foodOffered, waterOffered, goldOffered,
@@ -51,7 +55,7 @@ public class ImpatientTrader extends Trader {
         if (currentOffer == null) return false;
 
         if (counterOffersSeen >= maxCounterOffers) {
-            System.out.println("[ImpatientTrader] No longer interested. Too many counteroffers.");
+            Log.info("[ImpatientTrader] No longer interested. Too many counteroffers.");
             return false;
         }
 
@@ -67,8 +71,10 @@ public class ImpatientTrader extends Trader {
             return true;
         } else {
             counterOffersSeen++;
-            System.out.println("[ImpatientTrader] Offer rejected (" + counterOffersSeen + "/" + maxCounterOffers + 
-                "). Need at least " + (int)(currentThreshold * 100) + "% of requested value.");
+            if (Log.isInfoEnabled()) {
+                Log.info("[ImpatientTrader] Offer rejected (" + counterOffersSeen + "/" + maxCounterOffers + 
+                    "). Need at least " + (int)(currentThreshold * 100) + "% of requested value.");
+            }
             return false;
         }
     }
@@ -1,6 +1,6 @@
 package wss.trader;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents an inclusive range of integer values (min to max).
@@ -15,8 +15,6 @@ public class Range {
     /** Maximum value in the range (inclusive) */
     private int max;
 
-    private static final Random random = new Random();
-
     /**
      * Creates a new Range with a specified minimum and maximum.
      * 
@@ -50,13 +48,16 @@ public class Range {
 
     /**
      * Returns a random integer between min and max (inclusive).
+     * Ranges are shared through DifficultySettings, so the caller supplies the
+     * Random instead of the Range holding one.
      * 
+     * @param random Random generator owned by the caller (one per game)
      * @return A random value within the range
      */
     // When used:
     // - When the Trader generates a new trade offer to propose to the Player.
     // Trader -> Player
-    public int getRandomValue() {
+    public int getRandomValue(RandomGenerator random) {
         return random.nextInt(max - min + 1) + min;
     }
 
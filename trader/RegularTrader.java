@@ -1,6 +1,6 @@
 package wss.trader;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * RegularTrader generates fair trades and accepts any counteroffer
@@ -9,10 +9,9 @@ import java.util.Random;
  */
 public class RegularTrader extends Trader {
     private static final double FAIRNESS_MARGIN = 0.2; // 20% flexibility in either direction
-    private static final Random random = new Random();
 
-    public RegularTrader(int tradesRemaining, Range foodRange, Range waterRange, Range goldRange) {
-        super(tradesRemaining, foodRange, waterRange, goldRange);
+    public RegularTrader(int tradesRemaining, Range foodRange, Range waterRange, Range goldRange, RandomGenerator random) {
+        super(tradesRemaining, foodRange, waterRange, goldRange, random);
         // Regular traders use balanced request ranges
         this.requestFoodRange = new Range(2, 4);
         this.requestWaterRange = new Range(2, 4);
@@ -25,14 +24,14 @@ public class RegularTrader extends Trader {
         tradesRemaining--;
 
         // Generate base values
-        int foodOffered = foodRange.getRandomValue();
-        int waterOffered = waterRange.getRandomValue();
-        int goldOffered = goldRange.getRandomValue();
+        int foodOffered = foodRange.getRandomValue(random);
+        int waterOffered = waterRange.getRandomValue(random);
+        int goldOffered = goldRange.getRandomValue(random);
 
         // Request balanced amounts
-        int foodRequested = requestFoodRange.getRandomValue();
-        int waterRequested = requestWaterRange.getRandomValue();
-        int goldRequested = requestGoldRange.getRandomValue();
+        int foodRequested = requestFoodRange.getRandomValue(random);
+        int waterRequested = requestWaterRange.getRandomValue(random);
+        int goldRequested = requestGoldRange.getRandomValue(random);
 
         this.currentOffer = new TradeOffer(
             foodOffered, waterOffered, goldOffered,
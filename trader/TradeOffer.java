@@ -1,5 +1,7 @@
 package wss.trader;
 
+import wss.util.Log;
+
 /**
  * Represents a trade offer during trading between a Player and a Trader.
  * 
@@ -81,14 +83,17 @@ public class TradeOffer {
     }
     
     /**
-     * Prints the details of the trade offer to the console.
+     * Prints the details of the trade offer to the log.
      * Useful for debugging and showing the trade to the player.
      */
     public void printOffer() {
-        System.out.println("\nTrade Offer Details:");
-        System.out.println("-------------------");
-        System.out.println("Offering:  " + foodOffered + " food, " + waterOffered + " water, " + goldOffered + " gold");
-        System.out.println("Requesting: " + foodRequested + " food, " + waterRequested + " water, " + goldRequested + " gold");
-        System.out.println("-------------------\n");
+        if (!Log.isInfoEnabled()) {
+            return;
+        }
+        Log.info("\nTrade Offer Details:");
+        Log.info("-------------------");
+        Log.info("Offering:  " + foodOffered + " food, " + waterOffered + " water, " + goldOffered + " gold");
+        Log.info("Requesting: " + foodRequested + " food, " + waterRequested + " water, " + goldRequested + " gold");
+        Log.info("-------------------\n");
     }
 }
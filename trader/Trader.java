@@ -1,5 +1,7 @@
 package wss.trader;
 
+import java.util.random.RandomGenerator;
+
 public abstract class Trader {
     protected int tradesRemaining;
     protected Range foodRange;
@@ -11,8 +13,12 @@ public abstract class Trader {
 
     protected TradeOffer currentOffer;
 
-    public Trader(int tradesRemaining, Range foodRange, Range waterRange, Range goldRange) {
+    /** Random generator of the game this trader belongs to */
+    protected RandomGenerator random;
+
+    public Trader(int tradesRemaining, Range foodRange, Range waterRange, Range goldRange, RandomGenerator random) {
         this.tradesRemaining = tradesRemaining;
+        this.random = random;
         this.foodRange = foodRange != null ? foodRange : new Range(1, 3);
         this.waterRange = waterRange != null ? waterRange : new Range(1, 3);
         this.goldRange = goldRange != null ? goldRange : new Range(1, 3);
@@ -29,12 +35,12 @@ public abstract class Trader {
         tradesRemaining--;
 
         this.currentOffer = new TradeOffer(
-            foodRange.getRandomValue(),
-            waterRange.getRandomValue(),
-            goldRange.getRandomValue(),
-            foodRange.getRandomValue(),
-            waterRange.getRandomValue(),
-            goldRange.getRandomValue()
+            foodRange.getRandomValue(random),
+            waterRange.getRandomValue(random),
+            goldRange.getRandomValue(random),
+            foodRange.getRandomValue(random),
+            waterRange.getRandomValue(random),
+            goldRange.getRandomValue(random)
         );
         return currentOffer;
     }
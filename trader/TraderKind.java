@@ -0,0 +1,77 @@
+package wss.trader;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The kinds of traders that can appear on the map.
+ * The ordinal doubles as the compact code stored by map backends.
+ */
+public enum TraderKind {
+
+    REGULAR,
+    IMPATIENT,
+    GREEDY;
+
+    /** Cached copy of values(), which clones on every call */
+    private static final TraderKind[] VALUES = values();
+
+    /**
+     * Creates a new trader of this kind.
+     *
+     * @param trades Number of trades the trader will offer
+     * @param food   Range of food the trader offers
+     * @param water  Range of water the trader offers
+     * @param gold   Range of gold the trader offers
+     * @param random Random generator of the game the trader belongs to
+     * @return a new trader
+     */
+    public Trader create(int trades, Range food, Range water, Range gold, RandomGenerator random) {
+        return switch (this) {
+            case REGULAR -> new RegularTrader(trades, food, water, gold, random);
+            case IMPATIENT -> new ImpatientTrader(trades, food, water, gold, random);
+            case GREEDY -> new GreedyTrader(trades, food, water, gold, random);
+        };
+    }
+
+    /**
+     * Returns the class name of traders of this kind, as shown in reports.
+     *
+     * @return simple class name, e.g. "GreedyTrader"
+     */
+    public String getTypeName() {
+        return switch (this) {
+            case REGULAR -> RegularTrader.class.getSimpleName();
+            case IMPATIENT -> ImpatientTrader.class.getSimpleName();
+            case GREEDY -> GreedyTrader.class.getSimpleName();
+        };
+    }
+
+    /**
+     * @return number of trader kinds
+     */
+    public static int count() {
+        return VALUES.length;
+    }
+
+    /**
+     * Returns the kind with the given ordinal.
+     *
+     * @param ordinal Value previously obtained from ordinal()
+     * @return the matching TraderKind
+     */
+    public static TraderKind fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Returns the kind of an existing trader.
+     *
+     * @param trader Any trader
+     * @return its kind
+     */
+    public static TraderKind of(Trader trader) {
+        if (trader instanceof GreedyTrader) return GREEDY;
+        if (trader instanceof ImpatientTrader) return IMPATIENT;
+        return REGULAR;
+    }
+}
@@ -0,0 +1,32 @@
+package wss.util;
+
+/**
+ * LogSink that prints messages to the console, exactly like the
+ * simulation always has. Messages below the minimum level are dropped.
+ */
+public class ConsoleLogSink implements LogSink {
+
+    /** Lowest level that is printed */
+    private final LogLevel minLevel;
+
+    /**
+     * Creates a console sink.
+     *
+     * @param minLevel Lowest level that is printed (DEBUG prints everything)
+     */
+    public ConsoleLogSink(LogLevel minLevel) {
+        this.minLevel = minLevel;
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return level.compareTo(minLevel) >= 0;
+    }
+
+    @Override
+    public void log(LogLevel level, String message) {
+        if (isEnabled(level)) {
+            System.out.println(message);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package wss.util;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of (priority, value) pairs stored in a single long[].
+ * Used as the open set of the Pathfinder, so pushing and popping a node
+ * never allocates once the array has grown to its working size.
+ *
+ * Entries with the same priority come out in no particular order.
+ */
+class IntMinHeap {
+
+    /** Each entry is priority in the high 32 bits and value in the low 32 bits */
+    private long[] entries;
+
+    /** Number of entries in the heap */
+    private int size;
+
+    IntMinHeap(int initialCapacity) {
+        this.entries = new long[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * Adds a value with the given priority.
+     * @param priority Priority (smaller comes out first); must not be negative
+     * @param value Value to store
+     */
+    void push(int priority, int value) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size + (size >> 1));
+        }
+        long entry = ((long) priority << 32) | (value & 0xFFFFFFFFL);
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (entries[parent] <= entry) break;
+            entries[i] = entries[parent];
+            i = parent;
+        }
+        entries[i] = entry;
+    }
+
+    /**
+     * Removes the entry with the smallest priority.
+     * @return its value
+     */
+    int pop() {
+        long top = entries[0];
+        long last = entries[--size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && entries[child + 1] < entries[child]) {
+                child++;
+            }
+            if (last <= entries[child]) break;
+            entries[i] = entries[child];
+            i = child;
+        }
+        entries[i] = last;
+        return (int) top;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
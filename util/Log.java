@@ -0,0 +1,69 @@
+package wss.util;
+
+/**
+ * Static entry point the model classes use for logging.
+ *
+ * Messages that concatenate values should be guarded, e.g.
+ * <pre>
+ *     if (Log.isDebugEnabled()) {
+ *         Log.debug("[Path] Step added: " + direction);
+ *     }
+ * </pre>
+ * so nothing is formatted when the sink ignores the level.
+ * The default sink prints everything to the console.
+ */
+public final class Log {
+
+    /** Current destination for all messages */
+    private static volatile LogSink sink = new ConsoleLogSink(LogLevel.DEBUG);
+
+    private Log() {
+    }
+
+    /**
+     * Replaces the sink used by every game in this JVM.
+     *
+     * @param newSink The new sink (use NoOpLogSink for silent runs)
+     * @throws IllegalArgumentException if newSink is null
+     */
+    public static void setSink(LogSink newSink) {
+        if (newSink == null) {
+            throw new IllegalArgumentException("[Log] Error: sink cannot be null.");
+        }
+        sink = newSink;
+    }
+
+    public static LogSink getSink() {
+        return sink;
+    }
+
+    public static boolean isDebugEnabled() {
+        return sink.isEnabled(LogLevel.DEBUG);
+    }
+
+    public static boolean isInfoEnabled() {
+        return sink.isEnabled(LogLevel.INFO);
+    }
+
+    /**
+     * Logs a per-cell or per-step detail.
+     * @param message The message text
+     */
+    public static void debug(String message) {
+        LogSink current = sink;
+        if (current.isEnabled(LogLevel.DEBUG)) {
+            current.log(LogLevel.DEBUG, message);
+        }
+    }
+
+    /**
+     * Logs a per-turn event.
+     * @param message The message text
+     */
+    public static void info(String message) {
+        LogSink current = sink;
+        if (current.isEnabled(LogLevel.INFO)) {
+            current.log(LogLevel.INFO, message);
+        }
+    }
+}
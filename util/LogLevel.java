@@ -0,0 +1,13 @@
+package wss.util;
+
+/**
+ * Severity of a log message, from most to least detailed.
+ */
+public enum LogLevel {
+
+    /** Per-cell and per-step details (square creation, path steps, item pickups) */
+    DEBUG,
+
+    /** Per-turn narration (player turns, brain decisions, trades) */
+    INFO
+}
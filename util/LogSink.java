@@ -0,0 +1,26 @@
+package wss.util;
+
+/**
+ * Destination for the log messages emitted by the model classes.
+ *
+ * Callers check isEnabled() before building a message, so a sink that
+ * rejects a level also saves the cost of formatting the message.
+ */
+public interface LogSink {
+
+    /**
+     * Checks whether messages of the given level would be written.
+     *
+     * @param level Level of the message about to be built
+     * @return true if the message should be built and passed to log()
+     */
+    boolean isEnabled(LogLevel level);
+
+    /**
+     * Writes a message.
+     *
+     * @param level   Level of the message
+     * @param message The message text
+     */
+    void log(LogLevel level, String message);
+}
@@ -0,0 +1,207 @@
+package wss.util;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of counters and timers, for finding out where the
+ * time of a turn goes.
+ *
+ * Instrumentation is off unless the JVM is started with -Dwss.metrics=true.
+ * ENABLED is a static final constant, so call sites written as
+ * <pre>
+ *     long start = Metrics.ENABLED ? System.nanoTime() : 0L;
+ *     ...
+ *     if (Metrics.ENABLED) {
+ *         MOVE_TIMER.stop(start);
+ *     }
+ * </pre>
+ * are removed completely by the JIT when it is off.
+ *
+ * Counters and timers are looked up by name once, into static fields of the
+ * class that updates them; asking twice for a name returns the same instance.
+ * Updates go to LongAdders, so games on several threads never wait for each
+ * other. Timers keep a histogram with one bucket per power of two
+ * nanoseconds, which is enough to tell a 100ns phase from a 10us one.
+ */
+public final class Metrics {
+
+    /** Whether instrumentation is on, from the system property wss.metrics */
+    public static final boolean ENABLED = Boolean.getBoolean("wss.metrics");
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the counter with the given name, creating it on first use.
+     *
+     * @param name Counter name, e.g. "trades.attempted"
+     * @return the counter
+     */
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, n -> new Counter());
+    }
+
+    /**
+     * Returns the timer with the given name, creating it on first use.
+     *
+     * @param name Timer name, e.g. "turn.move"
+     * @return the timer
+     */
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, n -> new Timer());
+    }
+
+    /**
+     * Sets every counter and timer back to zero.
+     */
+    public static void reset() {
+        COUNTERS.values().forEach(Counter::reset);
+        TIMERS.values().forEach(Timer::reset);
+    }
+
+    /**
+     * Prints every counter and every timer that has recorded something, sorted by name.
+     * Percentiles are the upper bound of their power-of-two bucket.
+     *
+     * @param out Stream to print to
+     */
+    public static void dump(PrintStream out) {
+        out.printf("%-28s %14s%n", "Counter", "Value");
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(COUNTERS).entrySet()) {
+            out.printf("%-28s %14d%n", entry.getKey(), entry.getValue().get());
+        }
+        out.println();
+        out.printf("%-28s %12s %12s %10s %10s %10s %12s%n",
+            "Timer", "Count", "Total ms", "Mean ns", "p50 ns", "p99 ns", "Max ns");
+        for (Map.Entry<String, Timer> entry : new TreeMap<>(TIMERS).entrySet()) {
+            Timer timer = entry.getValue();
+            long count = timer.getCount();
+            if (count == 0) continue;
+            out.printf("%-28s %12d %12.1f %10d %10d %10d %12d%n", entry.getKey(), count,
+                timer.getTotalNanos() / 1e6, timer.getTotalNanos() / count,
+                timer.getPercentile(0.50), timer.getPercentile(0.99), timer.getMaxNanos());
+        }
+    }
+
+    /**
+     * A count of events.
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        private Counter() {
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        private void reset() {
+            value.reset();
+        }
+    }
+
+    /**
+     * Durations of one phase: count, total, maximum and a log2 histogram.
+     */
+    public static final class Timer {
+        /** Bucket b holds durations from 2^b to 2^(b+1)-1 ns; bucket 0 also holds 0 */
+        private final LongAdder[] buckets = new LongAdder[Long.SIZE];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        private Timer() {
+            for (int b = 0; b < buckets.length; b++) {
+                buckets[b] = new LongAdder();
+            }
+        }
+
+        /**
+         * Records one duration.
+         *
+         * @param nanos Duration in nanoseconds; negative values count as 0
+         */
+        public void record(long nanos) {
+            long duration = Math.max(0L, nanos);
+            count.increment();
+            totalNanos.add(duration);
+            maxNanos.accumulate(duration);
+            buckets[duration == 0 ? 0 : 63 - Long.numberOfLeadingZeros(duration)].increment();
+        }
+
+        /**
+         * Records the time since start and returns the current time, so
+         * consecutive phases can be timed from a single reading each.
+         *
+         * @param start System.nanoTime() at the start of the phase
+         * @return System.nanoTime() at the end of the phase
+         */
+        public long stop(long start) {
+            long now = System.nanoTime();
+            record(now - start);
+            return now;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Returns an upper bound on the given percentile of the recorded durations.
+         *
+         * @param fraction Percentile as a fraction, e.g. 0.99
+         * @return upper bound of the bucket holding that percentile, in nanoseconds (0 if empty)
+         */
+        public long getPercentile(double fraction) {
+            long total = 0;
+            long[] counts = new long[buckets.length];
+            for (int b = 0; b < buckets.length; b++) {
+                counts[b] = buckets[b].sum();
+                total += counts[b];
+            }
+            long rank = (long) Math.ceil(fraction * total);
+            long seen = 0;
+            for (int b = 0; b < counts.length; b++) {
+                seen += counts[b];
+                if (seen >= rank && seen > 0) {
+                    return Math.min((1L << (b + 1)) - 1, getMaxNanos());
+                }
+            }
+            return 0;
+        }
+
+        private void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            count.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+        }
+    }
+}
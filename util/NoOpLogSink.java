@@ -0,0 +1,18 @@
+package wss.util;
+
+/**
+ * LogSink that discards everything. Since isEnabled() is always false,
+ * guarded call sites never build their message strings.
+ */
+public class NoOpLogSink implements LogSink {
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return false;
+    }
+
+    @Override
+    public void log(LogLevel level, String message) {
+        // intentionally empty
+    }
+}
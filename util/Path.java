@@ -1,6 +1,7 @@
 package wss.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import wss.map.MapSquare;
@@ -10,12 +11,31 @@ import wss.player.MoveDirection;
 /**
  * Represents a sequence of movement directions through the map.
  * Tracks the accumulated movement, food, and water costs for following this path.
+ *
+ * Steps are kept in primitive arrays (MoveDirection ordinals and the x/y of
+ * each square entered), and costs are added up as steps are appended.
+ * A Path can be emptied with reset() and filled again, so callers that build
+ * a path every turn can keep reusing one instance.
  */
 
 public class Path {
-    
-    /** The list of movement directions in this path */
-    private List<MoveDirection> directions;
+
+    private static final MoveDirection[] DIRECTIONS = MoveDirection.values();
+
+    /** Ordinals of the movement directions in this path */
+    private byte[] directions;
+
+    /** X-coordinate of the square entered by each step */
+    private int[] xs;
+
+    /** Y-coordinate of the square entered by each step */
+    private int[] ys;
+
+    /** Number of steps in this path */
+    private int length;
+
+    /** Square entered by the last step, or null if the path is empty */
+    private MapSquare lastSquare;
 
     /** Total movement (strength) cost for following the path */
     private int movementCost;
@@ -25,8 +45,6 @@ public class Path {
 
     /** Total water cost for following the path */
     private int waterCost;
-    private List<MapSquare> visitedSquares;
-    private List<MapSquare> squares;
 
 
     /**
@@ -34,13 +52,20 @@ public class Path {
      * Costs start at zero and no steps are added initially.
      */
     public Path() {
-        this.directions = new ArrayList<>();
-        this.movementCost = 0;
-        this.visitedSquares = new ArrayList<>();    
-        this.foodCost = 0;
-        this.waterCost = 0;
-        this.squares = new ArrayList<>();
-        System.out.println("[Path] New empty path created.");
+        this(4);
+    }
+
+    /**
+     * Constructs an empty Path with room for the given number of steps.
+     * The path still grows if more steps are added.
+     *
+     * @param capacity Expected number of steps
+     */
+    public Path(int capacity) {
+        int size = Math.max(1, capacity);
+        this.directions = new byte[size];
+        this.xs = new int[size];
+        this.ys = new int[size];
     }
 
 
@@ -50,34 +75,128 @@ public class Path {
      *
      * @param direction The direction to add (NORTH, EAST, etc.)
      * @param terrain The terrain being entered after making this move
+     * @param square The square being entered
      */
     public void addStep(MoveDirection direction, Terrain terrain, MapSquare square) {
-        directions.add(direction);
-        visitedSquares.add(square);
+        if (length == directions.length) {
+            int newSize = length * 2;
+            directions = Arrays.copyOf(directions, newSize);
+            xs = Arrays.copyOf(xs, newSize);
+            ys = Arrays.copyOf(ys, newSize);
+        }
+        directions[length] = (byte) direction.ordinal();
+        xs[length] = square.getX();
+        ys[length] = square.getY();
+        length++;
+        lastSquare = square;
 
         // Add terrain costs
         movementCost += terrain.getMovementCost();
         foodCost += terrain.getFoodCost();
         waterCost += terrain.getWaterCost();
 
-        System.out.println("[Path] Step added: " + direction +
-            " (Movement Cost: +" + terrain.getMovementCost() +
-            ", Food Cost: +" + terrain.getFoodCost() +
-            ", Water Cost: +" + terrain.getWaterCost() + ")");
+        if (Log.isDebugEnabled()) {
+            Log.debug("[Path] Step added: " + direction +
+                " (Movement Cost: +" + terrain.getMovementCost() +
+                ", Food Cost: +" + terrain.getFoodCost() +
+                ", Water Cost: +" + terrain.getWaterCost() + ")");
+        }
+    }
+
+    /**
+     * Removes all steps and costs so the path can be filled again.
+     */
+    public void reset() {
+        length = 0;
+        lastSquare = null;
+        movementCost = 0;
+        foodCost = 0;
+        waterCost = 0;
+    }
+
+    /**
+     * Returns the number of steps in this path.
+     *
+     * @return Number of steps
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Checks whether this path has no steps.
+     *
+     * @return true if the path is empty
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Returns the direction of one step.
+     *
+     * @param index Step index, from 0
+     * @return MoveDirection of that step
+     */
+    public MoveDirection getDirection(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("[Path] Error: step " + index + " of " + length);
+        }
+        return DIRECTIONS[directions[index]];
+    }
+
+    /**
+     * Returns the first direction of the path, which is the move to make this turn.
+     *
+     * @return First MoveDirection, or STAY if the path is empty
+     */
+    public MoveDirection getFirstDirection() {
+        return length == 0 ? MoveDirection.STAY : DIRECTIONS[directions[0]];
+    }
+
+    /**
+     * Returns the x-coordinate of the square entered by a step.
+     *
+     * @param index Step index, from 0
+     * @return X-coordinate
+     */
+    public int getX(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("[Path] Error: step " + index + " of " + length);
+        }
+        return xs[index];
+    }
+
+    /**
+     * Returns the y-coordinate of the square entered by a step.
+     *
+     * @param index Step index, from 0
+     * @return Y-coordinate
+     */
+    public int getY(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("[Path] Error: step " + index + " of " + length);
+        }
+        return ys[index];
     }
 
     /**
      * Returns the list of movement directions in this path.
-     * 
+     * Builds a new list on every call; prefer length() and getDirection().
+     *
      * @return List of MoveDirection objects
      */
     public List<MoveDirection> getDirections() {
-        return directions;
+        List<MoveDirection> list = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            list.add(DIRECTIONS[directions[i]]);
+        }
+        return list;
     }
 
     /**
      * Returns the total movement (strength) cost accumulated along this path.
-     * 
+     *
      * @return Total movement cost
      */
     public int getMovementCost() {
@@ -86,7 +205,7 @@ public class Path {
 
     /**
      * Returns the total food cost accumulated along this path.
-     * 
+     *
      * @return Total food cost
      */
     public int getFoodCost() {
@@ -95,7 +214,7 @@ public class Path {
 
     /**
      * Returns the total water cost accumulated along this path.
-     * 
+     *
      * @return Total water cost
      */
     public int getWaterCost() {
@@ -104,21 +223,20 @@ public class Path {
 
 
     public MapSquare getLastSquare() {
-        if (visitedSquares.isEmpty()) return null;
-        return visitedSquares.get(visitedSquares.size() - 1);
+        return lastSquare;
     }
 
     /**
      * Returns a summary of the path for display or debugging.
      * Shows total cost and the sequence of directions.
-     * 
+     *
      * @return String summary of the path
      */
     public String getSummary() {
         StringBuilder sb = new StringBuilder();
         sb.append("[Path] Summary: ");
-        for (MoveDirection dir : directions) {
-            sb.append(dir.name()).append(" -> ");
+        for (int i = 0; i < length; i++) {
+            sb.append(DIRECTIONS[directions[i]].name()).append(" -> ");
         }
         sb.append("END | Total Movement: ").append(movementCost)
           .append(", Food: ").append(foodCost)
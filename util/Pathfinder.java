@@ -0,0 +1,402 @@
+package wss.util;
+
+import java.util.Arrays;
+
+import wss.map.GameMap;
+import wss.map.MapSquare;
+import wss.map.TerrainType;
+import wss.player.MoveDirection;
+
+/**
+ * Weighted shortest-path search over the terrain costs of a GameMap.
+ *
+ * The cost of entering a square is
+ *   movementWeight * movement cost + foodWeight * food cost + waterWeight * water cost
+ * of its TerrainType, so a brain can decide how much it cares about strength
+ * compared to supplies. Searches run A* with a Chebyshev-distance heuristic
+ * (players move diagonally at no extra cost), which is plain Dijkstra when
+ * the heuristic is zero.
+ *
+ * A search only looks at a window of squares within getWindowRadius() king
+ * moves of the start, so its memory does not depend on the size of the map.
+ * findPathEast() heads for the eastern column of that window, which is the
+ * eastern edge once the edge is in reach. Only terrain is read during the
+ * search; squares are fetched for the returned Path alone.
+ *
+ * All search state lives in primitive arrays that are kept between calls:
+ * a long-packed binary heap for the open set, and per-cell cost, parent
+ * direction and visit stamps. A new search only bumps the stamp instead of
+ * clearing the arrays, so no per-node objects are ever created.
+ *
+ * A Pathfinder is not thread-safe; give each brain its own.
+ */
+public class Pathfinder {
+
+    /** Default number of squares a single search may expand */
+    public static final int DEFAULT_MAX_EXPANSIONS = 4096;
+
+    /** Default distance from the start, in king moves, that a search may look at */
+    public static final int DEFAULT_WINDOW_RADIUS = 64;
+
+    /** Largest number of cells a search window may hold */
+    private static final long MAX_WINDOW_CELLS = Integer.MAX_VALUE - 8;
+
+    /** The eight real moves (STAY is never part of a route) */
+    private static final MoveDirection[] STEPS = {
+        MoveDirection.NORTH, MoveDirection.SOUTH, MoveDirection.EAST, MoveDirection.WEST,
+        MoveDirection.NORTHEAST, MoveDirection.NORTHWEST, MoveDirection.SOUTHEAST, MoveDirection.SOUTHWEST
+    };
+
+    private static final TerrainType[] TERRAIN_TYPES = TerrainType.values();
+
+    private static final Metrics.Timer SEARCH_TIMER = Metrics.timer("pathfinder.search");
+    private static final Metrics.Counter EXPANSIONS = Metrics.counter("pathfinder.expansions");
+    private static final Metrics.Counter PATHS_BUILT = Metrics.counter("paths.built");
+
+    private int movementWeight = 1;
+    private int foodWeight = 1;
+    private int waterWeight = 1;
+    private int maxExpansions = DEFAULT_MAX_EXPANSIONS;
+    private int windowRadius = DEFAULT_WINDOW_RADIUS;
+
+    /** Weighted cost of entering each TerrainType, by ordinal */
+    private final int[] stepCost = new int[TERRAIN_TYPES.length];
+
+    /** Smallest entry of stepCost, used by the heuristic */
+    private int minStepCost;
+
+    // === Search buffers, reused between searches ===
+
+    private final IntMinHeap open = new IntMinHeap(256);
+    private int[] bestCost = new int[0];
+    private int[] seenStamp = new int[0];
+    private int[] closedStamp = new int[0];
+    private byte[] parentStep = new byte[0];
+    private int[] route = new int[64];
+    private int stamp;
+
+    // === Window of the last search: columns originX.., rows originY.., windowHeight rows ===
+
+    private int originX;
+    private int originY;
+    private int windowHeight;
+
+    /** Start and end cell of the last search, as window indices (end is -1 if there is no route) */
+    private int lastStart;
+    private int lastEnd = -1;
+
+    /** Squares expanded by the last search */
+    private int lastExpansions;
+
+    /** Whether the last search stopped because it ran out of budget */
+    private boolean lastTruncated;
+
+    /**
+     * Creates a pathfinder that weighs movement, food and water equally.
+     */
+    public Pathfinder() {
+        updateStepCosts();
+    }
+
+    /**
+     * Sets how much each kind of cost counts towards the route cost.
+     *
+     * @param movementWeight Weight of the movement (strength) cost
+     * @param foodWeight Weight of the food cost
+     * @param waterWeight Weight of the water cost
+     * @return this pathfinder, so calls can be chained
+     * @throws IllegalArgumentException if a weight is negative or all are zero
+     */
+    public Pathfinder setWeights(int movementWeight, int foodWeight, int waterWeight) {
+        if (movementWeight < 0 || foodWeight < 0 || waterWeight < 0) {
+            throw new IllegalArgumentException("[Pathfinder] Error: weights must not be negative.");
+        }
+        if (movementWeight + foodWeight + waterWeight == 0) {
+            throw new IllegalArgumentException("[Pathfinder] Error: at least one weight must be positive.");
+        }
+        this.movementWeight = movementWeight;
+        this.foodWeight = foodWeight;
+        this.waterWeight = waterWeight;
+        updateStepCosts();
+        return this;
+    }
+
+    /**
+     * Limits how many squares one search may expand. When the budget runs out,
+     * the search returns the route to the most promising square found so far.
+     *
+     * @param maxExpansions Largest number of expanded squares per search
+     * @return this pathfinder, so calls can be chained
+     * @throws IllegalArgumentException if maxExpansions is less than 1
+     */
+    public Pathfinder setMaxExpansions(int maxExpansions) {
+        if (maxExpansions < 1) {
+            throw new IllegalArgumentException("[Pathfinder] Error: expansion budget must be positive.");
+        }
+        this.maxExpansions = maxExpansions;
+        return this;
+    }
+
+    /**
+     * Sets how far from the start a search may look. The search buffers hold
+     * one entry per square of the (2 * windowRadius + 1)^2 window.
+     *
+     * @param windowRadius Distance in king moves
+     * @return this pathfinder, so calls can be chained
+     * @throws IllegalArgumentException if windowRadius is less than 1 or the window would not fit in an array
+     */
+    public Pathfinder setWindowRadius(int windowRadius) {
+        long side = 2L * windowRadius + 1;
+        if (windowRadius < 1 || side * side > MAX_WINDOW_CELLS) {
+            throw new IllegalArgumentException("[Pathfinder] Error: window radius " + windowRadius + " is out of range.");
+        }
+        this.windowRadius = windowRadius;
+        return this;
+    }
+
+    public int getWindowRadius() {
+        return windowRadius;
+    }
+
+    /**
+     * Finds the cheapest route from (x,y) towards the eastern edge: to the
+     * edge itself when it is within the window, otherwise to the eastern
+     * column of the window.
+     *
+     * @param map The game map
+     * @param x Start x-coordinate
+     * @param y Start y-coordinate
+     * @return the route (empty if the start is already on the edge),
+     *         or null if the start is off the map or no step is possible
+     */
+    public Path findPathEast(GameMap map, int x, int y) {
+        return search(map, x, y, Integer.MAX_VALUE, -1) ? buildPath(map) : null;
+    }
+
+    /**
+     * Returns the first move of findPathEast() without building the Path, so
+     * no squares are created or fetched.
+     *
+     * @param map The game map
+     * @param x Start x-coordinate
+     * @param y Start y-coordinate
+     * @return the move, or STAY if the start is on the edge, off the map, or stuck
+     */
+    public MoveDirection nextStepEast(GameMap map, int x, int y) {
+        if (!search(map, x, y, Integer.MAX_VALUE, -1) || lastEnd == lastStart) {
+            return MoveDirection.STAY;
+        }
+        int cell = lastEnd;
+        while (true) {
+            MoveDirection step = STEPS[parentStep[cell]];
+            int previous = cell - step.getXChange() * windowHeight - step.getYChange();
+            if (previous == lastStart) {
+                return step;
+            }
+            cell = previous;
+        }
+    }
+
+    /**
+     * Finds the cheapest route from (x,y) to (targetX,targetY).
+     *
+     * @param map The game map
+     * @param x Start x-coordinate
+     * @param y Start y-coordinate
+     * @param targetX Target x-coordinate
+     * @param targetY Target y-coordinate
+     * @return the route (empty if start and target are the same square), or null if
+     *         either end is off the map, the target is more than getWindowRadius()
+     *         king moves away, or no step is possible
+     */
+    public Path findPath(GameMap map, int x, int y, int targetX, int targetY) {
+        if (map.getTerrainType(targetX, targetY) == null
+                || Math.max(Math.abs((long) targetX - x), Math.abs((long) targetY - y)) > windowRadius) {
+            return null;
+        }
+        return search(map, x, y, targetX, targetY) ? buildPath(map) : null;
+    }
+
+    /**
+     * @return number of squares expanded by the last search
+     */
+    public int getLastExpansions() {
+        return lastExpansions;
+    }
+
+    /**
+     * @return true if the last search ran out of budget and returned a partial route
+     */
+    public boolean wasLastTruncated() {
+        return lastTruncated;
+    }
+
+    /**
+     * Runs a search, timing it when metrics are enabled.
+     * A targetX of Integer.MAX_VALUE means "the eastern column of the window".
+     *
+     * @return true if the search found somewhere to go (lastEnd is set)
+     */
+    private boolean search(GameMap map, int startX, int startY, int targetX, int targetY) {
+        if (!Metrics.ENABLED) {
+            return runSearch(map, startX, startY, targetX, targetY);
+        }
+        long start = System.nanoTime();
+        boolean found = runSearch(map, startX, startY, targetX, targetY);
+        SEARCH_TIMER.stop(start);
+        EXPANSIONS.add(lastExpansions);
+        return found;
+    }
+
+    /**
+     * A* search inside the window around the start. A negative targetY means
+     * "any square in column targetX". Cells are window indices
+     * (x - originX) * windowHeight + (y - originY).
+     */
+    private boolean runSearch(GameMap map, int startX, int startY, int targetX, int targetY) {
+        lastExpansions = 0;
+        lastTruncated = false;
+        lastEnd = -1;
+        if (map.getTerrainType(startX, startY) == null) {
+            return false;
+        }
+
+        originX = Math.max(0, startX - windowRadius);
+        originY = Math.max(0, startY - windowRadius);
+        int endX = (int) Math.min(map.getWidth() - 1L, (long) startX + windowRadius);
+        int endY = (int) Math.min(map.getHeight() - 1L, (long) startY + windowRadius);
+        int windowWidth = endX - originX + 1;
+        windowHeight = endY - originY + 1;
+        if (targetX == Integer.MAX_VALUE) {
+            targetX = endX;
+        }
+        prepare(windowWidth * windowHeight);
+
+        int start = (startX - originX) * windowHeight + (startY - originY);
+        lastStart = start;
+        bestCost[start] = 0;
+        seenStamp[start] = stamp;
+        open.push(heuristic(startX, startY, targetX, targetY), start);
+
+        int bestCell = start;
+        int bestEstimate = Integer.MAX_VALUE;
+        int goalCell = -1;
+
+        while (!open.isEmpty()) {
+            int cell = open.pop();
+            if (closedStamp[cell] == stamp) {
+                continue; // stale heap entry
+            }
+            closedStamp[cell] = stamp;
+
+            int cx = originX + cell / windowHeight;
+            int cy = originY + cell % windowHeight;
+            if (cx == targetX && (targetY < 0 || cy == targetY)) {
+                goalCell = cell;
+                break;
+            }
+
+            int h = heuristic(cx, cy, targetX, targetY);
+            if (h < bestEstimate || (h == bestEstimate && bestCost[cell] < bestCost[bestCell])) {
+                bestEstimate = h;
+                bestCell = cell;
+            }
+            if (++lastExpansions >= maxExpansions) {
+                lastTruncated = true;
+                break;
+            }
+
+            int g = bestCost[cell];
+            for (int s = 0; s < STEPS.length; s++) {
+                int nx = cx + STEPS[s].getXChange();
+                int ny = cy + STEPS[s].getYChange();
+                if (nx < originX || nx > endX || ny < originY || ny > endY) continue;
+                int next = (nx - originX) * windowHeight + (ny - originY);
+                if (closedStamp[next] == stamp) continue;
+
+                int cost = g + stepCost[map.getTerrainType(nx, ny).ordinal()];
+                if (seenStamp[next] != stamp || cost < bestCost[next]) {
+                    seenStamp[next] = stamp;
+                    bestCost[next] = cost;
+                    parentStep[next] = (byte) s;
+                    open.push(cost + heuristic(nx, ny, targetX, targetY), next);
+                }
+            }
+        }
+
+        int end = goalCell >= 0 ? goalCell : bestCell;
+        if (end == start && goalCell < 0) {
+            return false;
+        }
+        lastEnd = end;
+        return true;
+    }
+
+    /**
+     * Walks the parent steps of the last search back from its end to its start
+     * and replays them forward into a Path.
+     */
+    private Path buildPath(GameMap map) {
+        int length = 0;
+        for (int cell = lastEnd; cell != lastStart; ) {
+            if (length == route.length) {
+                route = Arrays.copyOf(route, length * 2);
+            }
+            route[length++] = cell;
+            MoveDirection step = STEPS[parentStep[cell]];
+            cell -= step.getXChange() * windowHeight + step.getYChange();
+        }
+
+        if (Metrics.ENABLED) {
+            PATHS_BUILT.increment();
+        }
+        Path path = new Path(length);
+        for (int i = length - 1; i >= 0; i--) {
+            int cell = route[i];
+            MapSquare square = map.getSquare(originX + cell / windowHeight, originY + cell % windowHeight);
+            path.addStep(STEPS[parentStep[cell]], square.getTerrain(), square);
+        }
+        return path;
+    }
+
+    /**
+     * Lower bound on the remaining cost: every step changes x and y by at most one
+     * and costs at least minStepCost.
+     */
+    private int heuristic(int x, int y, int targetX, int targetY) {
+        int dx = Math.abs(targetX - x);
+        int steps = targetY < 0 ? dx : Math.max(dx, Math.abs(targetY - y));
+        return steps * minStepCost;
+    }
+
+    /**
+     * Grows the buffers to the window size and starts a new stamp generation.
+     * setWindowRadius() keeps the window small enough for one array.
+     */
+    private void prepare(int cells) {
+        if (bestCost.length < cells) {
+            bestCost = new int[cells];
+            seenStamp = new int[cells];
+            closedStamp = new int[cells];
+            parentStep = new byte[cells];
+            stamp = 0;
+        }
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(seenStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            stamp = 1;
+        }
+        open.clear();
+    }
+
+    private void updateStepCosts() {
+        minStepCost = Integer.MAX_VALUE;
+        for (TerrainType type : TERRAIN_TYPES) {
+            int cost = movementWeight * type.getMovementCost()
+                + foodWeight * type.getFoodCost()
+                + waterWeight * type.getWaterCost();
+            stepCost[type.ordinal()] = cost;
+            minStepCost = Math.min(minStepCost, cost);
+        }
+    }
+}
@@ -1,166 +1,22 @@
 package wss.vision;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import wss.map.GameMap;
-
-import wss.player.Player;
-import wss.map.MapSquare;
-
-import wss.util.Path;
 import wss.player.MoveDirection;
 
 
-
 // CautiousVision scans only the adjacent squares (North, East, South). 
 // Prioritizes moving to squares that are close and safe. 
 // Avoids expensive or risky paths.
 public class CautiousVision extends Vision {
 
-    protected List<MoveDirection> directions;
+    /** North, east and south of the player, in that order */
+    private static final OffsetTable TABLE = OffsetTable.ofOffsets(
+        0, -1,
+        1, 0,
+        0, 1
+    );
 
     public CautiousVision() {
         super();
-        this.directions = new ArrayList<>();
-       
-    }
-
-    private boolean hasItem(MapSquare currentSquare) {
-        return true;
-    }
-
-    /**
-     * Returns the path to the closest food. If there are more than one
-     * path that is the same distance, this method chooses the path that
-     * leads to more food. If there are multiple paths that are the same
-     * distance and have the same amount of food, choose path randomly.
-     * 
-     * @return Path object containing the best path to food
-     */
-    @Override
-    public Path closestFood() {
-        // contains the square that will take the least accumulated cost (movement + gold + water) to get to
-        int bestTotalCost = Integer.MAX_VALUE;
-
-        // contains the current total cost of the iteration
-        int currentTotalCost = Integer.MAX_VALUE;
-
-        // the current path of the iteration
-        Path currentPath = null;
-
-        // the closest and best path to the square with food
-        Path optimalPath = null;
-
-        MapSquare currentSquare;
-
-        // iterates over each visible square to look for the optimal path
-        for (int index = 0; index < visibleSquares.size(); index++) {
-            currentSquare = visibleSquares.get(index);
-            
-            // if the current square has food, then evaluate whether it is the optimal path
-            if (hasFood(currentSquare)) {    // replace hasFood() with MapSquare function once it exists
-                currentPath = new Path();
-                currentPath.addStep(directions.get(index), currentSquare.getTerrain(), currentSquare);
-                currentTotalCost = currentPath.getMovementCost() + currentPath.getFoodCost() + currentPath.getWaterCost();
-                
-                // set the new optimal path if a better path is found
-                if (currentTotalCost < bestTotalCost) {
-                    bestTotalCost = currentTotalCost;
-                    optimalPath = currentPath;
-                }
-            }
-        }
-
-        return optimalPath;
-    }
-
-    /**
-     * Returns the path to the closest water. If there are more than one
-     * path that is the same distance, this method chooses the path that
-     * leads to more water. If there are multiple paths that are the same
-     * distance and have the same amount of water, choose path randomly.
-     * 
-     * @return Path object containing the best path to water
-     */
-    public Path closestWater() {
-        // contains the square that will take the least accumulated cost (movement + gold + water) to get to
-        int bestTotalCost = Integer.MAX_VALUE;
-
-        // contains the current total cost of the iteration
-        int currentTotalCost = Integer.MAX_VALUE;
-
-        // the current path of the iteration
-        Path currentPath = null;
-
-        // the closest and best path to the square with food
-        Path optimalPath = null;
-
-        MapSquare currentSquare;
-
-        // iterates over each visible square to look for the optimal path
-        for (int index = 0; index < visibleSquares.size(); index++) {
-            currentSquare = visibleSquares.get(index);
-            
-            // if the current square has food, then evaluate whether it is the optimal path
-            if (hasWater(currentSquare)) {    // replace hasWater() with MapSquare function once it exists
-                currentPath = new Path();
-                currentPath.addStep(directions.get(index), currentSquare.getTerrain(), currentSquare);
-                currentTotalCost = currentPath.getMovementCost() + currentPath.getFoodCost() + currentPath.getWaterCost();
-                
-                // set the new optimal path if a better path is found
-                if (currentTotalCost < bestTotalCost) {
-                    bestTotalCost = currentTotalCost;
-                    optimalPath = currentPath;
-                }
-            }
-        }
-
-        return optimalPath;
-    }
-
-    /**
-     * Returns the path to the closest gold. If there are more than one
-     * path that is the same distance, this method chooses the path that
-     * leads to more gold. If there are multiple paths that are the same
-     * distance and have the same amount of gold, choose path randomly.
-     * 
-     * @return Path object containing the best path to gold
-     */
-    public Path closestGold() {
-        // contains the square that will take the least accumulated cost (movement + gold + water) to get to
-        int bestTotalCost = Integer.MAX_VALUE;
-
-        // contains the current total cost of the iteration
-        int currentTotalCost = Integer.MAX_VALUE;
-
-        // the current path of the iteration
-        Path currentPath = null;
-
-        // the closest and best path to the square with food
-        Path optimalPath = null;
-
-        MapSquare currentSquare;
-
-        // iterates over each visible square to look for the optimal path
-        for (int index = 0; index < visibleSquares.size(); index++) {
-            currentSquare = visibleSquares.get(index);
-            
-            // if the current square has food, then evaluate whether it is the optimal path
-            if (hasGold(currentSquare)) {    // replace hasGold() with MapSquare function once it exists
-                currentPath = new Path();
-                currentPath.addStep(directions.get(index), currentSquare.getTerrain(), currentSquare);
-                currentTotalCost = currentPath.getMovementCost() + currentPath.getFoodCost() + currentPath.getWaterCost();
-                
-                // set the new optimal path if a better path is found
-                if (currentTotalCost < bestTotalCost) {
-                    bestTotalCost = currentTotalCost;
-                    optimalPath = currentPath;
-                }
-            }
-        }
-
-        return optimalPath;
     }
 
     /**
@@ -168,35 +24,11 @@ public class CautiousVision extends Vision {
      * for later evaluation to determine which square has the least cost
      */
     protected void setEasiestSquares() {
-        easiestSquares.add(visibleSquares.get(1));
-        easiestSquaresDirections.add(MoveDirection.EAST);
+        addEasiestSquare(visibleSquares.get(1), MoveDirection.EAST);
     }
 
-    /**
-     * Retrieves all visible squares
-     * 
-     * @param map The map of the entire game
-     * @param player The player in the game
-     * @return List of map squares visible the the player
-     */
     @Override
-    public List<MapSquare> getVisibleSquares(GameMap map, Player player) {
-        int x = player.getX();
-        int y = player.getY();
-
-        // stores square and direction for north square
-        // stores square and direction for north square
-        visibleSquares.add(map.getSquare(x, y - 1));
-        directions.add(MoveDirection.NORTH);
-
-        // stores square and direction for east square
-        visibleSquares.add(map.getSquare(x + 1, y));
-        directions.add(MoveDirection.EAST);
-
-        // stores square and direction for south square
-        visibleSquares.add(map.getSquare(x, y + 1));
-        directions.add(MoveDirection.SOUTH);
-
-        return visibleSquares;
+    protected OffsetTable getOffsetTable() {
+        return TABLE;
     }
 }
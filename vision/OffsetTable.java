@@ -0,0 +1,263 @@
+package wss.vision;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import wss.player.MoveDirection;
+
+/**
+ * Immutable list of squares a vision can see, as offsets from the player,
+ * together with the moves that lead to each of them.
+ *
+ * The route to (dx, dy) first walks straight along the longer axis and then
+ * diagonally, e.g. (2,-1) is EAST then NORTHEAST. A route is always as long as
+ * the king-move distance to its square and never leaves the box between the
+ * player and the target, so every square on it is on the map whenever the
+ * target is.
+ *
+ * Tables only depend on their shape, so they are built once and shared by
+ * every vision and every player.
+ */
+public final class OffsetTable {
+
+    private static final MoveDirection[] DIRECTIONS = MoveDirection.values();
+
+    /** Tables built by of(), keyed by radius and shape */
+    private static final Map<Integer, OffsetTable> CACHE = new ConcurrentHashMap<>();
+
+    private final int[] dx;
+    private final int[] dy;
+
+    /** King-move (Chebyshev) distance of each offset from the player */
+    private final int[] distance;
+
+    /** Largest distance of any offset */
+    private final int reach;
+
+    /** MoveDirection ordinals of all routes, one after another */
+    private final byte[] steps;
+
+    /** Where each route starts in steps; routeStart[size()] is the total length */
+    private final int[] routeStart;
+
+    /** First offset at each distance from 0 to reach + 1, or null if the offsets are not ordered by distance */
+    private final int[] ringStart;
+
+    private OffsetTable(int[] dx, int[] dy) {
+        this.dx = dx;
+        this.dy = dy;
+        this.distance = new int[dx.length];
+        this.routeStart = new int[dx.length + 1];
+        int total = 0;
+        int farthest = 0;
+        for (int i = 0; i < dx.length; i++) {
+            distance[i] = Math.max(Math.abs(dx[i]), Math.abs(dy[i]));
+            routeStart[i] = total;
+            total += distance[i];
+            farthest = Math.max(farthest, distance[i]);
+        }
+        routeStart[dx.length] = total;
+        this.reach = farthest;
+
+        this.steps = new byte[total];
+        for (int i = 0; i < dx.length; i++) {
+            fillRoute(dx[i], dy[i], routeStart[i]);
+        }
+        this.ringStart = ringStarts(distance, farthest);
+    }
+
+    /**
+     * Finds where each ring of equal distance starts.
+     *
+     * @return first index per distance, or null if some offset is closer than the one before it
+     */
+    private static int[] ringStarts(int[] distance, int reach) {
+        int[] starts = new int[reach + 2];
+        int ring = 0;
+        for (int i = 0; i < distance.length; i++) {
+            if (distance[i] < ring) {
+                return null;
+            }
+            while (ring < distance[i]) {
+                starts[++ring] = i;
+            }
+        }
+        while (ring <= reach) {
+            starts[++ring] = distance.length;
+        }
+        return starts;
+    }
+
+    /**
+     * Returns the shared table for a radius and shape. Offsets are ordered by
+     * king-move distance, then from east to west, then from north to south.
+     *
+     * @param radius How far the shape reaches
+     * @param mask Shape of the visible area
+     * @return the table
+     * @throws IllegalArgumentException if radius is less than 1 or mask is null
+     */
+    public static OffsetTable of(int radius, ShapeMask mask) {
+        if (radius < 1) {
+            throw new IllegalArgumentException("[OffsetTable] Error: radius must be at least 1.");
+        }
+        if (mask == null) {
+            throw new IllegalArgumentException("[OffsetTable] Error: shape is required.");
+        }
+        int key = radius * ShapeMask.values().length + mask.ordinal();
+        return CACHE.computeIfAbsent(key, k -> build(radius, mask));
+    }
+
+    /**
+     * Builds a table from an explicit list of offsets, kept in the given order.
+     * Used by visions with a hand-picked shape.
+     *
+     * @param offsets Pairs of dx, dy
+     * @return the table
+     * @throws IllegalArgumentException if the pairs are incomplete or include (0,0)
+     */
+    public static OffsetTable ofOffsets(int... offsets) {
+        if (offsets.length % 2 != 0) {
+            throw new IllegalArgumentException("[OffsetTable] Error: offsets must come in dx, dy pairs.");
+        }
+        int[] dx = new int[offsets.length / 2];
+        int[] dy = new int[offsets.length / 2];
+        for (int i = 0; i < dx.length; i++) {
+            dx[i] = offsets[2 * i];
+            dy[i] = offsets[2 * i + 1];
+            if (dx[i] == 0 && dy[i] == 0) {
+                throw new IllegalArgumentException("[OffsetTable] Error: the player's own square is not an offset.");
+            }
+        }
+        return new OffsetTable(dx, dy);
+    }
+
+    private static OffsetTable build(int radius, ShapeMask mask) {
+        List<int[]> offsets = new ArrayList<>();
+        for (int distance = 1; distance <= radius; distance++) {
+            for (int x = distance; x >= -distance; x--) {
+                for (int y = -distance; y <= distance; y++) {
+                    boolean onRing = Math.max(Math.abs(x), Math.abs(y)) == distance;
+                    if (onRing && mask.contains(x, y, radius)) {
+                        offsets.add(new int[] {x, y});
+                    }
+                }
+            }
+        }
+        int[] dx = new int[offsets.size()];
+        int[] dy = new int[offsets.size()];
+        for (int i = 0; i < dx.length; i++) {
+            dx[i] = offsets.get(i)[0];
+            dy[i] = offsets.get(i)[1];
+        }
+        return new OffsetTable(dx, dy);
+    }
+
+    /**
+     * Writes the straight-then-diagonal route to (x,y) into steps.
+     */
+    private void fillRoute(int x, int y, int at) {
+        int ax = Math.abs(x);
+        int ay = Math.abs(y);
+        MoveDirection straight = ax >= ay
+            ? (x > 0 ? MoveDirection.EAST : MoveDirection.WEST)
+            : (y > 0 ? MoveDirection.SOUTH : MoveDirection.NORTH);
+        MoveDirection diagonal = diagonal(Integer.signum(x), Integer.signum(y));
+
+        for (int i = 0; i < Math.abs(ax - ay); i++) {
+            steps[at++] = (byte) straight.ordinal();
+        }
+        for (int i = 0; i < Math.min(ax, ay); i++) {
+            steps[at++] = (byte) diagonal.ordinal();
+        }
+    }
+
+    private static MoveDirection diagonal(int sx, int sy) {
+        for (MoveDirection direction : DIRECTIONS) {
+            if (direction.getXChange() == sx && direction.getYChange() == sy) {
+                return direction;
+            }
+        }
+        return MoveDirection.STAY;
+    }
+
+    /**
+     * @return number of offsets in this table
+     */
+    public int size() {
+        return dx.length;
+    }
+
+    public int getDx(int index) {
+        return dx[index];
+    }
+
+    public int getDy(int index) {
+        return dy[index];
+    }
+
+    /**
+     * @param index Offset index
+     * @return king-move distance from the player to the offset
+     */
+    public int getDistance(int index) {
+        return distance[index];
+    }
+
+    /**
+     * @return true if the offsets are ordered by distance, as in every table from of()
+     */
+    public boolean isDistanceOrdered() {
+        return ringStart != null;
+    }
+
+    /**
+     * Returns where the offsets at a distance start. In a table ordered by
+     * distance, the offsets at distance d are exactly the indices from
+     * firstAtDistance(d) up to, but not including, firstAtDistance(d + 1).
+     *
+     * @param distance King-move distance, from 0 to getReach() + 1
+     * @return index of the first offset at that distance or farther
+     * @throws IllegalStateException if the table is not ordered by distance
+     */
+    public int firstAtDistance(int distance) {
+        if (ringStart == null) {
+            throw new IllegalStateException("[OffsetTable] Error: offsets are not ordered by distance.");
+        }
+        return ringStart[distance];
+    }
+
+    /**
+     * @return king-move distance of the farthest offset, which bounds every route as well
+     */
+    public int getReach() {
+        return reach;
+    }
+
+    /**
+     * @param index Offset index
+     * @return number of moves needed to reach the offset
+     */
+    public int getRouteLength(int index) {
+        return routeStart[index + 1] - routeStart[index];
+    }
+
+    /**
+     * @param index Offset index
+     * @param step Position in the route, from 0
+     * @return the move at that position of the route
+     */
+    public MoveDirection getStep(int index, int step) {
+        return DIRECTIONS[steps[routeStart[index] + step]];
+    }
+
+    /**
+     * @param index Offset index
+     * @return the first move of the route to the offset
+     */
+    public MoveDirection getFirstStep(int index) {
+        return DIRECTIONS[steps[routeStart[index]]];
+    }
+}
@@ -0,0 +1,112 @@
+package wss.vision;
+
+import wss.map.GameMap;
+import wss.map.MapSquare;
+import wss.map.Resource;
+import wss.player.Player;
+
+/**
+ * Vision with a configurable reach: sees every square of a ShapeMask within
+ * the given radius. The offsets and routes come from a shared OffsetTable,
+ * so a scan does not allocate and players with the same radius and shape
+ * share one table.
+ *
+ * Targets are ranked by king-move distance and then by the cost of the route.
+ * Since the table is ordered by distance, scan() and closestFood/Water/Gold
+ * ask GameMap.findNearest() how far the nearest match is and only look at
+ * the offsets from that ring on, instead of at every square in range. The
+ * result is the same as a full pass; scan() just does not fill the visible
+ * squares any more (getVisibleSquares() still does).
+ */
+public class RadiusVision extends Vision {
+
+    private static final Resource[] RESOURCES = Resource.values();
+
+    private final int radius;
+    private final ShapeMask mask;
+    private final OffsetTable table;
+
+    /**
+     * Creates a vision of the given radius and shape.
+     *
+     * @param radius How many squares away the player can see (at least 1)
+     * @param mask Shape of the visible area
+     * @throws IllegalArgumentException if radius is less than 1 or mask is null
+     */
+    public RadiusVision(int radius, ShapeMask mask) {
+        super();
+        this.table = OffsetTable.of(radius, mask);
+        this.radius = radius;
+        this.mask = mask;
+    }
+
+    /**
+     * Ranks squares by king-move distance.
+     */
+    @Override
+    protected int distanceRank(int index) {
+        return table.getDistance(index);
+    }
+
+    /**
+     * Only records where the player stands; selectBest() reads the map itself.
+     */
+    @Override
+    protected void beginScan(GameMap map, Player player) {
+        setOrigin(map, player);
+    }
+
+    /**
+     * Picks the same offsets as a pass over every visible square. For each
+     * wanted resource, the map's nearest match tells which ring to look at
+     * first; the first ring holding a visible match decides, and rings the
+     * map has no match in are skipped altogether.
+     */
+    @Override
+    protected void selectBest(int wanted) {
+        clearBest();
+        int reach = table.getReach();
+        for (Resource resource : RESOURCES) {
+            if ((wanted & (1 << resource.ordinal())) == 0) continue;
+
+            int from = 1;
+            while (from <= reach && !hasBest(resource)) {
+                MapSquare nearest = map.findNearest(resource, originX, originY, from, reach);
+                if (nearest == null) break;
+                int distance = Math.max(Math.abs(nearest.getX() - originX), Math.abs(nearest.getY() - originY));
+                for (int i = table.firstAtDistance(distance); i < table.firstAtDistance(distance + 1); i++) {
+                    considerOffset(i, 1 << resource.ordinal());
+                }
+                from = distance + 1;
+            }
+        }
+    }
+
+    /**
+     * Stores the squares next to the player on the east side.
+     */
+    @Override
+    protected void setEasiestSquares() {
+        if (map == null) {
+            return; // nothing scanned yet
+        }
+        for (int i = 0; i < table.size() && table.getRouteLength(i) == 1; i++) {
+            if (table.getDx(i) == 1) {
+                addEasiestSquare(map.getSquare(originX + 1, originY + table.getDy(i)), table.getFirstStep(i));
+            }
+        }
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public ShapeMask getMask() {
+        return mask;
+    }
+
+    @Override
+    protected OffsetTable getOffsetTable() {
+        return table;
+    }
+}
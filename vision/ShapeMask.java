@@ -0,0 +1,45 @@
+package wss.vision;
+
+/**
+ * Shapes a RadiusVision can see, relative to the player's square.
+ * The player's own square is never part of a shape.
+ */
+public enum ShapeMask {
+
+    /** Every square within the radius in king moves (a full square around the player) */
+    SQUARE,
+
+    /** Squares within the radius in straight moves (a diamond around the player) */
+    DIAMOND,
+
+    /** Squares inside a circle of the given radius */
+    CIRCLE,
+
+    /** The eastern half of SQUARE, including the player's own column */
+    EAST_HALF;
+
+    /**
+     * Checks whether an offset from the player belongs to this shape.
+     *
+     * @param dx Offset in x
+     * @param dy Offset in y
+     * @param radius Radius of the shape
+     * @return true if the offset is visible
+     */
+    public boolean contains(int dx, int dy, int radius) {
+        if (dx == 0 && dy == 0) {
+            return false;
+        }
+        int ax = Math.abs(dx);
+        int ay = Math.abs(dy);
+        if (ax > radius || ay > radius) {
+            return false;
+        }
+        return switch (this) {
+            case SQUARE -> true;
+            case DIAMOND -> ax + ay <= radius;
+            case CIRCLE -> ax * ax + ay * ay <= radius * radius + radius; // +radius rounds the rim
+            case EAST_HALF -> dx >= 0;
+        };
+    }
+}
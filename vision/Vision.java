@@ -1,58 +1,130 @@
 package wss.vision;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import wss.item.ItemKind;
 import wss.map.GameMap;
 import wss.player.MoveDirection;
 import wss.player.Player;
 import wss.map.MapSquare;
+import wss.map.Resource;
+import wss.map.TerrainType;
 
+import wss.util.Metrics;
 import wss.util.Path;
 
 
 public abstract class Vision {
 
+    private static final Metrics.Timer SCAN_TIMER = Metrics.timer("vision.scan");
+    private static final Metrics.Counter SQUARES_SCANNED = Metrics.counter("vision.squaresScanned");
+    private static final Metrics.Counter PATHS_BUILT = Metrics.counter("paths.built");
+
+    private static final Resource[] RESOURCES = Resource.values();
+
+    /** Bitmask with every Resource ordinal set */
+    private static final int ALL_RESOURCES = (1 << RESOURCES.length) - 1;
+
     protected List<MapSquare> visibleSquares;
     protected List<MapSquare> easiestSquares;
     protected List<MoveDirection> easiestSquaresDirections;
 
+    /** Map and player position of the last scan, used to walk routes from the offset table */
+    protected GameMap map;
+    protected int originX;
+    protected int originY;
+
+    /** Result paths handed out by scan() and closestFood/Water/Gold, one per Resource, reused every scan */
+    private final Path[] resultPaths;
+
+    /** Result of scan(), reused every turn */
+    private final VisionScan lastScan;
+
+    /** Best offset index per Resource found by the last selection, or -1 */
+    private final int[] bestIndex;
+    private final int[] bestRank;
+    private final int[] bestCost;
+
+    /** Result path handed out by easiestPath, reused every call */
+    private final Path easiest;
+
     public Vision() {
         this.visibleSquares = new ArrayList<>();
         this.easiestSquares = new ArrayList<>();
+        this.easiestSquaresDirections = new ArrayList<>();
+        this.resultPaths = new Path[Resource.count()];
+        for (int i = 0; i < resultPaths.length; i++) {
+            resultPaths[i] = new Path();
+        }
+        this.lastScan = new VisionScan();
+        this.bestIndex = new int[Resource.count()];
+        this.bestRank = new int[Resource.count()];
+        this.bestCost = new int[Resource.count()];
+        this.easiest = new Path(1);
     }
 
     /**
-     * Returns the path to the closest food. If there are more than one
-     * path that is the same distance, this method chooses the path that
-     * leads to more food. If there are multiple paths that are the same
-     * distance and have the same amount of food, choose path randomly.
+     * Returns the path to the closest food. Among visible squares with food,
+     * the one with the lowest distanceRank() wins; ties go to the cheaper
+     * route, then to the earlier offset, so the choice is deterministic.
      * 
-     * @return Path object containing the best path to food
+     * @return Path object containing the best path to food, or null if none is visible;
+     *         the same instance is reused by the next scan
      */
-    public abstract Path closestFood();
+    public Path closestFood() {
+        return selectPath(Resource.FOOD);
+    }
 
     /**
-     * Returns the path to the closest water. If there are more than one
-     * path that is the same distance, this method chooses the path that
-     * leads to more water. If there are multiple paths that are the same
-     * distance and have the same amount of water, choose path randomly.
+     * Returns the path to the closest water. Among visible squares with water,
+     * the one with the lowest distanceRank() wins; ties go to the cheaper
+     * route, then to the earlier offset, so the choice is deterministic.
      * 
-     * @return Path object containing the best path to water
+     * @return Path object containing the best path to water, or null if none is visible;
+     *         the same instance is reused by the next scan
      */
-    public abstract Path closestWater();
+    public Path closestWater() {
+        return selectPath(Resource.WATER);
+    }
 
     /**
-     * Returns the path to the closest gold. If there are more than one
-     * path that is the same distance, this method chooses the path that
-     * leads to more gold. If there are multiple paths that are the same
-     * distance and have the same amount of gold, choose path randomly.
+     * Returns the path to the closest gold. Among visible squares with gold,
+     * the one with the lowest distanceRank() wins; ties go to the cheaper
+     * route, then to the earlier offset, so the choice is deterministic.
      * 
-     * @return Path object containing the best path to gold
+     * @return Path object containing the best path to gold, or null if none is visible;
+     *         the same instance is reused by the next scan
      */
-    public abstract Path closestGold();
+    public Path closestGold() {
+        return selectPath(Resource.GOLD);
+    }
 
 
+    /**
+     * Looks at the visible squares once and picks the best food, water, gold
+     * and trader target together, so a brain that weighs several goals does
+     * not have to rescan for each of them.
+     *
+     * A target is better if its distanceRank() is lower, then if its route is
+     * cheaper; on a full tie the earlier offset wins.
+     *
+     * @param map The map of the entire game
+     * @param player The player in the game
+     * @return the scan result; it and its paths are reused by the next scan
+     */
+    public VisionScan scan(GameMap map, Player player) {
+        beginScan(map, player);
+        selectBest(ALL_RESOURCES);
+
+        lastScan.clear();
+        for (Resource resource : RESOURCES) {
+            lastScan.set(resource, buildPath(getOffsetTable(), bestIndex[resource.ordinal()], resource));
+        }
+        return lastScan;
+    }
+
     /**
      * Returns a path in the direction of east that costs the 
      * least overall. The path will only be one square long
@@ -61,57 +133,278 @@ public abstract class Vision {
      */
     public Path easiestPath() {
         int bestTotalCost = Integer.MAX_VALUE;
-    
-    
-        Path optimalPath = null;
+        int bestIndex = -1;
 
+        // the lists belong to the previous call until cleared; setEasiestSquares() only appends
+        easiestSquares.clear();
+        easiestSquaresDirections.clear();
         setEasiestSquares(); // sets easiestSquares and easiestSquaresDirections
 
         for (int index = 0; index < easiestSquares.size(); index++) {
             // each entry is a single MapSquare and MoveDirection
             MapSquare square = easiestSquares.get(index);  // Single square
-            MoveDirection direction = easiestSquaresDirections.get(index);  // Single direction
-    
-            Path currentPath = new Path();
-    
-            // all three: direction, terrain, and square
-            currentPath.addStep(direction, square.getTerrain(), square);
-    
-            int currentTotalCost = currentPath.getMovementCost()
-                              + currentPath.getFoodCost()
-                              + currentPath.getWaterCost();
-    
+            int currentTotalCost = square.getTerrain().getMovementCost()
+                              + square.getTerrain().getFoodCost()
+                              + square.getTerrain().getWaterCost();
+
             if (currentTotalCost < bestTotalCost) {
-            bestTotalCost = currentTotalCost;
-            optimalPath = currentPath;
+                bestTotalCost = currentTotalCost;
+                bestIndex = index;
             }
         }
-  
 
-        return optimalPath;
+        if (bestIndex < 0) {
+            return null;
+        }
+        MapSquare square = easiestSquares.get(bestIndex);
+        if (Metrics.ENABLED) {
+            PATHS_BUILT.increment();
+        }
+        easiest.reset();
+        easiest.addStep(easiestSquaresDirections.get(bestIndex), square.getTerrain(), square);
+        return easiest;
     }
 
     /**
      * Stores the squares that are only one square away from the player
-     * for later evaluation to determine which square has the least cost
+     * for later evaluation to determine which square has the least cost.
+     * Both lists are empty when this is called.
      */
     protected abstract void setEasiestSquares();
 
+    /**
+     * Adds a candidate for easiestPath(). Off-map squares are stored as null
+     * by the scan and are skipped here, so a player on an edge row or column
+     * only gets the neighbours that exist.
+     *
+     * @param square Square one step away, or null if it is off the map
+     * @param direction Step that leads to it
+     */
+    protected void addEasiestSquare(MapSquare square, MoveDirection direction) {
+        if (square != null) {
+            easiestSquares.add(square);
+            easiestSquaresDirections.add(direction);
+        }
+    }
+
     
     // === Utility methods to check for items on a square ===
     protected boolean hasFood(MapSquare square) {
-        return square != null && square.hasItemOfType("Food Bonus");
+        return square != null && square.hasItemKind(ItemKind.FOOD);
     }
 
     protected boolean hasWater(MapSquare square) {
-        return square != null && square.hasItemOfType("Water Bonus");
+        return square != null && square.hasItemKind(ItemKind.WATER);
     }
 
     protected boolean hasGold(MapSquare square) {
-        return square != null && square.hasItemOfType("Gold Bonus");
+        return square != null && square.hasItemKind(ItemKind.GOLD);
+    }
+
+
+    // === Helpers for visions backed by an OffsetTable ===
+
+    /**
+     * Fills visibleSquares with the squares of the table, in table order.
+     * Squares off the map are stored as null so indices always match the table.
+     *
+     * @param table Offsets this vision can see
+     * @param map The map of the entire game
+     * @param player The player in the game
+     * @return visibleSquares
+     */
+    protected List<MapSquare> scanTable(OffsetTable table, GameMap map, Player player) {
+        visibleSquares.clear();
+        setOrigin(map, player);
+        long start = Metrics.ENABLED ? System.nanoTime() : 0L;
+        for (int i = 0; i < table.size(); i++) {
+            visibleSquares.add(map.getSquare(originX + table.getDx(i), originY + table.getDy(i)));
+        }
+        if (Metrics.ENABLED) {
+            SCAN_TIMER.stop(start);
+            SQUARES_SCANNED.add(table.size());
+        }
+        return visibleSquares;
+    }
+
+    /**
+     * Remembers the map and player position that routes and selections start from.
+     *
+     * @param map The map of the entire game
+     * @param player The player in the game
+     */
+    protected void setOrigin(GameMap map, Player player) {
+        this.map = map;
+        this.originX = player.getX();
+        this.originY = player.getY();
+    }
+
+    /**
+     * First half of scan(): reads whatever selectBest() needs. The default
+     * fills visibleSquares; visions that select from the map directly only
+     * call setOrigin().
+     *
+     * @param map The map of the entire game
+     * @param player The player in the game
+     */
+    protected void beginScan(GameMap map, Player player) {
+        getVisibleSquares(map, player);
+    }
+
+    /**
+     * Adds up movement, food and water cost along the route to an offset.
+     * Only reads terrain, so it creates no squares and no Path.
+     *
+     * @param table Table of the last scan
+     * @param index Offset index; the square must be on the map
+     * @return total cost of the route
+     */
+    protected int routeCost(OffsetTable table, int index) {
+        int x = originX;
+        int y = originY;
+        int cost = 0;
+        for (int step = 0; step < table.getRouteLength(index); step++) {
+            MoveDirection direction = table.getStep(index, step);
+            x += direction.getXChange();
+            y += direction.getYChange();
+            TerrainType type = map.getTerrainType(x, y);
+            cost += type.getMovementCost() + type.getFoodCost() + type.getWaterCost();
+        }
+        return cost;
+    }
+
+    /**
+     * Ranks an offset by distance; lower is better, and route cost only
+     * decides between offsets of the same rank. The default ranks every
+     * offset the same, so the cheapest route wins.
+     *
+     * @param index Offset index in getOffsetTable()
+     * @return distance rank of the offset
+     */
+    protected int distanceRank(int index) {
+        return 0;
+    }
+
+    /**
+     * Picks the best visible square for one resource from the last scan.
+     */
+    private Path selectPath(Resource resource) {
+        selectBest(1 << resource.ordinal());
+        return buildPath(getOffsetTable(), bestIndex[resource.ordinal()], resource);
+    }
+
+    /**
+     * Picks the best offset for every wanted resource, as described at scan().
+     * The default is one pass over visibleSquares. Overrides must pick the
+     * same offsets, using clearBest() and consider().
+     *
+     * @param wanted Bitmask of Resource ordinals to look for
+     */
+    protected void selectBest(int wanted) {
+        clearBest();
+        for (int i = 0; i < visibleSquares.size(); i++) {
+            consider(i, visibleSquares.get(i), wanted);
+        }
+    }
+
+    /**
+     * Forgets the offsets picked by the last selection.
+     */
+    protected final void clearBest() {
+        Arrays.fill(bestIndex, -1);
+    }
+
+    /**
+     * Checks whether the last selection found an offset for a resource.
+     *
+     * @param resource Resource to check
+     * @return true if consider() picked an offset for it since clearBest()
+     */
+    protected final boolean hasBest(Resource resource) {
+        return bestIndex[resource.ordinal()] >= 0;
+    }
+
+    /**
+     * Offers the square at one offset to the selection, and keeps it for
+     * every wanted resource it holds and wins. Offsets must be offered in
+     * table order, so that a full tie goes to the earlier one. A route's cost
+     * is computed at most once, and only if the square could still win on rank.
+     *
+     * @param index Offset index in getOffsetTable()
+     * @param square Square at that offset, or null if it is off the map
+     * @param wanted Bitmask of Resource ordinals to look for
+     */
+    protected final void consider(int index, MapSquare square, int wanted) {
+        if (square == null) {
+            return;
+        }
+        int rank = Integer.MIN_VALUE;
+        int cost = -1;
+        for (Resource resource : RESOURCES) {
+            int r = resource.ordinal();
+            if ((wanted & (1 << r)) == 0 || !square.hasResource(resource)) continue;
+
+            if (rank == Integer.MIN_VALUE) {
+                rank = distanceRank(index);
+            }
+            if (bestIndex[r] >= 0 && rank > bestRank[r]) continue;
+            if (cost < 0) {
+                cost = routeCost(getOffsetTable(), index);
+            }
+            if (bestIndex[r] < 0 || rank < bestRank[r] || cost < bestCost[r]) {
+                bestIndex[r] = index;
+                bestRank[r] = rank;
+                bestCost[r] = cost;
+            }
+        }
+    }
+
+    /**
+     * Reads the square at one offset from the map and offers it to the
+     * selection, for visions that do not fill visibleSquares first.
+     *
+     * @param index Offset index in getOffsetTable()
+     * @param wanted Bitmask of Resource ordinals to look for
+     */
+    protected final void considerOffset(int index, int wanted) {
+        OffsetTable table = getOffsetTable();
+        if (Metrics.ENABLED) {
+            SQUARES_SCANNED.increment();
+        }
+        consider(index, map.getSquare(originX + table.getDx(index), originY + table.getDy(index)), wanted);
+    }
+
+    /**
+     * Fills the result path for a resource along the table route to an offset.
+     * The same Path instance is returned for every call with the same resource,
+     * so callers must use it before the next scan.
+     *
+     * @param table Table of the last scan
+     * @param index Offset index, or -1
+     * @param resource Resource the path leads to
+     * @return the path, or null if index is -1
+     */
+    protected Path buildPath(OffsetTable table, int index, Resource resource) {
+        if (index < 0) {
+            return null;
+        }
+        if (Metrics.ENABLED) {
+            PATHS_BUILT.increment();
+        }
+        Path path = resultPaths[resource.ordinal()];
+        path.reset();
+        int x = originX;
+        int y = originY;
+        for (int step = 0; step < table.getRouteLength(index); step++) {
+            MoveDirection direction = table.getStep(index, step);
+            x += direction.getXChange();
+            y += direction.getYChange();
+            MapSquare square = map.getSquare(x, y);
+            path.addStep(direction, square.getTerrain(), square);
+        }
+        return path;
     }
 
-    
     /**
      * Retrieves all visible squares
      * 
@@ -119,5 +412,24 @@ public abstract class Vision {
      * @param player The player in the game
      * @return List of map squares visible the the player
      */
-    public abstract List<MapSquare> getVisibleSquares(GameMap map, Player player);
+    public List<MapSquare> getVisibleSquares(GameMap map, Player player) {
+        return scanTable(getOffsetTable(), map, player);
+    }
+
+    /**
+     * Returns how far from the player this vision reads the map. Brains look
+     * at the squares next to the player as well, so it is at least 1.
+     *
+     * @return the distance in king moves
+     */
+    public int getReach() {
+        return Math.max(1, getOffsetTable().getReach());
+    }
+
+    /**
+     * Returns the squares this vision can see, as offsets from the player.
+     *
+     * @return the offset table of this vision
+     */
+    protected abstract OffsetTable getOffsetTable();
 }
@@ -0,0 +1,51 @@
+package wss.vision;
+
+import wss.map.Resource;
+import wss.util.Path;
+
+/**
+ * Snapshot of one Vision.scan(): the best visible food, water, gold and
+ * trader target of this turn, each as a path from the player.
+ *
+ * A Vision hands out the same VisionScan (and the same paths) every turn,
+ * so read what you need before the next scan.
+ */
+public class VisionScan {
+
+    /** Path per Resource, or null if nothing of that kind is visible */
+    private final Path[] paths = new Path[Resource.count()];
+
+    void clear() {
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = null;
+        }
+    }
+
+    void set(Resource resource, Path path) {
+        paths[resource.ordinal()] = path;
+    }
+
+    /**
+     * @param resource What to look for
+     * @return path to the best visible square with it, or null if none is visible
+     */
+    public Path get(Resource resource) {
+        return paths[resource.ordinal()];
+    }
+
+    public Path getFood() {
+        return paths[Resource.FOOD.ordinal()];
+    }
+
+    public Path getWater() {
+        return paths[Resource.WATER.ordinal()];
+    }
+
+    public Path getGold() {
+        return paths[Resource.GOLD.ordinal()];
+    }
+
+    public Path getTrader() {
+        return paths[Resource.TRADER.ordinal()];
+    }
+}